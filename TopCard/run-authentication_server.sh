@@ -25,5 +25,22 @@ CP+=":lib/spring-core-6.1.21.jar"
 CP+=":lib/spring-aop-6.1.21.jar"
 CP+=":lib/spring-expression-6.1.21.jar"
 
+# Session tickets need a private secret shared by the authentication and game servers. The servers read it from
+# the exported TOPCARD_TICKET_SECRET or the file named by TOPCARD_TICKET_SECRET_FILE, never from the command line.
+# TOPCARD_TICKET_DEV_MODE=true signs with the public development secret, for local development only.
+if [ -n "$TOPCARD_TICKET_SECRET" ]; then
+    export TOPCARD_TICKET_SECRET
+    TICKET_OPTS=()
+elif [ -n "$TOPCARD_TICKET_SECRET_FILE" ]; then
+    TICKET_OPTS=("-Dauth.ticket.secretFile=$TOPCARD_TICKET_SECRET_FILE")
+elif [ "$TOPCARD_TICKET_DEV_MODE" = "true" ]; then
+    echo "TOPCARD_TICKET_DEV_MODE is set. Session tickets use the public development secret and can be forged."
+    TICKET_OPTS=("-Dauth.ticket.devMode=true")
+else
+    echo "TOPCARD_TICKET_SECRET is not set. Export the secret shared by the servers, or set TOPCARD_TICKET_SECRET_FILE" >&2
+    echo "to a file holding it. For local development only, set TOPCARD_TICKET_DEV_MODE=true." >&2
+    exit 1
+fi
+
 echo "Starting Authentication Server on port 9090..."
-java -cp "$CP" com.topcard.network.authentication.AuthenticationServer
+java -cp "$CP" "${TICKET_OPTS[@]}" com.topcard.network.authentication.AuthenticationServer
@@ -0,0 +1,69 @@
+#!/bin/bash
+
+BASE_DIR="$(pwd)"
+
+CP="$BASE_DIR/target/classes"
+CP+=":$BASE_DIR/lib/log4j-api-2.20.0.jar"
+CP+=":$BASE_DIR/lib/log4j-core-2.20.0.jar"
+CP+=":$BASE_DIR/lib/jakarta.persistence-api-3.1.0.jar"
+CP+=":$BASE_DIR/lib/hibernate-core-6.4.4.Final.jar"
+CP+=":$BASE_DIR/lib/jboss-logging-3.5.0.Final.jar"
+CP+=":$BASE_DIR/lib/jakarta.transaction-api-2.0.1.jar"
+CP+=":$BASE_DIR/lib/jakarta.xml.bind-api-4.0.0.jar"
+CP+=":$BASE_DIR/lib/jaxb-runtime-4.0.3.jar"
+CP+=":$BASE_DIR/lib/classmate-1.5.1.jar"
+CP+=":$BASE_DIR/lib/hibernate-commons-annotations-6.0.6.Final.jar"
+CP+=":$BASE_DIR/lib/mysql-connector-j-8.0.33.jar"
+CP+=":$BASE_DIR/lib/byte-buddy-1.12.23.jar"
+CP+=":$BASE_DIR/lib/antlr4-runtime-4.9.3.jar"
+CP+=":$BASE_DIR/lib/commons-logging-1.3.1.jar"
+
+# Spring Framework 6.1.21 core JARs
+CP+=":lib/spring-context-6.1.21.jar"
+CP+=":lib/spring-beans-6.1.21.jar"
+CP+=":lib/spring-core-6.1.21.jar"
+CP+=":lib/spring-aop-6.1.21.jar"
+CP+=":lib/spring-expression-6.1.21.jar"
+
+
+# Session tickets need a private secret shared by the authentication and game servers. The servers read it from
+# the exported TOPCARD_TICKET_SECRET or the file named by TOPCARD_TICKET_SECRET_FILE, never from the command line.
+# TOPCARD_TICKET_DEV_MODE=true signs with the public development secret, for local development only.
+if [ -n "$TOPCARD_TICKET_SECRET" ]; then
+    export TOPCARD_TICKET_SECRET
+    TICKET_OPTS=()
+elif [ -n "$TOPCARD_TICKET_SECRET_FILE" ]; then
+    TICKET_OPTS=("-Dauth.ticket.secretFile=$TOPCARD_TICKET_SECRET_FILE")
+elif [ "$TOPCARD_TICKET_DEV_MODE" = "true" ]; then
+    echo "TOPCARD_TICKET_DEV_MODE is set. Session tickets use the public development secret and can be forged."
+    TICKET_OPTS=("-Dauth.ticket.devMode=true")
+else
+    echo "TOPCARD_TICKET_SECRET is not set. Export the secret shared by the servers, or set TOPCARD_TICKET_SECRET_FILE" >&2
+    echo "to a file holding it. For local development only, set TOPCARD_TICKET_DEV_MODE=true." >&2
+    exit 1
+fi
+
+# Nodes prove themselves to the router with a cluster secret, read from TOPCARD_ROUTER_SECRET. Without one this
+# run gets a random secret that only the processes started here know.
+if [ -z "$TOPCARD_ROUTER_SECRET" ]; then
+    TOPCARD_ROUTER_SECRET="$(head -c 32 /dev/urandom | base64)"
+fi
+export TOPCARD_ROUTER_SECRET
+
+# Usage: ./run-cluster.sh [nodes]
+# Starts a lobby router on port 12340 and the given number of game nodes (default 3) on ports 12345 and up,
+# all on this host. Clients set game.client.port=12340 to be routed to the least-loaded node.
+NODES=${1:-3}
+ROUTER_PORT=12340
+
+echo "Starting Lobby Router on port $ROUTER_PORT..."
+java -cp "$CP" -Drouter.port=$ROUTER_PORT com.topcard.network.router.LobbyRouter &
+
+for ((i = 0; i < NODES; i++)); do
+    PORT=$((12345 + i))
+    echo "Starting TopCard Game Server node on port $PORT..."
+    java -cp "$CP" "${TICKET_OPTS[@]}" -Dgame.server.port=$PORT -Dgame.server.router=localhost:$ROUTER_PORT com.topcard.network.game.GameServer &
+done
+
+trap 'kill $(jobs -p)' INT TERM
+wait
@@ -0,0 +1,88 @@
+package com.topcard.business;
+
+import com.topcard.domain.Player;
+import com.topcard.util.ConfigUtil;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Supplies the bot players that fill empty seats, entirely in memory.
+ * <p>
+ * Bots have reserved negative ids, which the database never issues, so they are never looked up, hashed or
+ * persisted. The pool keeps bot identities (id and username) rather than players: each borrow returns fresh
+ * Player objects at the starting points, since a finished round's roster may still be waiting to be written
+ * to clients when the identities are reused. Bots in use at the same time always have distinct usernames.
+ * </p>
+ */
+@Component
+public class BotPool {
+
+    public static final String USERNAME_PREFIX = "Bot#";
+
+    private final int startingPoints;
+    private final int poolSize;
+    private final ConcurrentLinkedDeque<Integer> idleIds = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger nextId = new AtomicInteger(-1); // Counts down; real players count up from 1
+
+    /**
+     * Creates a pool from game.bots.poolSize and game.bots.startingPoints.
+     */
+    public BotPool() {
+        this(ConfigUtil.getInt("game.bots.poolSize", 64), ConfigUtil.getInt("game.bots.startingPoints", 100));
+    }
+
+    public BotPool(int poolSize, int startingPoints) {
+        this.poolSize = poolSize;
+        this.startingPoints = startingPoints;
+        for (int i = 0; i < poolSize; i++) {
+            idleIds.addLast(nextId.getAndDecrement());
+        }
+    }
+
+    /**
+     * Takes bots for a round. They stay reserved until released; if every pooled identity is in use, new ones
+     * are made.
+     *
+     * @param count how many bots are needed
+     */
+    public List<Player> borrow(int count) {
+        List<Player> bots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Integer id = idleIds.pollFirst();
+            bots.add(newBot(id != null ? id : nextId.getAndDecrement()));
+        }
+        return bots;
+    }
+
+    /**
+     * Returns the bots among the players to the pool. Other players are ignored.
+     */
+    public void release(List<Player> players) {
+        for (Player player : players) {
+            if (player.isBot() && idleIds.size() < poolSize) {
+                idleIds.addFirst(player.getPlayerId()); // Reused first, so a table tends to keep its bots
+            }
+        }
+    }
+
+    /**
+     * @return bot identities waiting to be borrowed
+     */
+    public int getIdleCount() {
+        return idleIds.size();
+    }
+
+    private Player newBot(int id) {
+        Player bot = new Player();
+        bot.setPlayerId(id);
+        bot.setUsername(USERNAME_PREFIX + -id);
+        bot.setFirstName("Bot");
+        bot.setLastName(String.valueOf(-id));
+        bot.setPoints(startingPoints);
+        return bot;
+    }
+}
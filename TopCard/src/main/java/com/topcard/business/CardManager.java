@@ -2,12 +2,15 @@ package com.topcard.business;
 
 import com.topcard.domain.Card;
 import com.topcard.domain.Deck;
+import com.topcard.domain.Shoe;
 import com.topcard.service.card.CardService;
 import com.topcard.service.card.ICardService;
 import com.topcard.service.factory.ServiceFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.random.RandomGenerator;
+
 /**
  * CardManager is responsible for managing card-related operations.
  * It interacts with the ICardService to shuffle the deck, create decks, draw cards,
@@ -55,6 +58,28 @@ public class CardManager {
         return cardService.createShuffledDeck();
     }
 
+    /**
+     * Creates a new deck of cards shuffled with the given generator.
+     *
+     * @param random the generator to shuffle with
+     * @return the newly created shuffled deck
+     */
+    public Deck createShuffledDeck(RandomGenerator random) {
+        return cardService.createShuffledDeck(random);
+    }
+
+    /**
+     * Creates a new shoe of several decks with its cut card at the given share.
+     *
+     * @param decks the number of decks in the shoe
+     * @param penetrationPercent how much of the shoe is dealt before reshuffling, from 0 to 100
+     * @param random the generator to shuffle with, or null for ThreadLocalRandom
+     * @return the newly created shoe
+     */
+    public Shoe createShoe(int decks, int penetrationPercent, RandomGenerator random) {
+        return cardService.createShoe(decks, penetrationPercent, random);
+    }
+
     /**
      * Draws a card from the deck.
      *
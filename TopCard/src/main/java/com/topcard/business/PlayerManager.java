@@ -141,6 +141,15 @@ public class PlayerManager {
         return ((PlayerService)playerService).verifyPassword(plainPassword, encryptedPassword);
     }
 
+    /**
+     * Sets the BCrypt cost for passwords hashed from now on.
+     *
+     * @param passwordCost the log2 of the number of BCrypt rounds
+     */
+    public void setPasswordCost(int passwordCost) {
+        ((PlayerService)playerService).setPasswordCost(passwordCost);
+    }
+
     /**
      * Retrieves the points of a player by their ID.
      *
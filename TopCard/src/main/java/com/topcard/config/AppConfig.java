@@ -10,6 +10,7 @@ import com.topcard.service.player.PlayerService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
 
 /**
  * Spring configuration class for the TopCard application.
@@ -17,9 +18,17 @@ import org.springframework.context.annotation.Configuration;
  * The @ComponentScan annotation tells Spring to automatically discover and register components annotated with
  * stereotypes like @Component, @Service, and @Repository within the specified package.
  * The @Bean methods are used to explicitly define beans for the service interfaces.
+ * The servers and their configurations are left out: the desktop client must not hold the ticket secret or
+ * start the password hashing pool.
  */
 @Configuration
-@ComponentScan("com.topcard")   // Scan entire project classes including sub-classes
+@ComponentScan(basePackages = "com.topcard",   // Scan entire project classes including sub-classes
+        excludeFilters = @ComponentScan.Filter(
+                type = FilterType.ASSIGNABLE_TYPE,
+                // server-side exclusion list
+                classes = {com.topcard.network.game.GameServer.class, com.topcard.network.authentication.AuthenticationServer.class,
+                        GameServerConfig.class, AuthenticationServerConfig.class, ClientConfig.class}
+        ))
 public class AppConfig {
 
     /**
@@ -2,10 +2,12 @@ package com.topcard.config;
 
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
 
 /**
  * Spring configuration for the client-side application.
  * Scans packages related to game networking, UI components, controllers, views, and player data access.
+ * The GameServer is excluded, so clients never need the server's ticket secret.
  */
 @Configuration
 @ComponentScan(basePackages = {
@@ -14,6 +16,9 @@ import org.springframework.context.annotation.Configuration;
     "com.topcard.presentation.controller",
     "com.topcard.presentation.view",
     "com.topcard.dao.player"
-})
+}, excludeFilters = @ComponentScan.Filter(
+        type = FilterType.ASSIGNABLE_TYPE,
+        classes = com.topcard.network.game.GameServer.class
+))
 public class ClientConfig {
 }
\ No newline at end of file
@@ -45,6 +45,16 @@ public interface IPlayerDao {
      */
     boolean updatePlayer(Player player);
 
+    /**
+     * Adds to a player's stored points in a single update ({@code points = points + delta}), so changes made
+     * by several servers at once are all kept.
+     *
+     * @param playerId The unique ID of the player.
+     * @param delta The points to add, negative to deduct.
+     * @return {@code true} if the player was found and updated; {@code false} otherwise.
+     */
+    boolean addPoints(int playerId, int delta);
+
     /**
      * Deletes a player record from the database using their unique identifier.
      *
@@ -2,6 +2,8 @@ package com.topcard.dao.player;
 
 import com.topcard.domain.Player;
 import com.topcard.util.HibernateUtil;
+import com.topcard.util.LatencyHistogram;
+import com.topcard.util.MetricsRegistry;
 import com.topcard.exceptions.TopCardException;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaDelete;
@@ -23,10 +25,13 @@ import java.util.Optional;
 public class PlayerDaoImpl implements IPlayerDao {
 
     private static final Logger logger = LogManager.getLogger(PlayerDaoImpl.class);
+    private static final LatencyHistogram READ_TIMES = MetricsRegistry.getDefault().histogram("dao.player.read");
+    private static final LatencyHistogram WRITE_TIMES = MetricsRegistry.getDefault().histogram("dao.player.write");
 
     @Override
     public Player addPlayer(Player player) {
         Transaction transaction = null;
+        long start = System.nanoTime();
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             transaction = session.beginTransaction();
             session.persist(player); // Persist (save) the player object
@@ -40,11 +45,14 @@ public class PlayerDaoImpl implements IPlayerDao {
             }
             logger.error("Database error adding player: " + player.getUsername(), e);
             throw new TopCardException("Error adding player to database: " + e.getMessage(), e);
+        } finally {
+            WRITE_TIMES.record(System.nanoTime() - start);
         }
     }
 
     @Override
     public Optional<Player> getPlayerById(int playerId) {
+        long start = System.nanoTime();
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             // get() method retrieves an entity by its primary key
             Player player = session.get(Player.class, playerId);
@@ -57,11 +65,14 @@ public class PlayerDaoImpl implements IPlayerDao {
         } catch (Exception e) {
             logger.error("Database error getting player by ID: " + playerId, e);
             throw new TopCardException("Error retrieving player by ID: " + e.getMessage(), e);
+        } finally {
+            READ_TIMES.record(System.nanoTime() - start);
         }
     }
 
     @Override
     public Optional<Player> getPlayerByUsername(String username) {
+        long start = System.nanoTime();
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
 
             CriteriaBuilder builder = session.getCriteriaBuilder();
@@ -86,12 +97,15 @@ public class PlayerDaoImpl implements IPlayerDao {
         } catch (Exception e) {
             logger.error("Database error getting player by username: " + username, e);
             throw new TopCardException("Error retrieving player by username: " + e.getMessage(), e);
+        } finally {
+            READ_TIMES.record(System.nanoTime() - start);
         }
     }
 
     @Override
     public boolean updatePlayer(Player player) {
         Transaction transaction = null;
+        long start = System.nanoTime();
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             transaction = session.beginTransaction();
             session.merge(player);  // update() function is deprecated
@@ -104,12 +118,39 @@ public class PlayerDaoImpl implements IPlayerDao {
             }
             logger.error("Database error updating player: " + player.getUsername(), e);
             throw new TopCardException("Error updating player in database: " + e.getMessage(), e);
+        } finally {
+            WRITE_TIMES.record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean addPoints(int playerId, int delta) {
+        Transaction transaction = null;
+        long start = System.nanoTime();
+        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+            transaction = session.beginTransaction();
+            int updated = session.createMutationQuery("UPDATE Player SET points = points + :delta WHERE playerId = :playerId")
+                    .setParameter("delta", delta)
+                    .setParameter("playerId", playerId)
+                    .executeUpdate();
+            transaction.commit();
+            logger.debug("Added " + delta + " points to player with ID: " + playerId);
+            return updated > 0;
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            logger.error("Database error adding points to player with ID: " + playerId, e);
+            throw new TopCardException("Error adding points to player in database: " + e.getMessage(), e);
+        } finally {
+            WRITE_TIMES.record(System.nanoTime() - start);
         }
     }
 
     @Override
     public boolean deletePlayer(int playerId) {
         Transaction transaction = null;
+        long start = System.nanoTime();
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             transaction = session.beginTransaction();
             // First, load the player to be deleted.
@@ -128,11 +169,14 @@ public class PlayerDaoImpl implements IPlayerDao {
             }
             logger.error("Database error deleting player with ID: " + playerId, e);
             throw new TopCardException("Error deleting player from database: " + e.getMessage(), e);
+        } finally {
+            WRITE_TIMES.record(System.nanoTime() - start);
         }
     }
 
     @Override
     public List<Player> getAllPlayers() {
+        long start = System.nanoTime();
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             CriteriaBuilder builder = session.getCriteriaBuilder();
             CriteriaQuery<Player> criteria = builder.createQuery(Player.class);
@@ -148,12 +192,15 @@ public class PlayerDaoImpl implements IPlayerDao {
         } catch (Exception e) {
             logger.error("Database error getting all players.", e);
             throw new TopCardException("Error retrieving all players from database: " + e.getMessage(), e);
+        } finally {
+            READ_TIMES.record(System.nanoTime() - start);
         }
     }
 
     @Override
     public void deleteAllPlayersData() {
         Transaction transaction = null;
+        long start = System.nanoTime();
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             transaction = session.beginTransaction();
             CriteriaBuilder builder = session.getCriteriaBuilder();
@@ -173,6 +220,8 @@ public class PlayerDaoImpl implements IPlayerDao {
             }
             logger.error("Database error deleting all players.", e);
             throw new TopCardException("Error deleting all players from database: " + e.getMessage(), e);
+        } finally {
+            WRITE_TIMES.record(System.nanoTime() - start);
         }
     }
 }
\ No newline at end of file
@@ -7,6 +7,8 @@ import java.util.Objects;
 /**
  * The Card class represents a playing card with a specific suit and rank.
  * It is immutable, meaning once it is created, its suit and rank cannot be changed.
+ * Each card also has a code from 0 to 51 (suit * 13 + rank), and {@link #of(int)} returns one shared instance
+ * per code, so decks and hands can hold codes and never allocate cards.
  * <p>
  * Author: Rajesh Rajchal
  * Date: 06/30/2025
@@ -17,6 +19,30 @@ public class Card implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
+    public static final int NUM_OF_CODES = 52;
+    private static final int RANKS = 13;
+    private static final Card[] CARDS = new Card[NUM_OF_CODES];
+    private static final int PRECEDENCE_BITS = 4; // Low bits of a hand key: 14 - best precedence, 1 to 13
+    private static final int[] THREE_CARD_KEYS = new int[RANKS * RANKS * RANKS]; // By the hand's rank ordinals
+
+    static {
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                CARDS[suit.ordinal() * RANKS + rank.ordinal()] = new Card(suit, rank);
+            }
+        }
+        Rank[] ranks = Rank.values();
+        for (Rank first : ranks) {
+            for (Rank second : ranks) {
+                for (Rank third : ranks) {
+                    THREE_CARD_KEYS[(first.ordinal() * RANKS + second.ordinal()) * RANKS + third.ordinal()] =
+                            packHandKey(first.value + second.value + third.value,
+                                    Math.min(first.precedence, Math.min(second.precedence, third.precedence)));
+                }
+            }
+        }
+    }
+
     private Suit suit;
     private Rank rank;
 
@@ -35,6 +61,32 @@ public class Card implements Serializable {
         this.rank = rank;
     }
 
+    /**
+     * Returns the shared card with the given code.
+     *
+     * @param code suit * 13 + rank, from 0 to 51
+     * @return the card
+     */
+    public static Card of(int code) {
+        return CARDS[code];
+    }
+
+    /**
+     * Returns the shared card with the given suit and rank.
+     */
+    public static Card of(Suit suit, Rank rank) {
+        return CARDS[suit.ordinal() * RANKS + rank.ordinal()];
+    }
+
+    /**
+     * Returns the card's code, suit * 13 + rank, from 0 to 51.
+     *
+     * @return the code of the card
+     */
+    public int getCode() {
+        return suit.ordinal() * RANKS + rank.ordinal();
+    }
+
     /**
      * The Suit enum represents the four possible suits of a playing card.
      */
@@ -115,13 +167,74 @@ public class Card implements Serializable {
      * @return the total value of the cards
      */
     public int getCardsValue(Card[] cards) {
+        return totalValue(cards);
+    }
+
+    /**
+     * Calculates the total value of the given array of cards without needing a Card to call it on.
+     * Empty slots count as zero.
+     *
+     * @param cards the array of cards
+     * @return the total value of the cards
+     */
+    public static int totalValue(Card[] cards) {
         int totalValue = 0;
         for (Card card : cards) {
-            totalValue += getCardValue(card);
+            if (card != null) {
+                totalValue += card.rank.getValue();
+            }
         }
         return totalValue;
     }
 
+    /**
+     * Returns the ranking key of a hand: its total value in the high bits and its best card precedence in the
+     * low bits, so a higher key is a better hand and equal keys tie under the game's rules. Suits never count,
+     * so three-card hands are looked up by rank in a precomputed table. Empty slots count as no card.
+     *
+     * @param cards the array of cards
+     * @return the hand's key, 0 for a hand without cards
+     */
+    public static int handKey(Card[] cards) {
+        if (cards.length == 3 && cards[0] != null && cards[1] != null && cards[2] != null) {
+            return THREE_CARD_KEYS[(cards[0].rank.ordinal() * RANKS + cards[1].rank.ordinal()) * RANKS + cards[2].rank.ordinal()];
+        }
+        int totalValue = 0;
+        int bestPrecedence = Integer.MAX_VALUE;
+        for (Card card : cards) {
+            if (card != null) {
+                totalValue += card.rank.value;
+                bestPrecedence = Math.min(bestPrecedence, card.rank.precedence);
+            }
+        }
+        return packHandKey(totalValue, bestPrecedence);
+    }
+
+    /**
+     * Returns the total value packed in a hand key.
+     *
+     * @param handKey a key from {@link #handKey(Card[])}
+     * @return the total value of the hand
+     */
+    public static int handValue(int handKey) {
+        return handKey >>> PRECEDENCE_BITS;
+    }
+
+    /**
+     * Returns the part of a hand key that ranks the hand's best card, higher for a better card.
+     *
+     * @param handKey a key from {@link #handKey(Card[])}
+     * @return 14 minus the best card's precedence, or 0 for a hand without cards
+     */
+    public static int handPrecedenceRank(int handKey) {
+        return handKey & ((1 << PRECEDENCE_BITS) - 1);
+    }
+
+    private static int packHandKey(int totalValue, int bestPrecedence) {
+        int precedenceRank = bestPrecedence > RANKS ? 0 : RANKS + 1 - bestPrecedence;
+        return totalValue << PRECEDENCE_BITS | precedenceRank;
+    }
+
     /**
      * Returns the suit of the card.
      *
@@ -150,6 +263,14 @@ public class Card implements Serializable {
         return rank + " OF " + suit;
     }
 
+    /**
+     * Replaces a deserialized card with the shared instance of the same code.
+     */
+    @Serial
+    private Object readResolve() {
+        return suit == null || rank == null ? this : of(suit, rank);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
@@ -1,16 +1,17 @@
 package com.topcard.domain;
 
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-
 import java.io.Serial;
 import java.io.Serializable;
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * The Deck class represents a deck of playing cards.
  * It provides methods to shuffle the deck and deal a card from it.
+ * The deck holds card codes rather than cards and deals the shared {@link Card} instances, so it can be
+ * shuffled and dealt again for every round without allocating. Every shuffle starts from the cards in suit then
+ * rank order, so the order after a shuffle depends only on the generator: a deck shuffled with a generator made
+ * from a seed comes out the same as any other deck of the same size shuffled with one made from that seed.
  * <p>
  * Author: Rajesh Rajchal
  * Date: 06/30/2025
@@ -21,15 +22,14 @@ public class Deck implements Serializable {
     @Serial
     private static final long serialVersionUID = 2L;
 
-    private static final Logger logger = LogManager.getLogger(Deck.class);
-
-    private final Card[] cards; // There will be exactly 52 cards
+    private final int[] cards; // Codes of 52 cards per deck (see Card.getCode)
     /**
      * The index of the next card to be dealt from the deck. This variable tacks the position of the next card to be drawn.
      * For example, the first card after the creation of a deck will be at index 0.
      * And, after dealing 51 cards, there is only one card left on the deck; the card index is 51.
      */
     private int currentIndex;
+    private transient RandomGenerator random; // Null for the calling thread's ThreadLocalRandom
 
     /**
      * Total number of cards in a deck
@@ -40,16 +40,41 @@ public class Deck implements Serializable {
      * Constructs a new Deck with 52 cards, including all suits and ranks.
      */
     public Deck() {
-        logger.info("Deck created.");
-        cards = new Card[NUM_OF_CARDS_IN_DECK];
-        currentIndex = 0;
-        // Create the deck
-        int index = 0;
-        for (Card.Suit suit : Card.Suit.values()) {
-            for (Card.Rank rank : Card.Rank.values()) {
-                cards[index++] = new Card(suit, rank);
-            }
+        this(null);
+    }
+
+    /**
+     * Constructs a new Deck with 52 cards that shuffles with the given generator.
+     *
+     * @param random the generator used by shuffle(), or null for ThreadLocalRandom
+     */
+    public Deck(RandomGenerator random) {
+        this(1, random);
+    }
+
+    /**
+     * Constructs the given number of 52-card decks stacked together, each in suit then rank order.
+     *
+     * @param decks the number of decks, at least one
+     * @param random the generator used by shuffle(), or null for ThreadLocalRandom
+     */
+    protected Deck(int decks, RandomGenerator random) {
+        if (decks < 1) {
+            throw new IllegalArgumentException("A deck needs at least one set of cards: " + decks);
+        }
+        this.random = random;
+        cards = new int[decks * NUM_OF_CARDS_IN_DECK];
+        order();
+    }
+
+    /**
+     * Puts the cards back in suit then rank order, each deck after the other, ready to deal from the top.
+     */
+    private void order() {
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = i % NUM_OF_CARDS_IN_DECK;
         }
+        currentIndex = 0;
     }
 
     /**
@@ -57,7 +82,38 @@ public class Deck implements Serializable {
      * Gets ready to deal card. Card will be dealt from the top (currentIndex 0)
      */
     public void shuffle() {
-        Collections.shuffle(Arrays.asList(cards));
+        shuffle(random != null ? random : ThreadLocalRandom.current());
+    }
+
+    /**
+     * Shuffles the deck with the given generator. The cards are put back in order first, so the result depends
+     * only on the generator's state and not on earlier shuffles.
+     *
+     * @param random the generator to draw from
+     */
+    public void shuffle(RandomGenerator random) {
+        order();
+        for (int i = cards.length - 1; i > 0; i--) { // Fisher-Yates, in place
+            int j = random.nextInt(i + 1);
+            int code = cards[i];
+            cards[i] = cards[j];
+            cards[j] = code;
+        }
+    }
+
+    /**
+     * Sets the generator used by shuffle().
+     *
+     * @param random the generator, or null for ThreadLocalRandom
+     */
+    public void setRandomGenerator(RandomGenerator random) {
+        this.random = random;
+    }
+
+    /**
+     * Gathers the dealt cards back into the deck, keeping their current order.
+     */
+    public void reset() {
         currentIndex = 0;
     }
 
@@ -67,8 +123,18 @@ public class Deck implements Serializable {
      * @return the dealt card, or null if no more cards are available
      */
     public Card deal() {
+        int code = dealCode();
+        return code < 0 ? null : Card.of(code);
+    }
+
+    /**
+     * Deals a card from the deck as its code.
+     *
+     * @return the code of the dealt card, or -1 if no more cards are available
+     */
+    public int dealCode() {
         if (currentIndex >= cards.length) {
-            return null; // No cards to deal
+            return -1; // No cards to deal
         }
         return cards[currentIndex++];
     }
@@ -92,9 +158,9 @@ public class Deck implements Serializable {
     public String toString() {
         StringBuilder sb = new StringBuilder("Deck contains:\n");
         for (int i = currentIndex; i < cards.length; i++) {
-            sb.append(cards[i].toString()).append("\n");
+            sb.append(Card.of(cards[i]).toString()).append("\n");
         }
         return sb.toString();
     }
 
-}
\ No newline at end of file
+}
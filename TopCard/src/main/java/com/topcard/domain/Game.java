@@ -7,10 +7,11 @@ import java.io.Serial;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.random.RandomGenerator;
 
 /**
  * The Game class represents a card game.
- * It manages the deck, players, and game state.
+ * It manages the shoe, players, and game state.
  * <p>
  * Author: Rajesh Rajchal
  * Date: 06/30/2025
@@ -24,8 +25,9 @@ public class Game implements Serializable {
 
     private static final Logger logger = LogManager.getLogger(Game.class);
 
-    private final Deck deck;
-    private final List<Player> players;
+    private final Shoe shoe; // Reshuffled when its cut card comes out
+    private List<Player> players;
+    private int shoeOffset; // Cards dealt from the shoe since its last shuffle when the current round began
 
     /**
      * Constructs a new Game with the specified players.
@@ -33,17 +35,53 @@ public class Game implements Serializable {
      * @param players the list of players participating in the game
      */
     public Game(List<Player> players) {
-        logger.info("Game created.");
-        this.deck = new Deck();
+        this(players, new Shoe(1));
+    }
+
+    /**
+     * Constructs a new Game with the specified players, dealing from the given shoe.
+     *
+     * @param players the list of players participating in the game
+     * @param shoe the shoe the rounds of this game are dealt from
+     */
+    public Game(List<Player> players, Shoe shoe) {
+        logger.debug("Game created.");
+        this.shoe = shoe;
         this.players = players;
     }
 
     /**
-     * Start game and plays the complete game by shuffling the deck,
+     * Seats the players of the next round, keeping the shoe.
+     *
+     * @param players the list of players participating in the round
+     */
+    public void setPlayers(List<Player> players) {
+        this.players = players;
+    }
+
+    /**
+     * Sets the generator the shoe shuffles with from now on.
+     *
+     * @param random the generator, or null for ThreadLocalRandom
+     */
+    public void setRandomGenerator(RandomGenerator random) {
+        shoe.setRandomGenerator(random);
+    }
+
+    /**
+     * Start game and plays the complete game by shuffling the shoe if its cut card has come out,
      * dealing cards, showing hands, and displaying winners.
      */
     public void startGame() {
-        deck.shuffle();
+        int cardsNeeded = 0;
+        for (Player player : players) {
+            cardsNeeded += player.getNumOfCards();
+        }
+        if (shoe.needsShuffle(cardsNeeded)) {
+            shoe.shuffle();
+            logger.debug("Shoe of " + shoe.getDecks() + " deck(s) shuffled.");
+        }
+        shoeOffset = shoe.getDealtCards();
         dealCards();
     }
 
@@ -64,7 +102,7 @@ public class Game implements Serializable {
      */
     public void dealCards() {
         for (Player player : players) {
-            player.drawCards(deck);
+            player.drawCards(shoe);
         }
     }
 
@@ -104,27 +142,20 @@ public class Game implements Serializable {
      */
     public List<Player> determineWinner() {
         List<Player> winners = new ArrayList<>();
-        int highestValue = 0;
+        int highestKey = -1;
 
-        // Determine the highest hand value
+        // One pass over the hand keys: total value first, then the best card's precedence
         for (Player player : players) {
-            if (player.getHandValue() > highestValue) {
-                highestValue = player.getHandValue();
-            }
-        }
-
-        // Find players with the highest points
-        for (Player player : players) {
-            if (player.getHandValue() == highestValue) {
+            int key = player.getHandKey();
+            if (key > highestKey) {
+                highestKey = key;
+                winners.clear();
+                winners.add(player);
+            } else if (key == highestKey) {
                 winners.add(player);
             }
         }
 
-        // If there is a tie, determine the winner based on card rankings
-        if (winners.size() > 1) {
-            winners = determineWinnerByCardRankings(winners);
-        }
-
         return winners;
     }
 
@@ -136,26 +167,17 @@ public class Game implements Serializable {
      */
     public List<Player> determineWinnerByCardRankings(List<Player> tiedPlayers) {
         List<Player> finalWinners = new ArrayList<>();
-        int highestPrecedence = Integer.MAX_VALUE;
-
-        // Determine the highest precedence card
-        for (Player player : tiedPlayers) {
-            for (Card card : player.getHand()) {
-                int precedence = card.getRank().getPrecedence();
-                if (precedence < highestPrecedence) {
-                    highestPrecedence = precedence;
-                }
-            }
-        }
+        int highestRank = -1;
 
         // Find players with the highest precedence card
         for (Player player : tiedPlayers) {
-            for (Card card : player.getHand()) {
-                int precedence = card.getRank().getPrecedence();
-                if (precedence == highestPrecedence) {
-                    finalWinners.add(player);
-                    break;
-                }
+            int rank = Card.handPrecedenceRank(player.getHandKey());
+            if (rank > highestRank) {
+                highestRank = rank;
+                finalWinners.clear();
+                finalWinners.add(player);
+            } else if (rank == highestRank) {
+                finalWinners.add(player);
             }
         }
 
@@ -187,6 +209,26 @@ public class Game implements Serializable {
         return mainPlayer.updatePoints(points, otherPlayers);
     }
 
+    /**
+     * Returns how many cards had been dealt from the shoe since its last shuffle when the current round began.
+     * 0 means the shoe was shuffled for this round. Shuffling an equal shoe with the same generator and dealing
+     * this many cards puts it where the round began.
+     *
+     * @return the shoe offset of the current round
+     */
+    public int getShoeOffset() {
+        return shoeOffset;
+    }
+
+    /**
+     * Returns the shoe the game deals from.
+     *
+     * @return the shoe
+     */
+    public Shoe getShoe() {
+        return shoe;
+    }
+
     /**
      * Returns the list of players in the game.
      *
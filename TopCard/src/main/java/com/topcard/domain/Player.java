@@ -68,6 +68,15 @@ public class Player implements Serializable {
     @Transient
     private Card[] hand;
 
+    @Transient
+    private int handKey; // Card.handKey of the hand, computed once per deal
+
+    @Transient
+    private boolean handKeyCurrent;
+
+    @Transient
+    private String sessionTicket; // Signed by the authentication server on login, presented to the game server on JOIN
+
     /**
      * Required no-argument constructor for Hibernate.
      */
@@ -129,6 +138,16 @@ public class Player implements Serializable {
         return isAdmin;
     }
 
+    /**
+     * Bots that fill empty seats have reserved negative ids, which the database never issues.
+     * They exist only in memory and are never looked up or saved.
+     *
+     * @return true if this player is a bot
+     */
+    public boolean isBot() {
+        return playerId < 0;
+    }
+
     public boolean isLoggedIn() {
         return isLoggedIn;
     }
@@ -185,6 +204,14 @@ public class Player implements Serializable {
         this.isLoggedIn = isLoggedIn;
     }
 
+    public String getSessionTicket() {
+        return sessionTicket;
+    }
+
+    public void setSessionTicket(String sessionTicket) {
+        this.sessionTicket = sessionTicket;
+    }
+
     public void setNumOfCards(int numOfCards) {
         if (numOfCards > 0) {
             this.numOfCards = numOfCards;
@@ -193,6 +220,7 @@ public class Player implements Serializable {
 
     public void setHand(Card[] hand) {
         this.hand = hand;
+        this.handKeyCurrent = false;
     }
 
     /**
@@ -237,8 +265,22 @@ public class Player implements Serializable {
      * @return the total value of the hand
      */
     public int getHandValue() {
-        Card card = new Card();
-        return card.getCardsValue(hand);
+        return Card.handValue(getHandKey());
+    }
+
+    /**
+     * Returns the ranking key of the player's hand, worked out once after the hand changes.
+     * A higher key wins; see {@link Card#handKey(Card[])}. The hand must be changed through setHand,
+     * drawCard or drawCards for the key to follow it.
+     *
+     * @return the key of the hand
+     */
+    public int getHandKey() {
+        if (!handKeyCurrent) {
+            handKey = Card.handKey(getHand());
+            handKeyCurrent = true;
+        }
+        return handKey;
     }
 
     /**
@@ -253,6 +295,7 @@ public class Player implements Serializable {
         }
         if (hand.length <= numOfCards) {
             hand[hand.length - 1] = card;
+            handKeyCurrent = false;
         }
         return card;
     }
@@ -274,6 +317,8 @@ public class Player implements Serializable {
             }
 
         }
+        handKey = Card.handKey(hand);
+        handKeyCurrent = true;
         return hand;
     }
 
@@ -0,0 +1,81 @@
+package com.topcard.domain;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The PointsDelta class records how one seat's points changed in a betting round.
+ * A round's result is one delta per seat, in seat order, so a client can update each seat
+ * directly instead of matching players up by username.
+ */
+public class PointsDelta implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int seat;
+    private final int delta;
+    private final int newTotal;
+
+    /**
+     * Constructs a delta for one seat.
+     *
+     * @param seat the seat index, as in the players list of the round
+     * @param delta the points won (positive) or lost (negative) in the round
+     * @param newTotal the seat's points after the round
+     */
+    public PointsDelta(int seat, int delta, int newTotal) {
+        this.seat = seat;
+        this.delta = delta;
+        this.newTotal = newTotal;
+    }
+
+    /**
+     * Captures the points of each seat before a round.
+     *
+     * @param players the players of the round, in seat order
+     * @return the points of each seat
+     */
+    public static int[] snapshot(List<Player> players) {
+        int[] points = new int[players.size()];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = players.get(i).getPoints();
+        }
+        return points;
+    }
+
+    /**
+     * Computes the delta of every seat after a round.
+     *
+     * @param pointsBefore the snapshot taken before the round
+     * @param players the same players, in seat order, with their updated points
+     * @return one delta per seat, in seat order
+     */
+    public static List<PointsDelta> between(int[] pointsBefore, List<Player> players) {
+        List<PointsDelta> deltas = new ArrayList<>(pointsBefore.length);
+        for (int i = 0; i < pointsBefore.length; i++) {
+            int points = players.get(i).getPoints();
+            deltas.add(new PointsDelta(i, points - pointsBefore[i], points));
+        }
+        return deltas;
+    }
+
+    public int getSeat() {
+        return seat;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public int getNewTotal() {
+        return newTotal;
+    }
+
+    @Override
+    public String toString() {
+        return "Seat " + seat + ": " + (delta >= 0 ? "+" : "") + delta + " = " + newTotal;
+    }
+}
@@ -0,0 +1,113 @@
+package com.topcard.domain;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The RoundResult class holds everything a client needs to show a finished round:
+ * the hands by seat, each seat's change in points and the winning seats.
+ * The roster is included only when the seating changed since the previous round,
+ * since clients keep it between rounds.
+ * The result is a snapshot: players' hands and points change with the next deal, while the result may still be
+ * waiting to be encoded for a slow recipient or held for replay.
+ */
+public class RoundResult implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final List<Player> seats;
+    private final List<Card[]> hands;
+    private final List<PointsDelta> pointsDeltas;
+    private final int[] winnerSeats;
+
+    /**
+     * Constructs a round result from copies of the seats and hands.
+     *
+     * @param seats the players by seat, or null if the seating is unchanged
+     * @param hands the hands by seat
+     * @param pointsDeltas one delta per seat
+     * @param winnerSeats the seats of the winners
+     */
+    public RoundResult(List<Player> seats, List<Card[]> hands, List<PointsDelta> pointsDeltas, int[] winnerSeats) {
+        this.seats = seats == null ? null : copySeats(seats);
+        this.hands = new ArrayList<>(hands.size());
+        for (Card[] hand : hands) {
+            this.hands.add(hand == null ? null : hand.clone()); // Player.drawCards refills the same array next round
+        }
+        this.pointsDeltas = List.copyOf(pointsDeltas);
+        this.winnerSeats = winnerSeats.clone();
+    }
+
+    /**
+     * Copies the profile fields the game views show, leaving out the password hash and the live hand.
+     */
+    private static List<Player> copySeats(List<Player> players) {
+        List<Player> copies = new ArrayList<>(players.size());
+        for (Player player : players) {
+            Player copy = new Player();
+            copy.setPlayerId(player.getPlayerId());
+            copy.setUsername(player.getUsername());
+            copy.setFirstName(player.getFirstName());
+            copy.setLastName(player.getLastName());
+            copy.setPoints(player.getPoints());
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    /**
+     * Finds the seats of the winners among the round's players.
+     *
+     * @param players the players of the round, in seat order
+     * @param winners the winning players, which are among the players
+     * @return the winners' seats, -1 for a winner not found among the players
+     */
+    public static int[] seatsOf(List<Player> players, List<Player> winners) {
+        int[] seats = new int[winners.size()];
+        for (int i = 0; i < seats.length; i++) {
+            seats[i] = -1;
+            for (int seat = 0; seat < players.size(); seat++) {
+                if (players.get(seat) == winners.get(i)) { // Same instances; Player.equals needs every profile field
+                    seats[i] = seat;
+                    break;
+                }
+            }
+        }
+        return seats;
+    }
+
+    /**
+     * Looks up the winners in a roster.
+     *
+     * @param roster the players by seat
+     * @return the winning players
+     */
+    public List<Player> getWinners(List<Player> roster) {
+        List<Player> winners = new ArrayList<>(winnerSeats.length);
+        for (int seat : winnerSeats) {
+            if (seat >= 0 && seat < roster.size()) {
+                winners.add(roster.get(seat));
+            }
+        }
+        return winners;
+    }
+
+    public List<Player> getSeats() {
+        return seats;
+    }
+
+    public List<Card[]> getHands() {
+        return hands;
+    }
+
+    public List<PointsDelta> getPointsDeltas() {
+        return pointsDeltas;
+    }
+
+    public int[] getWinnerSeats() {
+        return winnerSeats;
+    }
+}
@@ -0,0 +1,79 @@
+package com.topcard.domain;
+
+import java.io.Serial;
+import java.util.random.RandomGenerator;
+
+/**
+ * The Shoe class represents several decks shuffled together and dealt across many rounds.
+ * A cut card is placed at a share of the shoe (the penetration); once the deal reaches it, or too few cards
+ * are left for the next round, the shoe asks to be shuffled again before that round is dealt.
+ * With a penetration of 0 the shoe is shuffled before every round, like a single deck.
+ */
+public class Shoe extends Deck {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final int decks;
+    private final int cutIndex; // Cards dealt before the cut card comes out
+    private boolean shuffled; // False until the first shuffle, so a new shoe is never dealt in order
+
+    /**
+     * Constructs a shoe of the given number of decks, shuffled before every round.
+     *
+     * @param decks the number of decks, at least one
+     */
+    public Shoe(int decks) {
+        this(decks, 0, null);
+    }
+
+    /**
+     * Constructs a shoe of the given number of decks with the cut card at the given share of it.
+     *
+     * @param decks the number of decks, at least one
+     * @param penetrationPercent how much of the shoe is dealt before reshuffling, from 0 to 100
+     * @param random the generator used by shuffle(), or null for ThreadLocalRandom
+     */
+    public Shoe(int decks, int penetrationPercent, RandomGenerator random) {
+        super(decks, random);
+        if (penetrationPercent < 0 || penetrationPercent > 100) {
+            throw new IllegalArgumentException("Penetration must be between 0 and 100 percent: " + penetrationPercent);
+        }
+        this.decks = decks;
+        this.cutIndex = decks * NUM_OF_CARDS_IN_DECK * penetrationPercent / 100;
+    }
+
+    @Override
+    public void shuffle(RandomGenerator random) {
+        super.shuffle(random);
+        shuffled = true;
+    }
+
+    /**
+     * Tells whether the shoe must be shuffled before the next round is dealt.
+     *
+     * @param cardsNeeded the number of cards the next round deals
+     * @return true if the cut card has come out or fewer than cardsNeeded cards are left
+     */
+    public boolean needsShuffle(int cardsNeeded) {
+        return !shuffled || getDealtCards() >= cutIndex || getRemainingCards() < cardsNeeded;
+    }
+
+    /**
+     * Returns the number of cards dealt since the last shuffle.
+     *
+     * @return the number of dealt cards
+     */
+    public int getDealtCards() {
+        return decks * NUM_OF_CARDS_IN_DECK - getRemainingCards();
+    }
+
+    /**
+     * Returns the number of decks in the shoe.
+     *
+     * @return the number of decks
+     */
+    public int getDecks() {
+        return decks;
+    }
+}
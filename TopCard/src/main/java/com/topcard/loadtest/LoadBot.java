@@ -0,0 +1,167 @@
+package com.topcard.loadtest;
+
+import com.topcard.domain.Player;
+import com.topcard.loadtest.LoadReport.Stage;
+import com.topcard.network.authentication.AuthClient;
+import com.topcard.network.game.GameMessage;
+import com.topcard.network.protocol.MessageChannel;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.time.LocalDate;
+
+/**
+ * One headless bot player: logs in, joins the game server (following a lobby router's REDIRECT), starts rounds and waits for their results,
+ * timing each step into the shared report. Answers heartbeats like a real client.
+ */
+public class LoadBot implements Runnable {
+
+    private static final Logger logger = LogManager.getLogger(LoadBot.class);
+
+    private static final int MAX_REDIRECTS = 2; // A router sends the bot to a node, which does not redirect again
+
+    private final String username;
+    private final LoadPlan plan;
+    private final LoadReport report;
+
+    public LoadBot(String username, LoadPlan plan, LoadReport report) {
+        this.username = username;
+        this.plan = plan;
+        this.report = report;
+    }
+
+    @Override
+    public void run() {
+        Player player = plan.login() ? authenticate() : newPlayer();
+        if (player == null) {
+            return;
+        }
+        String server = plan.host() + ":" + plan.gamePort();
+        for (int hop = 0; server != null && hop <= MAX_REDIRECTS; hop++) {
+            server = joinAt(server, player);
+        }
+    }
+
+    /**
+     * Connects to a game server, or to a lobby router, and plays there.
+     *
+     * @param server host:port
+     * @return the host:port a router redirected the bot to, or null once the bot is done
+     */
+    private String joinAt(String server, Player player) {
+        int colon = server.lastIndexOf(':');
+        long connectStart = System.nanoTime();
+        boolean connected = false;
+        try (Socket socket = new Socket(server.substring(0, colon), Integer.parseInt(server.substring(colon + 1)));
+             MessageChannel channel = plan.protocol().open(socket)) {
+            report.record(Stage.CONNECT, System.nanoTime() - connectStart);
+            connected = true;
+            socket.setSoTimeout(plan.roundTimeoutMs());
+            return play(channel, player);
+        } catch (IOException e) {
+            if (!connected) {
+                report.fail(Stage.CONNECT);
+            }
+            logger.warn("Bot " + username + " could not connect to the game server: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Joins, then plays the planned rounds. Failures are counted against the step that was waiting.
+     *
+     * @return the host:port to join instead if a router answered the JOIN, otherwise null
+     */
+    private String play(MessageChannel channel, Player player) {
+        Stage waitingFor = Stage.JOIN;
+        try {
+            long joinedAt = System.nanoTime();
+            channel.send(new GameMessage("JOIN", player));
+            GameMessage joined = receive(channel, null);
+            if ("REDIRECT".equals(joined.getType())) {
+                return (String) joined.getPayload();
+            }
+            report.record(Stage.JOIN, System.nanoTime() - joinedAt);
+
+            for (int round = 0; round < plan.rounds(); round++) {
+                waitingFor = Stage.ROUND;
+                if (round > 0 && plan.thinkMs() > 0) {
+                    Thread.sleep(plan.thinkMs());
+                }
+                long requestedAt = System.nanoTime();
+                channel.send(new GameMessage(round == 0 ? "START_GAME" : "REMATCH", null));
+                receive(channel, "ROUND_RESULT");
+                long now = System.nanoTime();
+                report.record(Stage.ROUND, now - requestedAt);
+                if (round == 0) {
+                    report.record(Stage.JOIN_TO_DEAL, now - joinedAt);
+                }
+            }
+        } catch (IOException e) {
+            report.fail(waitingFor);
+            logger.warn("Bot " + username + " failed waiting for " + waitingFor + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    /**
+     * Reads until a message of the given type arrives, answering PINGs on the way.
+     *
+     * @param type the type to wait for, or null for any message other than a PING
+     */
+    private GameMessage receive(MessageChannel channel, String type) throws IOException {
+        while (true) {
+            GameMessage message = channel.receive();
+            if ("PING".equals(message.getType())) {
+                channel.send(message.reply("PONG", null));
+            } else if (type == null || type.equals(message.getType())) {
+                return message;
+            }
+        }
+    }
+
+    /**
+     * Logs in, registering the account first if the plan allows and the login fails.
+     *
+     * @return the profile with its session ticket, or null if the bot could not log in
+     */
+    private Player authenticate() {
+        AuthClient client = new AuthClient(plan.host(), plan.authPort());
+        long start = System.nanoTime();
+        try {
+            GameMessage response = client.send("LOGIN", credentials());
+            if (!"AUTH_SUCCESS".equals(response.getType()) && plan.register()) {
+                start = System.nanoTime(); // Time the registration instead
+                response = client.send("REGISTER", newPlayer());
+            }
+            if (!"AUTH_SUCCESS".equals(response.getType())) {
+                report.fail(Stage.AUTH);
+                logger.warn("Bot " + username + " could not log in: " + response.getPayload());
+                return null;
+            }
+            report.record(Stage.AUTH, System.nanoTime() - start);
+            return (Player) response.getPayload();
+        } catch (IOException e) {
+            report.fail(Stage.AUTH);
+            logger.warn("Bot " + username + " could not reach the authentication server: " + e.getMessage());
+            return null;
+        } finally {
+            client.close();
+        }
+    }
+
+    private Player credentials() {
+        Player player = new Player();
+        player.setUsername(username);
+        player.setPassword(plan.password());
+        return player;
+    }
+
+    private Player newPlayer() {
+        return new Player(username, plan.password(), "Load", "Bot", LocalDate.of(2000, 1, 1));
+    }
+}
@@ -0,0 +1,72 @@
+package com.topcard.loadtest;
+
+import com.topcard.util.ConfigUtil;
+import com.topcard.util.ExecutorMode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless load generator for the AuthenticationServer and GameServer. Starts the planned number of bot players,
+ * spread evenly over the ramp-up time, lets each play its rounds and reports throughput and latency percentiles
+ * for connect, auth, join, join-to-deal and round completion.
+ * <p>
+ * Run against running servers with, for example:
+ * {@code mvn exec:java -Dmain.class=com.topcard.loadtest.LoadGenerator -Dload.bots=200 -Dload.rounds=10}
+ * </p>
+ */
+public class LoadGenerator {
+
+    private static final Logger logger = LogManager.getLogger(LoadGenerator.class);
+
+    private final LoadPlan plan;
+    private final String usernamePrefix;
+
+    public LoadGenerator(LoadPlan plan, String usernamePrefix) {
+        this.plan = plan;
+        this.usernamePrefix = usernamePrefix;
+    }
+
+    /**
+     * Entry point; the plan comes from the load.* settings.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        LoadGenerator generator = new LoadGenerator(LoadPlan.fromConfig(), ConfigUtil.getString("load.usernamePrefix", "loadbot"));
+        LoadReport report = generator.run();
+        logger.info("Load run finished:\n" + report.summary());
+    }
+
+    /**
+     * Runs every bot to completion.
+     *
+     * @return the latencies and failures of the run
+     */
+    public LoadReport run() throws InterruptedException {
+        LoadReport report = new LoadReport();
+        logger.info("Starting " + plan.bots() + " bots over " + plan.rampMs() + " ms against " + plan.host()
+                + ", " + plan.rounds() + " rounds each");
+        ExecutorService bots = ExecutorMode.VIRTUAL.newExecutor("LoadGenerator", 0); // Bots mostly wait on sockets
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < plan.bots(); i++) {
+                long startAt = plan.bots() > 1 ? plan.rampMs() * i / (plan.bots() - 1) : 0;
+                long delayNanos = start + TimeUnit.MILLISECONDS.toNanos(startAt) - System.nanoTime();
+                if (delayNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(delayNanos);
+                }
+                bots.execute(new LoadBot(usernamePrefix + "-" + i, plan, report));
+            }
+        } finally {
+            bots.shutdown();
+        }
+        long timeoutMs = plan.rampMs() + (long) (plan.rounds() + 2) * (plan.roundTimeoutMs() + plan.thinkMs());
+        if (!bots.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+            logger.warn("Some bots did not finish within " + timeoutMs + " ms. Reporting what completed.");
+            bots.shutdownNow();
+        }
+        report.finish();
+        return report;
+    }
+}
@@ -0,0 +1,44 @@
+package com.topcard.loadtest;
+
+import com.topcard.network.protocol.WireProtocol;
+import com.topcard.presentation.common.Constants;
+import com.topcard.util.ConfigUtil;
+
+/**
+ * What a load run does: how many bots, how fast they start, how many rounds each plays and where they connect.
+ *
+ * @param bots           number of concurrent bot players
+ * @param rampMs         bots start evenly spread over this time
+ * @param rounds         rounds each bot plays; 0 only connects and joins
+ * @param thinkMs        pause between a round's result and the bot's REMATCH
+ * @param host           server host
+ * @param authPort       AuthenticationServer port
+ * @param gamePort       GameServer port
+ * @param login          log in (and join with the session ticket) before joining
+ * @param register       register the bot's account if its login fails
+ * @param password       password of every bot account
+ * @param protocol       wire protocol for the game connection
+ * @param roundTimeoutMs how long a bot waits for a round's result before counting it as failed
+ */
+public record LoadPlan(int bots, long rampMs, int rounds, long thinkMs, String host, int authPort, int gamePort,
+                       boolean login, boolean register, String password, WireProtocol protocol, int roundTimeoutMs) {
+
+    /**
+     * Reads the plan from the load.* settings, which are usually given as -D system properties.
+     */
+    public static LoadPlan fromConfig() {
+        return new LoadPlan(
+                ConfigUtil.getInt("load.bots", 50),
+                ConfigUtil.getInt("load.rampMs", 5000),
+                ConfigUtil.getInt("load.rounds", 5),
+                ConfigUtil.getInt("load.thinkMs", 500),
+                ConfigUtil.getString("load.host", Constants.LOCAL_HOST),
+                ConfigUtil.getInt("load.authPort", Constants.AUTH_PORT),
+                ConfigUtil.getInt("load.gamePort", Constants.GAME_PORT),
+                ConfigUtil.getBoolean("load.login", true),
+                ConfigUtil.getBoolean("load.register", true),
+                ConfigUtil.getString("load.password", "loadbot-password"),
+                ConfigUtil.getEnum("load.protocol", WireProtocol.BINARY),
+                ConfigUtil.getInt("load.roundTimeoutMs", 30000));
+    }
+}
@@ -0,0 +1,94 @@
+package com.topcard.loadtest;
+
+import com.topcard.util.LatencyHistogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and failures of a load run, per stage of a bot's session. Safe to record into from every bot at once.
+ */
+public class LoadReport {
+
+    /**
+     * A timed step of a bot's session.
+     */
+    public enum Stage {
+        CONNECT("connect"),       // TCP connect and protocol preface to the game server
+        AUTH("auth"),             // LOGIN (or REGISTER) round trip to the authentication server
+        JOIN("join"),             // JOIN sent to the first lobby message
+        JOIN_TO_DEAL("join-to-deal"), // JOIN sent to the first round's result
+        ROUND("round");           // START_GAME or REMATCH sent to that round's result
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+    }
+
+    private final Map<Stage, LatencyHistogram> latencies = new EnumMap<>(Stage.class);
+    private final Map<Stage, LongAdder> failures = new EnumMap<>(Stage.class);
+    private final long startedAt = System.nanoTime();
+    private volatile long finishedAt;
+
+    public LoadReport() {
+        for (Stage stage : Stage.values()) {
+            latencies.put(stage, new LatencyHistogram());
+            failures.put(stage, new LongAdder());
+        }
+    }
+
+    public void record(Stage stage, long nanos) {
+        latencies.get(stage).record(nanos);
+    }
+
+    public void fail(Stage stage) {
+        failures.get(stage).increment();
+    }
+
+    /**
+     * Marks the end of the run, so throughput is measured over the run and not over the time of printing.
+     */
+    public void finish() {
+        finishedAt = System.nanoTime();
+    }
+
+    public long getCount(Stage stage) {
+        return latencies.get(stage).getCount();
+    }
+
+    public long getFailures(Stage stage) {
+        return failures.get(stage).sum();
+    }
+
+    public long getPercentileMicros(Stage stage, double percentile) {
+        return latencies.get(stage).getPercentileMicros(percentile);
+    }
+
+    /**
+     * @return completed steps of the stage per second of the run
+     */
+    public double getThroughput(Stage stage) {
+        long end = finishedAt != 0 ? finishedAt : System.nanoTime();
+        double seconds = Math.max(1, end - startedAt) / (double) TimeUnit.SECONDS.toNanos(1);
+        return getCount(stage) / seconds;
+    }
+
+    /**
+     * Formats one line per stage: count, failures, throughput and p50/p95/p99 latency. Percentiles are upper
+     * bounds of power-of-two buckets, so they are accurate to within a factor of two.
+     */
+    public String summary() {
+        StringBuilder summary = new StringBuilder(String.format("%-13s %8s %8s %10s %10s %10s %10s%n",
+                "stage", "ok", "failed", "per sec", "p50 ms", "p95 ms", "p99 ms"));
+        for (Stage stage : Stage.values()) {
+            summary.append(String.format("%-13s %8d %8d %10.1f %10.1f %10.1f %10.1f%n", stage.label, getCount(stage),
+                    getFailures(stage), getThroughput(stage), getPercentileMicros(stage, 50) / 1000.0,
+                    getPercentileMicros(stage, 95) / 1000.0, getPercentileMicros(stage, 99) / 1000.0));
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,173 @@
+package com.topcard.network.authentication;
+
+import com.topcard.network.game.GameMessage;
+import com.topcard.network.protocol.MessageChannel;
+import com.topcard.network.protocol.WireProtocol;
+import com.topcard.presentation.common.Constants;
+import com.topcard.util.ConfigUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Client side of an authentication session. Keeps one connection to the AuthenticationServer open and
+ * sends every request over it with its own request id, so requests can be pipelined and each response
+ * is matched to its caller. The connection is reopened on the next request if the server closes it.
+ */
+public class AuthClient {
+
+    private static final Logger logger = LogManager.getLogger(AuthClient.class);
+
+    private static AuthClient instance;
+
+    private final String host;
+    private final int port;
+    private final long requestTimeoutMs = ConfigUtil.getInt("auth.client.requestTimeoutMs", 5000);
+    private final AtomicInteger nextRequestId = new AtomicInteger(1);
+    private final Map<Integer, CompletableFuture<GameMessage>> pending = new ConcurrentHashMap<>();
+
+    private MessageChannel channel; // Guarded by this
+    private int connectCount; // Guarded by this
+
+    public AuthClient(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    public static synchronized AuthClient getInstance() {
+        if (instance == null) {
+            instance = new AuthClient(Constants.LOCAL_HOST, Constants.AUTH_PORT);
+        }
+        return instance;
+    }
+
+    /**
+     * Sends a request on the session without waiting for the response.
+     *
+     * @return a future completed with the server's response, or exceptionally if the connection fails
+     */
+    public CompletableFuture<GameMessage> sendAsync(String type, Object payload) {
+        CompletableFuture<GameMessage> response = new CompletableFuture<>();
+        int requestId = nextRequestId();
+        MessageChannel current;
+        synchronized (this) {
+            try {
+                current = connection();
+            } catch (IOException e) {
+                response.completeExceptionally(e);
+                return response;
+            }
+            pending.put(requestId, response); // Registered under the lock, so a lost connection fails it
+        }
+        response.whenComplete((message, failure) -> pending.remove(requestId, response)); // Also when timed out or cancelled
+        try {
+            current.send(new GameMessage(type, payload, requestId));
+        } catch (IOException e) {
+            connectionLost(current, e);
+        }
+        return response;
+    }
+
+    /**
+     * Sends a request and waits for its response.
+     *
+     * @throws IOException if the server cannot be reached or does not answer in time
+     */
+    public GameMessage send(String type, Object payload) throws IOException {
+        CompletableFuture<GameMessage> response = sendAsync(type, payload);
+        try {
+            return response.get(requestTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } catch (TimeoutException e) {
+            response.cancel(false);
+            throw new IOException("Authentication server did not answer " + type + " within " + requestTimeoutMs + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for " + type, e);
+        }
+    }
+
+    /**
+     * Closes the session. Pending requests fail; the next request opens a new session.
+     */
+    public synchronized void close() {
+        if (channel != null) {
+            connectionLost(channel, new IOException("Authentication session closed"));
+        }
+    }
+
+    /**
+     * @return how many requests are waiting for their response, for diagnostics
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * @return how many connections this client has opened, for diagnostics
+     */
+    public synchronized int getConnectCount() {
+        return connectCount;
+    }
+
+    private MessageChannel connection() throws IOException {
+        if (channel == null) {
+            MessageChannel opened = WireProtocol.fromConfig().open(new Socket(host, port));
+            channel = opened;
+            connectCount++;
+            Thread reader = new Thread(() -> readResponses(opened), "auth-session-reader");
+            reader.setDaemon(true);
+            reader.start();
+            logger.debug("Opened authentication session to " + host + ":" + port);
+        }
+        return channel;
+    }
+
+    private void readResponses(MessageChannel session) {
+        try {
+            while (true) {
+                GameMessage response = session.receive();
+                CompletableFuture<GameMessage> request = pending.remove(response.getRequestId());
+                if (request != null) {
+                    request.complete(response);
+                } else {
+                    logger.warn("Dropped authentication response " + response.getType() + " for unknown request " + response.getRequestId());
+                }
+            }
+        } catch (IOException e) {
+            connectionLost(session, e);
+        }
+    }
+
+    private synchronized void connectionLost(MessageChannel session, IOException cause) {
+        if (channel != session) {
+            return; // Already replaced
+        }
+        channel = null;
+        try {
+            session.close();
+        } catch (IOException ignored) {}
+        pending.values().forEach(request -> request.completeExceptionally(cause));
+        pending.clear();
+        logger.debug("Authentication session ended: " + cause.getMessage());
+    }
+
+    private int nextRequestId() {
+        int id = nextRequestId.getAndIncrement();
+        if (id <= 0) { // Wrapped around; 0 means "no request"
+            nextRequestId.set(2);
+            id = 1;
+        }
+        return id;
+    }
+}
@@ -4,7 +4,12 @@ import com.topcard.config.AuthenticationServerConfig;
 import com.topcard.domain.Player;
 import com.topcard.business.PlayerManager;
 import com.topcard.network.game.GameMessage;
+import com.topcard.network.protocol.MessageChannel;
+import com.topcard.network.protocol.WireProtocol;
 import com.topcard.presentation.common.Constants;
+import com.topcard.util.ConfigUtil;
+import com.topcard.util.ExecutorMode;
+import com.topcard.util.MetricsRegistry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
@@ -16,13 +21,15 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
 import java.net.SocketException;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Multithreaded authentication server for handling login requests.
+ * Each connection is a session that can carry many requests, so a client logs in, registers
+ * and looks up profiles over one socket.
  */
 @Component
 public class AuthenticationServer {
@@ -30,22 +37,32 @@ public class AuthenticationServer {
     private static final Logger logger = LogManager.getLogger(AuthenticationServer.class);
 
     private int authPort;
-    private static final int THREAD_POOL_SIZE = 4;
+    private static final int DEFAULT_THREAD_POOL_SIZE = 4;
     private static final int CLIENT_SOCKET_READ_TIMEOUT_MS = 5000; // 5-second timeout for client reads
 
-    private final ExecutorService authThreadPool = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+    private final ExecutorService authThreadPool = ConfigUtil.getEnum("auth.server.executor", ExecutorMode.VIRTUAL)
+            .newExecutor("AuthenticationServer", ConfigUtil.getInt("auth.server.threadPoolSize", DEFAULT_THREAD_POOL_SIZE));
+    private final boolean allowObjectStream = ConfigUtil.getBoolean("auth.server.allowObjectStream", true); // Compatibility with old clients
+    private final int sessionIdleTimeoutMs = ConfigUtil.getInt("auth.server.sessionIdleTimeoutMs", 300000);
+    private final Set<Socket> openSessions = ConcurrentHashMap.newKeySet();
+    private TicketSigner ticketSigner; // Shares its secret with the game server; created on start()
+    private final LoginThrottle loginThrottle = LoginThrottle.fromConfig(); // Failed login limits by IP and username
     private final PlayerManager playerManager;
+    private final PasswordVerifier passwordVerifier; // BCrypt checks run here, not on the session threads
     private ServerSocket serverSocket;
 
-    // For error handling and tracking failed login attempts
-    private static final ConcurrentHashMap<String, Integer> failedLoginAttempts = new ConcurrentHashMap<>();
-    private static final int MAX_FAILED_ATTEMPTS = 3;
-    private static final long LOCKOUT_DURATION_MS = 60 * 1000; // 60 seconds lockout
-    private static final ConcurrentHashMap<String, Long> lockedOutUsers = new ConcurrentHashMap<>();
+    private final MetricsRegistry metrics = MetricsRegistry.getDefault();
+    private final MetricsRegistry.Meter loginSuccesses = metrics.meter("auth.login.success");
+    private final MetricsRegistry.Meter loginFailures = metrics.meter("auth.login.failure");
+    private final MetricsRegistry.Meter throttled = metrics.meter("auth.throttled");
+    private final MetricsRegistry.Meter shed = metrics.meter("auth.shed");
 
     public AuthenticationServer(PlayerManager playerManager) {
         this.playerManager = playerManager;
         this.authPort = Constants.AUTH_PORT;
+        int passwordCost = PasswordVerifier.costFromConfig();
+        playerManager.setPasswordCost(passwordCost);
+        this.passwordVerifier = PasswordVerifier.fromConfig(playerManager, passwordCost);
     }
 
     /**
@@ -64,6 +81,8 @@ public class AuthenticationServer {
      * Starts the authentication server, binding it to the specified port.
      */
     public void start() throws IOException {
+        ticketSigner = TicketSigner.fromConfig(); // Refuse to serve without a private ticket secret
+        registerGauges();
         serverSocket = new ServerSocket(authPort);
         logger.info("Authentication Server started on port " + authPort);
 
@@ -71,7 +90,8 @@ public class AuthenticationServer {
             try {
                 Socket clientSocket = serverSocket.accept();
                 logger.info("New authentication request from " + clientSocket.getInetAddress());
-                authThreadPool.submit(new AuthHandler(clientSocket, playerManager));
+                openSessions.add(clientSocket);
+                authThreadPool.submit(new AuthHandler(clientSocket, this));
             } catch (SocketException se) {
                 if (se.getMessage().contains("Socket closed")) {
                     logger.info("Authentication Server socket closed, exiting accept loop.");
@@ -93,7 +113,11 @@ public class AuthenticationServer {
             serverSocket.close();
             logger.info("Authentication Server socket closed.");
         }
+        for (Socket session : openSessions) { // Idle sessions would otherwise block until their timeout
+            try { session.close(); } catch (IOException ignored) {}
+        }
         authThreadPool.shutdown(); // Stop accepting new tasks
+        passwordVerifier.shutdown();
         try {
             if (!authThreadPool.awaitTermination(2, TimeUnit.SECONDS)) { // for graceful shutdown
                 authThreadPool.shutdownNow();
@@ -107,57 +131,56 @@ public class AuthenticationServer {
     }
 
     /**
-     * Handles individual authentication requests.
+     * Serves one client session. A session stays open for many requests, answered in order with the
+     * request id of each; old clients that send a single request and disconnect are served the same way.
      */
     public static class AuthHandler implements Runnable {
         private final Socket socket;
+        private final AuthenticationServer server;
         private final PlayerManager playerManager;
+        private String sessionUsername; // Set once LOGIN succeeds on this session
 
-        public AuthHandler(Socket socket, PlayerManager playerManager) {
+        public AuthHandler(Socket socket, AuthenticationServer server) {
             this.socket = socket;
-            this.playerManager = playerManager;
+            this.server = server;
+            this.playerManager = server.playerManager;
         }
 
         @Override
         public void run() {
             InetAddress clientAddress = socket.getInetAddress();
             String clientIp = clientAddress.getHostAddress();
+            int requests = 0;
 
             try {
-                socket.setSoTimeout(CLIENT_SOCKET_READ_TIMEOUT_MS); // Set read timeout for this client socket
-
-                try (ObjectInputStream in = new ObjectInputStream(socket.getInputStream());
-                     ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream())) {
-
-                    if (isClientLockedOut(clientIp)) {
-                        out.writeObject(new GameMessage("AUTH_FAILURE", "Too many failed attempts. Please try again later."));
-                        logger.warn("Request from locked out IP: " + clientIp);
-                        out.flush();
-                        return;
-                    }
+                socket.setSoTimeout(CLIENT_SOCKET_READ_TIMEOUT_MS); // Set read timeout for the first request
 
-                    GameMessage request = (GameMessage) in.readObject();
-                    String type = request.getType();
-
-                    if ("LOGIN".equals(type)) {
-                        Player incoming = (Player) request.getPayload();
-                        handleLoginRequest(incoming, out, clientIp);
-                        // not tested yet (For future upgrade)
-//                    } else if ("REGISTER".equals(type)) {
-//                        Player newPlayer = (Player) request.getPayload();
-//                        handleRegisterRequest(newPlayer, out, clientIp);
-                    } else {
-                        out.writeObject(new GameMessage("AUTH_FAILURE", "Unknown request type"));
-                        logger.warn("Unknown authentication request type: " + type + " from " + clientIp);
+                try (MessageChannel channel = WireProtocol.accept(socket, server.allowObjectStream)) {
+                    while (true) {
+                        GameMessage request;
+                        try {
+                            request = channel.receive();
+                        } catch (EOFException e) {
+                            break; // Client ended the session
+                        }
+                        if (requests++ == 0) {
+                            socket.setSoTimeout(server.sessionIdleTimeoutMs); // Keep the session open between requests
+                        }
+                        handleRequest(request, channel, clientIp);
                     }
-
-                    out.flush();
                 }
             } catch (SocketTimeoutException e) {
-                logger.warn("AuthHandler: Read timed out from client " + clientIp + ". " + e.getMessage());
-            } catch (IOException | ClassNotFoundException e) {
-                logger.error("AuthHandler error for client " + clientIp + ": " + e.getMessage(), e);
+                if (requests == 0) {
+                    logger.warn("AuthHandler: Read timed out from client " + clientIp + ". " + e.getMessage());
+                } else {
+                    logger.info("Authentication session from " + clientIp + " closed after being idle. Requests served: " + requests);
+                }
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    logger.error("AuthHandler error for client " + clientIp + ": " + e.getMessage(), e);
+                }
             } finally {
+                server.openSessions.remove(socket);
                 try {
                     if (!socket.isClosed()) {
                         socket.close();
@@ -168,84 +191,166 @@ public class AuthenticationServer {
             }
         }
 
+        /**
+         * Answers one request on the session.
+         */
+        private void handleRequest(GameMessage request, MessageChannel channel, String clientIp) throws IOException {
+            String type = request.getType();
+            String loginName = "LOGIN".equals(type) && request.getPayload() instanceof Player player ? player.getUsername() : null;
+            if (server.loginThrottle.isThrottled(clientIp, loginName, System.currentTimeMillis())) {
+                server.throttled.mark();
+                channel.send(request.reply("AUTH_FAILURE", "Too many failed attempts. Please try again later."));
+                logger.warn("Throttled request from " + clientIp + (loginName != null ? " for user " + loginName : ""));
+                return;
+            }
+
+            if ("LOGIN".equals(type)) {
+                handleLoginRequest(request, channel, clientIp);
+            } else if ("REGISTER".equals(type)) {
+                handleRegisterRequest(request, channel, clientIp);
+            } else if ("PROFILE".equals(type)) {
+                handleProfileRequest(request, channel, clientIp);
+            } else {
+                channel.send(request.reply("AUTH_FAILURE", "Unknown request type"));
+                logger.warn("Unknown authentication request type: " + type + " from " + clientIp);
+            }
+        }
+
         /**
          * Handles LOGIN requests with input validation and failed attempt tracking.
          */
-        private void handleLoginRequest(Player incoming, ObjectOutputStream out, String clientIp) throws IOException {
+        private void handleLoginRequest(GameMessage request, MessageChannel channel, String clientIp) throws IOException {
+            Player incoming = request.getPayload() instanceof Player player ? player : null;
             // Input Validation: Check for null or empty credentials
             if (incoming == null || incoming.getUsername() == null || incoming.getUsername().trim().isEmpty() ||
                     incoming.getPassword() == null || incoming.getPassword().isEmpty()) {
-                out.writeObject(new GameMessage("AUTH_FAILURE", "Invalid login credentials. Username and password cannot be empty."));
+                server.loginFailures.mark();
+                channel.send(request.reply("AUTH_FAILURE", "Invalid login credentials. Username and password cannot be empty."));
                 logger.warn("Login failed: Invalid input received from " + clientIp);
-                incrementFailedAttempts(clientIp); // Count invalid input as a failed attempt
+                server.loginThrottle.recordFailure(clientIp, null, System.currentTimeMillis()); // Count invalid input as a failed attempt
                 return;
             }
 
             Player stored = playerManager.getPlayerByUsername(incoming.getUsername());
+            PasswordVerifier.Result result;
+            try {
+                result = server.passwordVerifier.verify(incoming.getPassword(), stored != null ? stored.getPassword() : null);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while verifying password");
+            }
 
-            if (stored != null && stored.getPassword().equals(incoming.getPassword())) {
-                out.writeObject(new GameMessage("AUTH_SUCCESS", stored));
+            if (result == PasswordVerifier.Result.BUSY) {
+                server.shed.mark();
+                channel.send(request.reply("AUTH_FAILURE", "Server busy. Please try again shortly."));
+                logger.warn("Login for user " + incoming.getUsername() + " from " + clientIp + " shed: password checks are backed up.");
+            } else if (stored != null && result == PasswordVerifier.Result.MATCH) {
+                server.loginSuccesses.mark();
+                sessionUsername = stored.getUsername();
+                channel.send(request.reply("AUTH_SUCCESS", ticketedProfile(stored)));
                 logger.info("Login successful for user: " + stored.getUsername() + " from " + clientIp);
-                failedLoginAttempts.remove(clientIp); // Reset failed attempts on success
-                lockedOutUsers.remove(clientIp); // Clear lockout status
+                server.loginThrottle.recordSuccess(stored.getUsername()); // Reset the account's failed attempts
             } else {
-                out.writeObject(new GameMessage("AUTH_FAILURE", "Invalid username or password"));
+                server.loginFailures.mark();
+                channel.send(request.reply("AUTH_FAILURE", "Invalid username or password"));
                 logger.warn("Login failed for user: " + incoming.getUsername() + " from " + clientIp);
-                incrementFailedAttempts(clientIp); // Track failed attempt
+                server.loginThrottle.recordFailure(clientIp, incoming.getUsername(), System.currentTimeMillis()); // Track failed attempt
             }
         }
 
-        // For future upgrades
-//        /**
-//         * Handles REGISTER requests with input validation and uniqueness check.
-//         */
-//        private void handleRegisterRequest(Player newPlayer, ObjectOutputStream out, String clientIp) throws IOException {
-//            // Input Validation: Check for null or empty credentials for registration
-//            if (newPlayer == null || newPlayer.getUsername() == null || newPlayer.getUsername().trim().isEmpty() ||
-//                    newPlayer.getPassword() == null || newPlayer.getPassword().isEmpty()) {
-//                out.writeObject(new GameMessage("AUTH_FAILURE", "Registration failed: Username and password cannot be empty."));
-//                logger.warn("Registration failed: Invalid input received from " + clientIp);
-//                return;
-//            }
-//
-//            if (playerManager.getPlayerByUsername(newPlayer.getUsername()) == null) {
-//                playerManager.addPlayer(newPlayer);
-//                out.writeObject(new GameMessage("AUTH_SUCCESS", newPlayer));
-//                logger.info("New user registered: " + newPlayer.getUsername() + " from " + clientIp);
-//            } else {
-//                out.writeObject(new GameMessage("AUTH_FAILURE", "Username already exists"));
-//                logger.warn("Registration failed. Username already exists: " + newPlayer.getUsername() + " from " + clientIp);
-//            }
-//        }
-
         /**
-         * Increments failed login attempts for an IP and locks out if max attempts reached.
+         * Handles REGISTER requests with input validation and uniqueness check.
          */
-        private void incrementFailedAttempts(String ip) {
-            failedLoginAttempts.compute(ip, (key, count) -> (count == null) ? 1 : count + 1);
-            if (failedLoginAttempts.get(ip) >= MAX_FAILED_ATTEMPTS) {
-                lockedOutUsers.put(ip, System.currentTimeMillis() + LOCKOUT_DURATION_MS);
-                logger.warn("IP {} locked out due to too many failed login attempts.", ip);
+        private void handleRegisterRequest(GameMessage request, MessageChannel channel, String clientIp) throws IOException {
+            Player newPlayer = request.getPayload() instanceof Player player ? player : null;
+            // Input Validation: Check for null or empty credentials for registration
+            if (newPlayer == null || newPlayer.getUsername() == null || newPlayer.getUsername().trim().isEmpty() ||
+                    newPlayer.getPassword() == null || newPlayer.getPassword().isEmpty()) {
+                channel.send(request.reply("AUTH_FAILURE", "Registration failed: Username and password cannot be empty."));
+                logger.warn("Registration failed: Invalid input received from " + clientIp);
+                return;
+            }
+
+            if (playerManager.getPlayerByUsername(newPlayer.getUsername()) == null && playerManager.addPlayer(newPlayer)) {
+                Player stored = playerManager.getPlayerByUsername(newPlayer.getUsername()); // Ticket the stored row, which has the generated id
+                if (stored == null || stored.getPlayerId() <= 0) {
+                    channel.send(request.reply("AUTH_FAILURE", "Registration failed. Please try logging in."));
+                    logger.error("Registered user " + newPlayer.getUsername() + " could not be reloaded with its id; no ticket issued.");
+                    return;
+                }
+                channel.send(request.reply("AUTH_SUCCESS", ticketedProfile(stored)));
+                logger.info("New user registered: " + stored.getUsername() + " with ID: " + stored.getPlayerId() + " from " + clientIp);
+            } else {
+                channel.send(request.reply("AUTH_FAILURE", "Username already exists"));
+                logger.warn("Registration failed. Username already exists: " + newPlayer.getUsername() + " from " + clientIp);
             }
         }
 
         /**
-         * Checks if a client IP is currently locked out.
+         * Handles PROFILE lookups by username. Only sessions that have logged in may look up profiles.
          */
-        private boolean isClientLockedOut(String ip) {
-            Long lockoutEndTime = lockedOutUsers.get(ip);
-            if (lockoutEndTime != null) {
-                if (System.currentTimeMillis() < lockoutEndTime) {
-                    return true; // Still locked out
-                } else {
-                    lockedOutUsers.remove(ip); // Lockout period expired, clear status
-                    failedLoginAttempts.remove(ip);
-                }
+        private void handleProfileRequest(GameMessage request, MessageChannel channel, String clientIp) throws IOException {
+            if (sessionUsername == null) {
+                channel.send(request.reply("AUTH_FAILURE", "Log in before requesting profiles."));
+                logger.warn("Profile request before login from " + clientIp);
+                return;
             }
-            return false;
+            String username = request.getPayload() instanceof String name ? name : sessionUsername;
+            Player player = playerManager.getPlayerByUsername(username);
+            if (player == null) {
+                channel.send(request.reply("AUTH_FAILURE", "Player not found: " + username));
+            } else {
+                channel.send(request.reply("PROFILE", publicProfile(player)));
+            }
+        }
+
+        /**
+         * Copies the profile fields a client may see, leaving out the password hash.
+         */
+        private Player publicProfile(Player player) {
+            Player profile = new Player(player.getUsername(), null, player.getFirstName(), player.getLastName(), player.getDateOfBirth());
+            profile.setPlayerId(player.getPlayerId());
+            profile.setPoints(player.getPoints());
+            return profile;
+        }
+
+        /**
+         * Copies the public profile and attaches a signed session ticket, which the game server accepts on JOIN
+         * without looking the player up again.
+         */
+        private Player ticketedProfile(Player player) {
+            Player profile = publicProfile(player);
+            profile.setSessionTicket(server.ticketSigner.issue(player));
+            return profile;
         }
     }
 
+    /**
+     * Publishes the server's live state in the metrics registry and starts publishing the registry.
+     */
+    private void registerGauges() {
+        metrics.gauge("auth.sessions", openSessions::size);
+        metrics.gauge("auth.throttle.tracked", loginThrottle::getTrackedCount);
+        metrics.gauge("auth.throttle.rejectRate", loginThrottle::getRejectRate);
+        metrics.gauge("auth.bcrypt.queueDepth", passwordVerifier::getQueueDepth);
+        metrics.histogram("auth.bcrypt.verify", passwordVerifier.getVerifyTimes());
+        metrics.start();
+    }
+
+    /**
+     * @return the failed login limiter, for its occupancy and reject rate
+     */
+    public LoginThrottle getLoginThrottle() {
+        return loginThrottle;
+    }
+
+    /**
+     * @return the password hashing pool, for its queue depth, shed count and verify times
+     */
+    public PasswordVerifier getPasswordVerifier() {
+        return passwordVerifier;
+    }
+
     public void setAuthPort(int authPort) {
         this.authPort = authPort;
     }
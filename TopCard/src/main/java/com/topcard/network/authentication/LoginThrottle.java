@@ -0,0 +1,277 @@
+package com.topcard.network.authentication;
+
+import com.topcard.util.ConfigUtil;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket limiter for failed logins, keyed by client IP and by username.
+ * <p>
+ * Every failure takes a token from the IP's bucket and from the username's bucket; a key whose bucket is empty
+ * is throttled until it refills. A full bucket is the same as no entry, so each entry is filed on a timer wheel
+ * at the time it will have refilled and is dropped when the wheel passes it. At most maxEntries keys are
+ * tracked, so a run from many addresses cannot grow the heap: a new key evicts the bucket the wheel shows closest
+ * to refilling, which forgets the fewest failures. Keys never share a bucket, so filling the table with junk
+ * cannot lock out a newcomer, while the drained buckets of keys under attack are the last to go.
+ * Counters are striped (LongAdder) so the hot path does not contend.
+ * </p>
+ */
+public class LoginThrottle {
+
+    private static final long TICK_MS = 1000;
+    private static final int WHEEL_SLOTS = 64;
+
+    private final Limit ipLimit;
+    private final Limit userLimit;
+    private final int maxEntries;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Set<String>[] wheel; // Keys by the tick they refill at, modulo WHEEL_SLOTS
+    private final ReentrantLock sweepLock = new ReentrantLock();
+    private long sweptTick = -1; // Guarded by sweepLock
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * Burst size and refill rate of one kind of bucket.
+     */
+    public record Limit(int burst, double refillPerMinute) {
+        double refillPerMs() {
+            return refillPerMinute / 60000.0;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public LoginThrottle(Limit ipLimit, Limit userLimit, int maxEntries) {
+        this.ipLimit = ipLimit;
+        this.userLimit = userLimit;
+        this.maxEntries = maxEntries;
+        this.wheel = new Set[WHEEL_SLOTS];
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+    }
+
+    /**
+     * Creates a throttle from the auth.throttle.* settings.
+     */
+    public static LoginThrottle fromConfig() {
+        return new LoginThrottle(
+                new Limit(ConfigUtil.getInt("auth.throttle.ipBurst", 20), ConfigUtil.getInt("auth.throttle.ipRefillPerMinute", 20)),
+                new Limit(ConfigUtil.getInt("auth.throttle.userBurst", 5), ConfigUtil.getInt("auth.throttle.userRefillPerMinute", 5)),
+                ConfigUtil.getInt("auth.throttle.maxEntries", 100000));
+    }
+
+    /**
+     * Checks whether requests from the IP, and logins as the username if given, must be refused for now.
+     *
+     * @param username the login's username, or null for requests that are throttled by IP only
+     */
+    public boolean isThrottled(String ip, String username, long now) {
+        advance(now);
+        checks.increment();
+        boolean throttled = isEmpty(ipKey(ip), ipLimit, now) || (username != null && isEmpty(userKey(username), userLimit, now));
+        if (throttled) {
+            rejections.increment();
+        }
+        return throttled;
+    }
+
+    /**
+     * Takes a token from the IP's and the username's buckets after a failed login.
+     */
+    public void recordFailure(String ip, String username, long now) {
+        advance(now);
+        failures.increment();
+        take(ipKey(ip), ipLimit, now);
+        if (username != null) {
+            take(userKey(username), userLimit, now);
+        }
+    }
+
+    /**
+     * Forgets the username's failures after a successful login. The IP's bucket is left alone, so logging in to
+     * one account does not buy more guesses at others.
+     */
+    public void recordSuccess(String username) {
+        buckets.remove(userKey(username));
+    }
+
+    private static String ipKey(String ip) {
+        return "ip:" + ip;
+    }
+
+    private static String userKey(String username) {
+        return "user:" + username.toLowerCase();
+    }
+
+    private boolean isEmpty(String key, Limit limit, long now) {
+        Bucket bucket = buckets.get(key);
+        return bucket != null && bucket.tokens(limit, now) < 1;
+    }
+
+    private void take(String key, Limit limit, long now) {
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxEntries) {
+                evictSoonestRefilled(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(limit.burst(), now));
+        }
+        long refilledAt = bucket.take(limit, now);
+        wheel[(int) ((refilledAt / TICK_MS) % WHEEL_SLOTS)].add(key);
+    }
+
+    /**
+     * Makes room for a new key by dropping the tracked bucket that will refill first, walking the wheel from now.
+     * Slots also hold keys filed there before a later failure moved them on; those are skipped.
+     */
+    private void evictSoonestRefilled(long now) {
+        long tick = now / TICK_MS;
+        for (long t = tick; t < tick + WHEEL_SLOTS; t++) {
+            Set<String> slot = wheel[(int) (t % WHEEL_SLOTS)];
+            for (String key : slot) {
+                Bucket bucket = buckets.get(key);
+                long refilledTick = bucket == null ? -1 : bucket.getRefilledAt() / TICK_MS;
+                if (bucket == null || refilledTick % WHEEL_SLOTS != t % WHEEL_SLOTS) {
+                    slot.remove(key); // Gone or filed again in another slot
+                } else if (refilledTick <= t && buckets.remove(key, bucket)) {
+                    slot.remove(key);
+                    evictions.increment();
+                    return;
+                }
+            }
+        }
+        for (String key : buckets.keySet()) { // Every bucket refills more than a turn of the wheel from now
+            if (buckets.remove(key) != null) {
+                evictions.increment();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Moves the wheel up to now, dropping entries that have refilled. Entries filed more than one turn ahead
+     * are found early and filed again. Only one caller sweeps at a time; the others go on without waiting.
+     */
+    private void advance(long now) {
+        long tick = now / TICK_MS;
+        if (tick <= sweptTick || !sweepLock.tryLock()) {
+            return;
+        }
+        try {
+            long from = sweptTick < 0 ? tick : Math.max(sweptTick + 1, tick - WHEEL_SLOTS + 1);
+            for (long t = from; t <= tick; t++) {
+                Set<String> slot = wheel[(int) (t % WHEEL_SLOTS)];
+                for (String key : slot) {
+                    slot.remove(key);
+                    Bucket bucket = buckets.get(key);
+                    if (bucket == null) {
+                        continue;
+                    }
+                    long refilledAt = bucket.getRefilledAt();
+                    if (refilledAt <= now) {
+                        if (buckets.remove(key, bucket)) {
+                            expirations.increment();
+                        }
+                    } else {
+                        wheel[(int) ((refilledAt / TICK_MS) % WHEEL_SLOTS)].add(key);
+                    }
+                }
+            }
+            sweptTick = tick;
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    /**
+     * @return how many keys are tracked, at most maxEntries
+     */
+    public int getTrackedCount() {
+        return buckets.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getCheckCount() {
+        return checks.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejections.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * @return how many buckets were dropped before they refilled to make room for new keys
+     */
+    public long getEvictedCount() {
+        return evictions.sum();
+    }
+
+    public long getExpiredCount() {
+        return expirations.sum();
+    }
+
+    /**
+     * @return the share of checked requests that were refused, from 0 to 1
+     */
+    public double getRejectRate() {
+        long checked = checks.sum();
+        return checked == 0 ? 0 : (double) rejections.sum() / checked;
+    }
+
+    /**
+     * One token bucket. Tokens are refilled lazily from the time of the last update.
+     */
+    private static class Bucket {
+        private double tokens;
+        private long updatedAt;
+        private volatile long refilledAt;
+
+        Bucket(int burst, long now) {
+            this.tokens = burst;
+            this.updatedAt = now;
+            this.refilledAt = now;
+        }
+
+        synchronized double tokens(Limit limit, long now) {
+            refill(limit, now);
+            return tokens;
+        }
+
+        /**
+         * @return the time the bucket will be full again
+         */
+        synchronized long take(Limit limit, long now) {
+            refill(limit, now);
+            tokens = Math.max(0, tokens - 1);
+            refilledAt = now + (long) Math.ceil((limit.burst() - tokens) / limit.refillPerMs());
+            return refilledAt;
+        }
+
+        private void refill(Limit limit, long now) {
+            if (now > updatedAt) {
+                tokens = Math.min(limit.burst(), tokens + (now - updatedAt) * limit.refillPerMs());
+                updatedAt = now;
+            }
+        }
+
+        long getRefilledAt() {
+            return refilledAt;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.topcard.network.authentication;
+
+import com.topcard.business.PlayerManager;
+import com.topcard.util.ConfigUtil;
+import com.topcard.util.LatencyHistogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.mindrot.jbcrypt.BCrypt;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Checks login passwords against their BCrypt hashes on a small dedicated pool, apart from the session threads.
+ * <p>
+ * BCrypt is deliberately CPU bound, so running it on as many threads as there are sessions only makes every login
+ * slow at once. The pool has one thread per core and a bounded queue; when the queue is full the login is shed
+ * with a "busy" answer instead of waiting, so the logins that are accepted finish in predictable time.
+ * </p>
+ */
+public class PasswordVerifier {
+
+    private static final Logger logger = LogManager.getLogger(PasswordVerifier.class);
+
+    public static final int DEFAULT_COST = 10;
+    static final int MIN_COST = 10; // Calibration never goes below BCrypt's default
+    static final int MAX_COST = 16;
+    private static final int PROBE_COST = 6; // Cheap cost timed during calibration; each step above doubles it
+
+    /**
+     * Outcome of a verification. BUSY means the login was shed and the password was not checked.
+     */
+    public enum Result { MATCH, MISMATCH, BUSY }
+
+    private final PlayerManager playerManager;
+    private final ThreadPoolExecutor pool;
+    private final String absentUserHash; // Checked for unknown usernames, so they take as long as a wrong password
+    private final LatencyHistogram verifyTimes = new LatencyHistogram();
+    private final LongAdder verified = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    public PasswordVerifier(PlayerManager playerManager, int threads, int queueSize, int cost) {
+        this.playerManager = playerManager;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize), task -> {
+            Thread thread = new Thread(task, "bcrypt-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.absentUserHash = BCrypt.hashpw("absent-user", BCrypt.gensalt(cost));
+    }
+
+    /**
+     * Creates a verifier from auth.bcrypt.threads (0 for one per core) and auth.bcrypt.queueSize.
+     */
+    public static PasswordVerifier fromConfig(PlayerManager playerManager, int cost) {
+        int threads = ConfigUtil.getInt("auth.bcrypt.threads", 0);
+        return new PasswordVerifier(playerManager, threads > 0 ? threads : Runtime.getRuntime().availableProcessors(),
+                ConfigUtil.getInt("auth.bcrypt.queueSize", 64), cost);
+    }
+
+    /**
+     * Picks the BCrypt cost for new hashes: auth.bcrypt.cost if set, otherwise the highest cost whose verify
+     * takes no longer than auth.bcrypt.targetMs on this host.
+     */
+    public static int costFromConfig() {
+        int cost = ConfigUtil.getInt("auth.bcrypt.cost", 0);
+        if (cost > 0) {
+            return cost;
+        }
+        return calibrateCost(ConfigUtil.getInt("auth.bcrypt.targetMs", 250));
+    }
+
+    /**
+     * Times a cheap hash and extrapolates, as each cost step doubles the work.
+     *
+     * @return the highest cost between MIN_COST and MAX_COST whose estimated verify time is within the target
+     */
+    public static int calibrateCost(long targetMs) {
+        String hash = BCrypt.hashpw("calibration", BCrypt.gensalt(PROBE_COST));
+        BCrypt.checkpw("calibration", hash); // Warm up
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            BCrypt.checkpw("calibration", hash);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        int cost = MIN_COST;
+        while (cost < MAX_COST && best * (1L << (cost + 1 - PROBE_COST)) <= TimeUnit.MILLISECONDS.toNanos(targetMs)) {
+            cost++;
+        }
+        logger.info("BCrypt cost " + cost + " chosen for a " + targetMs + " ms target (estimated "
+                + TimeUnit.NANOSECONDS.toMillis(best * (1L << (cost - PROBE_COST))) + " ms per verify)");
+        return cost;
+    }
+
+    /**
+     * Checks the password on the hashing pool and waits for the answer.
+     *
+     * @param storedHash the player's stored hash, or null if the username is unknown
+     */
+    public Result verify(String plainPassword, String storedHash) throws InterruptedException {
+        Future<Boolean> check;
+        try {
+            check = pool.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return matches(plainPassword, storedHash);
+                } finally {
+                    verifyTimes.record(System.nanoTime() - start);
+                    verified.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            shed.increment();
+            return Result.BUSY;
+        }
+        try {
+            return check.get() ? Result.MATCH : Result.MISMATCH;
+        } catch (ExecutionException e) {
+            logger.error("Password verification failed: " + e.getCause().getMessage());
+            return Result.MISMATCH;
+        }
+    }
+
+    private boolean matches(String plainPassword, String storedHash) {
+        if (storedHash == null) {
+            playerManager.verifyPassword(plainPassword, absentUserHash);
+            return false;
+        }
+        try {
+            return playerManager.verifyPassword(plainPassword, storedHash);
+        } catch (IllegalArgumentException e) {
+            return false; // Not a BCrypt hash
+        }
+    }
+
+    /**
+     * Stops the hashing threads. Queued checks are dropped.
+     */
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public int getQueueDepth() {
+        return pool.getQueue().size();
+    }
+
+    public long getVerifiedCount() {
+        return verified.sum();
+    }
+
+    public long getShedCount() {
+        return shed.sum();
+    }
+
+    public LatencyHistogram getVerifyTimes() {
+        return verifyTimes;
+    }
+}
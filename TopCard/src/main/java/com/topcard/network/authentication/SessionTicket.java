@@ -0,0 +1,47 @@
+package com.topcard.network.authentication;
+
+/**
+ * The identity carried by a verified session ticket: who the player is and how many points they had
+ * when the ticket was issued. The issue time is the points epoch, so a newer ticket (a fresh login)
+ * supersedes points a server cached from an older one.
+ */
+public class SessionTicket {
+
+    private final int playerId;
+    private final String username;
+    private final int points;
+    private final long issuedAt;
+    private final long expiresAt;
+
+    public SessionTicket(int playerId, String username, int points, long issuedAt, long expiresAt) {
+        this.playerId = playerId;
+        this.username = username;
+        this.points = points;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public long getIssuedAt() {
+        return issuedAt;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+}
@@ -0,0 +1,148 @@
+package com.topcard.network.authentication;
+
+import com.topcard.domain.Player;
+import com.topcard.util.ConfigUtil;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Issues and verifies HMAC-SHA256 signed session tickets.
+ * <p>
+ * A ticket is {@code base64url(payload) + "." + base64url(signature)}, where the payload holds the player id,
+ * points, issue and expiry times and username. The authentication server signs tickets on login and the game
+ * server checks them with the same shared secret ({@code auth.ticket.secret}), so a JOIN needs no database
+ * round trip. Anyone who knows the secret can forge tickets, so the servers refuse to start without a private
+ * one; the public development secret is only used when {@code auth.ticket.devMode} is explicitly turned on.
+ * Outside tests the secret comes from the {@code TOPCARD_TICKET_SECRET} environment variable or the file named by
+ * {@code auth.ticket.secretFile}, so it never shows on a command line.
+ * </p>
+ */
+public class TicketSigner {
+
+    private static final Logger logger = LogManager.getLogger(TicketSigner.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte VERSION = 1;
+    private static final String DEV_SECRET = "topcard-dev-ticket-secret";
+    private static final String SECRET_ENV = "TOPCARD_TICKET_SECRET";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final long ttlMs;
+    // Mac instances are not thread safe and costly to create, so each thread keeps its own
+    private final ThreadLocal<Mac> macs;
+
+    public TicketSigner(byte[] secret, long ttlMs) {
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.ttlMs = ttlMs;
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Creates a signer from the configured secret and auth.ticket.ttlMs.
+     *
+     * @throws IllegalStateException if no secret is configured or it is the development secret and
+     *         auth.ticket.devMode is not true, or if auth.ticket.secretFile cannot be read
+     */
+    public static TicketSigner fromConfig() {
+        String secret = ConfigUtil.getSecret("auth.ticket.secret", SECRET_ENV); // Or auth.ticket.secretFile
+        if (secret == null || DEV_SECRET.equals(secret)) {
+            if (!ConfigUtil.getBoolean("auth.ticket.devMode", false)) {
+                throw new IllegalStateException("auth.ticket.secret is not set to a private value. Set the secret shared by the "
+                        + "authentication and game servers, or auth.ticket.devMode=true for local development only.");
+            }
+            logger.warn("auth.ticket.devMode is on: session tickets are signed with the public development secret and can be forged. Never use it in production.");
+            secret = DEV_SECRET;
+        }
+        return new TicketSigner(secret.getBytes(StandardCharsets.UTF_8), ConfigUtil.getInt("auth.ticket.ttlMs", 43200000));
+    }
+
+    /**
+     * Issues a ticket for the player, valid for the configured lifetime.
+     */
+    public String issue(Player player) {
+        long now = System.currentTimeMillis();
+        return issue(new SessionTicket(player.getPlayerId(), player.getUsername(), player.getPoints(), now, now + ttlMs));
+    }
+
+    String issue(SessionTicket ticket) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(48);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeInt(ticket.getPlayerId());
+            out.writeInt(ticket.getPoints());
+            out.writeLong(ticket.getIssuedAt());
+            out.writeLong(ticket.getExpiresAt());
+            out.writeUTF(ticket.getUsername());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write session ticket", e); // Cannot happen for an in-memory stream
+        }
+        byte[] payload = bytes.toByteArray();
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /**
+     * Checks the ticket's signature and expiry.
+     *
+     * @return the ticket's contents, or null if it is malformed, forged or expired
+     */
+    public SessionTicket verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return null;
+        }
+        try {
+            byte[] payload = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(payload))) { // Constant time, so timing does not leak the signature
+                return null;
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            if (in.readByte() != VERSION) {
+                return null;
+            }
+            int playerId = in.readInt();
+            int points = in.readInt();
+            long issuedAt = in.readLong();
+            long expiresAt = in.readLong();
+            SessionTicket ticket = new SessionTicket(playerId, in.readUTF(), points, issuedAt, expiresAt);
+            return ticket.isExpired(System.currentTimeMillis()) ? null : ticket;
+        } catch (IllegalArgumentException | IOException e) {
+            return null; // Not base64 or truncated
+        }
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    private byte[] sign(byte[] payload) {
+        return macs.get().doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+}
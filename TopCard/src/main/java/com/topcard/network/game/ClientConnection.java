@@ -0,0 +1,47 @@
+package com.topcard.network.game;
+
+import com.topcard.domain.Player;
+import com.topcard.network.protocol.EncodedMessage;
+
+/**
+ * Server-side view of one connected client, independent of the transport serving it.
+ */
+public interface ClientConnection {
+
+    /**
+     * Sends a message to the client. Failures are logged, not thrown, so one broken client
+     * cannot interrupt a broadcast.
+     */
+    void send(GameMessage message);
+
+    /**
+     * Sends a message shared with other recipients. Connections that write frames reuse its cached encoding
+     * instead of encoding the message again.
+     */
+    default void send(EncodedMessage message) {
+        send(message.getMessage());
+    }
+
+    /**
+     * Closes the connection and releases its resources. Safe to call more than once.
+     */
+    void close();
+
+    /**
+     * Closes the connection once the messages already queued for it have been written, so a final message
+     * such as SHUTDOWN or a rejection reaches the client. Safe to call more than once. Connections that write
+     * synchronously have nothing queued and simply close.
+     */
+    default void closeGracefully() {
+        close();
+    }
+
+    String getRemoteAddress();
+
+    /**
+     * @return the player who joined on this connection, or null before JOIN
+     */
+    Player getPlayer();
+
+    void setPlayer(Player player);
+}
@@ -4,8 +4,13 @@ import com.topcard.config.ClientConfig;
 import com.topcard.dao.player.PlayerDaoImpl;
 import com.topcard.domain.Card;
 import com.topcard.domain.Player;
+import com.topcard.domain.PointsDelta;
+import com.topcard.domain.RoundResult;
+import com.topcard.network.protocol.MessageChannel;
+import com.topcard.network.protocol.WireProtocol;
 import com.topcard.presentation.common.Constants;
 import com.topcard.presentation.view.GameView;
+import com.topcard.util.ConfigUtil;
 import javafx.application.Platform;
 import javafx.embed.swing.JFXPanel;
 import javafx.stage.Stage;
@@ -30,10 +35,18 @@ public class GameClient {
 
     private static final Logger logger = LogManager.getLogger(GameClient.class);
 
+    private static final int RECONNECT_ATTEMPTS = 5;
+    private static final long RECONNECT_BACKOFF_MS = 500;
+
     private static GameClient instance;
 
-    private ObjectOutputStream out;
-    private ObjectInputStream in;
+    private MessageChannel channel;
+    private volatile List<Player> seats; // Roster of the current table, included in ROUND_RESULT when the seating changes
+    private String host;
+    private int port = ConfigUtil.getInt("game.client.port", Constants.GAME_PORT); // The lobby router's port in a cluster
+    private Player player;
+    private volatile int lastSequence; // Sequence number of the last table broadcast received, sent on RESUME
+    private volatile boolean closing;
 
     @Autowired
     private ApplicationContext context;
@@ -51,9 +64,10 @@ public class GameClient {
      * Connects to the server and registers the player.
      */
     public void connect(String host, Player player) throws IOException {
-        Socket socket = new Socket(host, Constants.GAME_PORT);
-        out = new ObjectOutputStream(socket.getOutputStream());
-        in = new ObjectInputStream(socket.getInputStream());
+        this.host = host;
+        this.player = player;
+        this.closing = false;
+        open();
 
         send(new GameMessage("JOIN", player));
         logger.debug("Connected to server as: " + player.getUsername());
@@ -61,17 +75,21 @@ public class GameClient {
         new Thread(this::listen).start();
     }
 
+    private synchronized void open() throws IOException {
+        Socket socket = new Socket(host, port);
+        channel = WireProtocol.fromConfig().open(socket);
+    }
+
     /**
      * Sends a GameMessage to the server.
      */
     public synchronized void send(GameMessage msg) {
-        if (out == null) {
+        if (channel == null) {
             logger.error("Failed to send message: no server connection.");
             return;
         }
         try {
-            out.writeObject(msg);
-            out.flush();
+            channel.send(msg);
             logger.info("Sent message: " + msg.getType());
         } catch (IOException e) {
             logger.error("Error sending message: " + e.getMessage());
@@ -79,29 +97,128 @@ public class GameClient {
     }
 
     /**
-     * Listens for incoming messages from the server.
+     * Answers a heartbeat PING. The server drops clients that stop answering.
+     */
+    private synchronized void pong(GameMessage ping) {
+        try {
+            channel.send(ping.reply("PONG", null));
+        } catch (IOException e) {
+            logger.error("Error answering heartbeat: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Listens for incoming messages from the server, reconnecting if the connection drops.
      */
-    @SuppressWarnings("unchecked")
     private void listen() {
+        while (true) {
+            try {
+                GameMessage last = receive();
+                if (closing || !(last.getPayload() instanceof String redirect) || !moveTo(redirect)) {
+                    return; // Server shut down
+                }
+            } catch (IOException e) {
+                if (closing || !reconnect()) {
+                    logger.error("Disconnected from server. " + e.getMessage());
+                    return;
+                }
+            } catch (Exception e) {
+                logger.error("Disconnected from server. " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Handles messages until the server shuts down or redirects the client, or the connection fails.
+     *
+     * @return the server's SHUTDOWN message, or a lobby router's REDIRECT
+     */
+    @SuppressWarnings("unchecked")
+    private GameMessage receive() throws IOException {
+        while (true) {
+            GameMessage msg = channel.receive();
+            logger.debug("Received message: " + msg.getType());
+            if (msg.getRequestId() > 0 && !"PING".equals(msg.getType()) && !"RESUMED".equals(msg.getType())) {
+                lastSequence = msg.getRequestId(); // Table broadcasts carry their sequence number
+            }
+
+            switch (msg.getType()) {
+                case "HANDS" -> displayHands((List<Card[]>) msg.getPayload());
+                case "WINNERS" -> announceWinners((List<Player>) msg.getPayload());
+                case "ROUND_RESULT" -> showRoundResult((RoundResult) msg.getPayload());
+                case "POINTS_UPDATED" -> applyPointsDeltas((List<PointsDelta>) msg.getPayload());
+                case "PING" -> pong(msg);
+                case "RESUMED" -> logger.info("Resumed seat at the table.");
+                case "REDIRECT" -> {
+                    return msg;
+                }
+                case "SHUTDOWN" -> {
+                    logger.info("Received SHUTDOWN message from server. Terminating listener.");
+                    return msg;
+                }
+                default -> logger.debug("Unknown message type: " + msg.getType());
+            }
+        }
+    }
+
+    /**
+     * Joins the server that a lobby router or a draining server redirected this client to.
+     *
+     * @param redirect the new server as host:port
+     * @return true if joined there
+     */
+    private boolean moveTo(String redirect) {
+        int colon = redirect.lastIndexOf(':');
         try {
-            while (true) {
-                GameMessage msg = (GameMessage) in.readObject();
-                logger.debug("Received message: " + msg.getType());
-
-                switch (msg.getType()) {
-                    case "HANDS" -> displayHands((List<Card[]>) msg.getPayload());
-                    case "WINNERS" -> announceWinners((List<Player>) msg.getPayload());
-                    case "POINTS_UPDATED" -> launchGameView((List<Player>) msg.getPayload());
-                    case "SHUTDOWN" -> {
-                        logger.info("Received SHUTDOWN message from server. Terminating listener.");
-                        throw new EOFException("Server requested shutdown"); // This will break the while(true) loop
+            synchronized (this) {
+                host = colon > 0 ? redirect.substring(0, colon) : redirect;
+                port = colon > 0 ? Integer.parseInt(redirect.substring(colon + 1)) : Constants.GAME_PORT;
+            }
+            open();
+            lastSequence = 0;
+            send(new GameMessage("JOIN", player));
+            logger.info("Redirected. Joined " + redirect + " instead.");
+            return true;
+        } catch (IOException | NumberFormatException e) {
+            logger.error("Could not join redirected server " + redirect + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Reconnects after a dropped connection. A client holding a session ticket asks to RESUME its seat and is
+     * sent the broadcasts it missed; if the server cannot resume it, the client joins again as a new player.
+     *
+     * @return true if connected again
+     */
+    private boolean reconnect() {
+        for (int attempt = 1; attempt <= RECONNECT_ATTEMPTS && !closing; attempt++) {
+            try {
+                Thread.sleep(RECONNECT_BACKOFF_MS * attempt);
+                open();
+                String ticket = player.getSessionTicket();
+                if (ticket != null && lastSequence > 0) {
+                    send(new GameMessage("RESUME", ticket, lastSequence));
+                    GameMessage reply = channel.receive();
+                    if ("RESUMED".equals(reply.getType())) {
+                        logger.info("Reconnected to server and resumed after message " + lastSequence);
+                        return true;
                     }
-                    default -> logger.debug("Unknown message type: " + msg.getType());
+                    logger.info("Server could not resume the seat: " + reply.getPayload() + ". Joining again.");
                 }
+                lastSequence = 0;
+                send(new GameMessage("JOIN", player));
+                logger.info("Reconnected to server as: " + player.getUsername());
+                return true;
+            } catch (IOException e) {
+                logger.warn("Reconnect attempt " + attempt + " failed: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
             }
-        } catch (Exception e) {
-            logger.error("Disconnected from server. " + e.getMessage());
         }
+        return false;
     }
 
     private void displayHands(List<Card[]> hands) {
@@ -118,7 +235,36 @@ public class GameClient {
 //        winners.forEach(w -> logger.info(" - " + w.getUsername()));
     }
 
-    private void launchGameView(List<Player> players) {
+    /**
+     * Shows a finished round from its single result frame.
+     */
+    private void showRoundResult(RoundResult result) {
+        if (result.getSeats() != null) {
+            seats = result.getSeats();
+        }
+        displayHands(result.getHands());
+        applyPointsDeltas(result.getPointsDeltas());
+        if (seats != null) {
+            announceWinners(result.getWinners(seats));
+        }
+    }
+
+    /**
+     * Applies a round's per-seat point changes to the roster and shows the result.
+     */
+    private void applyPointsDeltas(List<PointsDelta> deltas) {
+        List<Player> roster = seats;
+        if (roster == null) {
+            logger.warn("Received points before the table roster. Ignoring.");
+            return;
+        }
+        for (PointsDelta delta : deltas) {
+            roster.get(delta.getSeat()).setPoints(delta.getNewTotal());
+        }
+        launchGameView(roster, deltas);
+    }
+
+    private void launchGameView(List<Player> players, List<PointsDelta> deltas) {
         new JFXPanel(); // Ensures JavaFX thread is initialized
         Platform.setImplicitExit(false);
 
@@ -127,6 +273,7 @@ public class GameClient {
             try {
                 GameView view = new GameView(context);
                 view.setPlayers(players);
+                view.setPointsDeltas(deltas);
                 Stage stage = new Stage();
                 view.start(stage);
             } catch (Exception ex) {
@@ -140,12 +287,10 @@ public class GameClient {
      * Helps prevent resource leaks and ensures the server recognizes the end of communication.
      */
     public void disconnect() {
+        closing = true;
         try {
-            if (out != null) {
-                out.close();
-            }
-            if (in != null) {
-                in.close();
+            if (channel != null) {
+                channel.close();
             }
         } catch (IOException e) {
             logger.error("Error during disconnect: {}", e.getMessage());
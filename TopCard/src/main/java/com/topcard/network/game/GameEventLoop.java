@@ -0,0 +1,199 @@
+package com.topcard.network.game;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * A single selector thread serving many non-blocking client connections.
+ * It parses frames and hands complete messages to the server on the dispatch executor,
+ * so game logic and database calls never run on the selector thread.
+ */
+public class GameEventLoop implements Runnable {
+
+    private static final Logger logger = LogManager.getLogger(GameEventLoop.class);
+
+    private static final long SELECT_TIMEOUT_MS = 1000;
+
+    private final GameServer server;
+    private final Executor dispatcher;
+    private final long joinTimeoutMs;
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final Set<NioClientConnection> pendingJoins = new HashSet<>(); // Event loop thread only
+
+    private volatile boolean running = true;
+
+    public GameEventLoop(GameServer server, Executor dispatcher, long joinTimeoutMs) throws IOException {
+        this.server = server;
+        this.dispatcher = dispatcher;
+        this.joinTimeoutMs = joinTimeoutMs;
+        this.selector = Selector.open();
+    }
+
+    /**
+     * Hands a newly accepted channel to this loop.
+     */
+    public void register(SocketChannel channel) {
+        execute(() -> {
+            try {
+                channel.configureBlocking(false);
+                NioClientConnection connection = new NioClientConnection(channel, this, server.newOutboundQueue());
+                connection.setKey(channel.register(selector, SelectionKey.OP_READ, connection));
+                pendingJoins.add(connection);
+                logger.info("New client connected from " + connection.getRemoteAddress());
+            } catch (IOException e) {
+                logger.error("Failed to register client channel: " + e.getMessage());
+                try { channel.close(); } catch (IOException ignored) {}
+            }
+        });
+    }
+
+    /**
+     * Runs the task on the event loop thread.
+     */
+    public void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Stops the loop and closes every connection it owns.
+     */
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select(SELECT_TIMEOUT_MS);
+                runTasks();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    processKey(key);
+                }
+                expirePendingJoins();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (running) {
+                logger.error("Event loop failed: " + e.getMessage(), e);
+            }
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof NioClientConnection connection) {
+                    connection.closeChannel();
+                }
+            }
+            try { selector.close(); } catch (IOException ignored) {}
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void processKey(SelectionKey key) {
+        NioClientConnection connection = (NioClientConnection) key.attachment();
+        try {
+            if (key.isValid() && key.isReadable()) {
+                List<GameMessage> messages = connection.readMessages();
+                for (GameMessage message : messages) {
+                    onMessage(connection, message);
+                }
+            }
+            if (key.isValid() && key.isWritable() && connection.flushWrites()) {
+                if (connection.isCloseWhenFlushed()) {
+                    closeConnection(connection);
+                } else {
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            }
+        } catch (IOException e) {
+            logger.info("Client " + connection.getRemoteAddress() + " disconnected: " + e.getMessage());
+            closeConnection(connection);
+        }
+    }
+
+    private void onMessage(NioClientConnection connection, GameMessage message) {
+        if (connection.isClosed()) {
+            return;
+        }
+        if (!connection.isJoinReceived()) {
+            boolean resume = "RESUME".equals(message.getType());
+            if (!"JOIN".equals(message.getType()) && !resume) {
+                logger.warn("Received unexpected message type: " + message.getType() + " during join phase from " + connection.getRemoteAddress() + ". Connection rejected.");
+                closeConnection(connection);
+                return;
+            }
+            connection.markJoinReceived();
+            pendingJoins.remove(connection);
+            connection.dispatch(() -> {
+                if (resume && !server.resumePlayer(connection, message)) {
+                    execute(() -> { // Rejected; wait for a JOIN on the same connection
+                        connection.resetJoinReceived();
+                        pendingJoins.add(connection);
+                    });
+                } else if (!resume && !server.registerPlayer(connection, message)) {
+                    connection.closeGracefully(); // Lets a rejection notice reach the client
+                }
+            }, dispatcher);
+        } else {
+            connection.dispatch(() -> {
+                if (connection.getPlayer() != null && !connection.isClosed()) {
+                    server.handleMessage(message, connection);
+                }
+            }, dispatcher);
+        }
+    }
+
+    /**
+     * Closes a connection and removes its player from the server. Must run on the event loop thread.
+     */
+    void closeConnection(NioClientConnection connection) {
+        if (connection.isClosed()) {
+            return;
+        }
+        pendingJoins.remove(connection);
+        connection.closeChannel();
+        server.removeClient(connection);
+    }
+
+    /**
+     * Drops connections that have not sent JOIN in time, so half-open or idle sockets do not pile up.
+     */
+    private void expirePendingJoins() {
+        if (pendingJoins.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Iterator<NioClientConnection> iterator = pendingJoins.iterator();
+        while (iterator.hasNext()) {
+            NioClientConnection connection = iterator.next();
+            if (now - connection.getConnectedAt() > joinTimeoutMs) {
+                iterator.remove();
+                logger.warn("Client connection timed out during initial JOIN message from " + connection.getRemoteAddress());
+                closeConnection(connection);
+            }
+        }
+    }
+}
@@ -5,16 +5,31 @@ import java.io.Serializable;
 /**
  * Represents a serializable message used for communication between client and server.
  * Can carry various game-related instructions and data payloads.
+ * Requests on a multiplexed session carry a request id that the server copies into its response;
+ * 0 means the message is not part of a request/response exchange.
  */
 public class GameMessage implements Serializable {
-    private static final long serialVersionUID = 1L;
+    private static final long serialVersionUID = 1L; // Unchanged: peers without requestId read it as 0
 
     private final String type;
     private final Object payload;
+    private final int requestId;
 
     public GameMessage(String type, Object payload) {
+        this(type, payload, 0);
+    }
+
+    public GameMessage(String type, Object payload, int requestId) {
         this.type = type;
         this.payload = payload;
+        this.requestId = requestId;
+    }
+
+    /**
+     * Creates the response to this message, carrying the same request id.
+     */
+    public GameMessage reply(String type, Object payload) {
+        return new GameMessage(type, payload, requestId);
     }
 
     public String getType() {
@@ -24,4 +39,8 @@ public class GameMessage implements Serializable {
     public Object getPayload() {
         return payload;
     }
+
+    public int getRequestId() {
+        return requestId;
+    }
 }
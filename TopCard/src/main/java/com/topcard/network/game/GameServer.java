@@ -1,13 +1,28 @@
 package com.topcard.network.game;
 
+import com.topcard.business.BotPool;
 import com.topcard.business.GameManager;
 import com.topcard.business.PlayerManager;
 import com.topcard.config.GameServerConfig;
 import com.topcard.domain.Card;
 import com.topcard.domain.Player;
+import com.topcard.domain.PointsDelta;
+import com.topcard.domain.RoundResult;
+import com.topcard.network.authentication.SessionTicket;
+import com.topcard.network.authentication.TicketSigner;
+import com.topcard.network.protocol.EncodedMessage;
+import com.topcard.network.protocol.MessageChannel;
+import com.topcard.network.protocol.WireProtocol;
+import com.topcard.network.router.NodeAuthenticator;
+import com.topcard.network.router.NodeStatus;
 import com.topcard.presentation.common.Constants;
 import com.topcard.service.game.GameService;
 import com.topcard.service.game.IGameService;
+import com.topcard.util.ConfigUtil;
+import com.topcard.util.ExecutorMode;
+import com.topcard.util.LatencyHistogram;
+import com.topcard.util.MetricsRegistry;
+import com.topcard.util.RandomStreams;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,53 +32,142 @@ import org.springframework.stereotype.Component;
 
 import java.io.*;
 import java.net.*;
-import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Handles server-side communication and multiplayer game flow for TopCard.
+ * Players are seated at independent tables, so many games can run at the same time.
  */
 @Component
 public class GameServer {
 
     private static final Logger logger = LogManager.getLogger(GameServer.class);
 
-    private static final int PORT = Constants.GAME_PORT;
     private static final int START_GAME_TIMEOUT_SECONDS = 5;
     private static final int MAX_PLAYERS = Constants.MAX_PLAYERS;
-    private static final int THREAD_POOL_SIZE = 4;
-    private static final int FULL_LOBBY_CHECK_INTERVAL_MS = 5000;
-    private static final int TIMEOUT_CHECK_INTERVAL_MS = 500;
+    private static final int DEFAULT_THREAD_POOL_SIZE = 4;
     private static final int BETS_ROUND_NUMBER = 1;
+    private static final int MATCHMAKING_SWEEP_MS = 1000;
+    private static final String PING = "PING";
+    private static final String PONG = "PONG";
     private static final int CLIENT_SOCKET_READ_TIMEOUT_MS = 5000;
 
-    private final List<ObjectOutputStream> clientOutputs = new CopyOnWriteArrayList<>();
+    /**
+     * Transport used to serve clients. BLOCKING keeps one thread per connection and accepts every wire protocol
+     * (object streams only while game.server.allowObjectStream is set); NIO multiplexes framed connections over
+     * a few selector threads (clients must use game.protocol=framed or binary).
+     */
+    public enum ServerMode { BLOCKING, NIO }
+
+    private final List<ClientConnection> clientConnections = new CopyOnWriteArrayList<>();
     private final List<Player> connectedPlayers = new CopyOnWriteArrayList<>();
-    private final List<Socket> clientSockets = new CopyOnWriteArrayList<>();
+    private final TableRegistry tableRegistry = new TableRegistry(MAX_PLAYERS, ConfigUtil.getInt("game.server.maxTables", 1000),
+            ConfigUtil.getInt("game.server.replayBufferSize", GameTable.DEFAULT_REPLAY_BUFFER_SIZE));
+
+    private int port = ConfigUtil.getInt("game.server.port", Constants.GAME_PORT);
+    private ServerMode serverMode = ConfigUtil.getEnum("game.server.mode", ServerMode.BLOCKING);
+    private final int eventLoopThreads = ConfigUtil.getInt("game.server.eventLoopThreads", 2);
+    private final boolean allowObjectStream = ConfigUtil.getBoolean("game.server.allowObjectStream", true); // Compatibility with old clients
+    private final int outboundQueueSize = ConfigUtil.getInt("game.server.outboundQueueSize", 256);
+    private final OutboundQueue.SlowConsumerPolicy slowConsumerPolicy =
+            ConfigUtil.getEnum("game.server.slowConsumerPolicy", OutboundQueue.SlowConsumerPolicy.DISCONNECT);
+    // Clients without a ticket are looked up when their round starts; set to turn them away instead
+    private final boolean requireTicket = ConfigUtil.getBoolean("game.server.requireTicket", false);
+    private volatile TicketSigner ticketSigner; // Created on start(), so contexts that only build clients need no secret
+    private final PlayerSessionCache sessions = new PlayerSessionCache();
+    // With matchmaking, START_GAME queues the player and tables are formed from players of similar points
+    private final boolean matchmaking = ConfigUtil.getBoolean("game.server.matchmaking", false);
+    private final MatchmakingQueue matchmakingQueue = new MatchmakingQueue(MAX_PLAYERS,
+            ConfigUtil.getInt("game.matchmaking.bucketWidth", 50),
+            ConfigUtil.getInt("game.matchmaking.windowGrowthMs", 2000),
+            ConfigUtil.getInt("game.matchmaking.maxWaitMs", 10000));
+    // A client that answers PINGs is dropped after missing heartbeatMissLimit in a row; one that never
+    // answers (an older client) is dropped after legacyIdleTimeoutMs without any message
+    private final int heartbeatIntervalMs = ConfigUtil.getInt("game.server.heartbeatIntervalMs", 2000);
+    private final int heartbeatMissLimit = ConfigUtil.getInt("game.server.heartbeatMissLimit", 3);
+    private final int legacyIdleTimeoutMs = ConfigUtil.getInt("game.server.legacyIdleTimeoutMs", 300000);
+    private final Map<ClientConnection, Heartbeat> heartbeats = new ConcurrentHashMap<>();
+    // Seats of ticket holders whose connection dropped are held this long for a RESUME
+    private final int resumeGraceMs = ConfigUtil.getInt("game.server.resumeGraceMs", 30000);
+    private final Map<String, ClientConnection> detachedConnections = new ConcurrentHashMap<>(); // By username
+    private NioGameServer nioServer;
+    // In a cluster, the node reports its load to the lobby router, which sends it players as host:port below
+    private String router = ConfigUtil.getString("game.server.router", "");
+    private final String advertisedHost = ConfigUtil.getString("game.server.advertisedHost", Constants.LOCAL_HOST);
+    private final int routerHeartbeatMs = ConfigUtil.getInt("game.server.routerHeartbeatMs", 1000);
+    private RouterLink routerLink;
+    private NodeAuthenticator nodeAuthenticator; // Proves the node to the router; created on start() when it has one
+
+    private final MetricsRegistry metrics = MetricsRegistry.getDefault();
+    private final MetricsRegistry.Meter rounds = metrics.meter("game.rounds");
+    private final LatencyHistogram joinToDeal = metrics.histogram("game.joinToDeal");
+    private final Map<ClientConnection, Long> joinedAt = new ConcurrentHashMap<>(); // JOIN time of players not yet dealt
+
+    private final AtomicLong broadcastBytesSaved = new AtomicLong();
+    private final AtomicLong broadcastEncodeNanosSaved = new AtomicLong();
 
-    private volatile boolean gameStarted = false;
     private volatile boolean running = false; // Controls the server's main accept loop for graceful shutdown
-
-    private final ExecutorService clientThreadPool = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+    // While draining, no new players or rounds are admitted; rounds already dealt run to completion
+    private volatile boolean draining = false;
+    private volatile String drainRedirect = ConfigUtil.getString("game.server.drainRedirect", "");
+    private final int drainTimeoutMs = ConfigUtil.getInt("game.server.drainTimeoutMs", 60000);
+
+    private final ExecutorService clientThreadPool = ConfigUtil.getEnum("game.server.executor", ExecutorMode.VIRTUAL)
+            .newExecutor("GameServer", ConfigUtil.getInt("game.server.threadPoolSize", DEFAULT_THREAD_POOL_SIZE));
+    // Writers must never wait behind the handler threads, so they get their own unbounded executor
+    private final ExecutorService outboundWriters = ExecutorMode.VIRTUAL.newExecutor("GameServer outbound writer", 0);
+    // Rounds likewise get their own executor; fixed handler threads may all be blocked reading their clients
+    private final ExecutorService roundRunner = ExecutorMode.VIRTUAL.newExecutor("GameServer round", 0);
+    private final LobbyScheduler lobbyScheduler =
+            new LobbyScheduler(TimeUnit.SECONDS.toMillis(START_GAME_TIMEOUT_SECONDS), roundRunner, this::beginGame);
 
     ServerSocket serverSocket;
 
     @Autowired
     PlayerManager playerManager;
 
+    @Autowired
+    BotPool botPool;
+
     @Autowired
     private ApplicationContext context;
 
+    /**
+     * @return the signer that checks session tickets, created from auth.ticket.secret on first use
+     * @throws IllegalStateException if no private ticket secret is configured
+     */
+    private TicketSigner ticketSigner() {
+        TicketSigner signer = ticketSigner;
+        if (signer == null) {
+            synchronized (this) {
+                signer = ticketSigner;
+                if (signer == null) {
+                    signer = TicketSigner.fromConfig();
+                    ticketSigner = signer;
+                }
+            }
+        }
+        return signer;
+    }
+
     /**
      * Main entry point for the server.
      */
     public static void main(String[] args) {
         try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(GameServerConfig.class)) {
             GameServer gameServer = context.getBean(GameServer.class);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> { // SIGTERM drains, so rolling restarts keep rounds
+                try {
+                    gameServer.drain();
+                } catch (IOException | InterruptedException e) {
+                    logger.error("Error draining Game Server: " + e.getMessage(), e);
+                }
+            }, "game-server-drain"));
             gameServer.start();
         } catch (Exception e) {
             logger.error("Error with Game Server", e);
@@ -75,71 +179,79 @@ public class GameServer {
      * @throws Exception if an error occurs while starting the server.
      */
     public void start() throws Exception {
-        serverSocket = new ServerSocket(PORT);
+        ticketSigner(); // Refuse to serve without a private ticket secret
+        if (router != null && !router.isEmpty()) {
+            nodeAuthenticator = NodeAuthenticator.fromConfig(); // Likewise without the cluster secret
+        }
+        registerGauges();
+        if (matchmaking) {
+            lobbyScheduler.schedulePeriodic(this::sweepMatchmaking, MATCHMAKING_SWEEP_MS);
+        }
+        if (heartbeatIntervalMs > 0) {
+            lobbyScheduler.schedulePeriodic(this::checkHeartbeats, heartbeatIntervalMs);
+        }
+        if (serverMode == ServerMode.NIO) {
+            running = true;
+            nioServer = new NioGameServer(this, port, eventLoopThreads, clientThreadPool, CLIENT_SOCKET_READ_TIMEOUT_MS);
+            startRouterLink(); // Before start(), which serves until the server is stopped
+            nioServer.start();
+            return;
+        }
+
+        serverSocket = new ServerSocket(port);
         running = true;
-        logger.info("TopCard Server started on port " + PORT);
+        logger.info("TopCard Server started on port " + port);
+        startRouterLink();
 
         while (running) { // Loop continues as long as server is running
             Socket socket = null;
-            ObjectOutputStream out = null;
-            ObjectInputStream in = null;
+            MessageChannel channel = null;
 
             try {
-                if (connectedPlayers.size() < MAX_PLAYERS && !gameStarted) {
-                    socket = serverSocket.accept();
-                    if (!running) { // Check flag immediately after accept in case stop() was called
-                        logger.info("Server stopping, closing newly accepted socket from " + socket.getInetAddress());
-                        socket.close();
-                        break;
-                    }
+                socket = serverSocket.accept();
+                if (!running) { // Check flag immediately after accept in case stop() was called
+                    logger.info("Server stopping, closing newly accepted socket from " + socket.getInetAddress());
+                    socket.close();
+                    break;
+                }
 
-                    logger.info("New client connected from " + socket.getInetAddress());
-                    socket.setSoTimeout(CLIENT_SOCKET_READ_TIMEOUT_MS);
-
-                    try {
-                        out = new ObjectOutputStream(socket.getOutputStream());
-                        in = new ObjectInputStream(socket.getInputStream());
-                    } catch (EOFException | SocketException e) {
-                        // Handles premature client disconnects or specific socket issues during stream setup
-                        String logMsg = "Stream setup exception for " + socket.getInetAddress() + ": " + e.getMessage();
-                        if (!running) logger.info("Cleanly handled " + logMsg + " (during shutdown)");
-                        else logger.debug("Transient " + logMsg + " (client disconnected early)");
-                        if (socket != null && !socket.isClosed()){
-                            try {
-                                socket.close();
-                            } catch (IOException ignored) {}
-                        }
-                        continue;
+                logger.info("New client connected from " + socket.getInetAddress());
+                socket.setSoTimeout(CLIENT_SOCKET_READ_TIMEOUT_MS);
+
+                try {
+                    channel = WireProtocol.accept(socket, allowObjectStream); // Object stream or framed, from the first bytes
+                } catch (EOFException | SocketException e) {
+                    // Handles premature client disconnects or specific socket issues during stream setup
+                    String logMsg = "Stream setup exception for " + socket.getInetAddress() + ": " + e.getMessage();
+                    if (!running) logger.info("Cleanly handled " + logMsg + " (during shutdown)");
+                    else logger.debug("Transient " + logMsg + " (client disconnected early)");
+                    if (socket != null && !socket.isClosed()){
+                        try {
+                            socket.close();
+                        } catch (IOException ignored) {}
                     }
+                    continue;
+                }
 
-                    GameMessage joinMessage = (GameMessage) in.readObject();
-                    if ("JOIN".equals(joinMessage.getType())) {
-                        Player player = (Player) joinMessage.getPayload();
-
-                        if (player == null || player.getUsername() == null || player.getUsername().trim().isEmpty()) {
-                            logger.warn("Client from " + socket.getInetAddress() + " sent invalid JOIN payload. Connection rejected.");
-                            in.close(); out.close(); socket.close();
-                            continue;
-                        }
-
-                        if (!connectedPlayers.contains(player)) {
-                            connectedPlayers.add(player);
-                            clientOutputs.add(out);
-                            clientSockets.add(socket);
-
-                            logger.info("Player joined: " + player.getUsername() + ". Players in Lobby: " +  connectedPlayers.size() + " of " + MAX_PLAYERS);
-                            sendAll(new GameMessage("Game Lobby - Number of Players:", connectedPlayers.size()));
-                            clientThreadPool.submit(new GameServerHandler(this, socket, in, out));
-                        } else {
-                            logger.warn("Player " + player.getUsername() + " attempted to join twice. Connection rejected.");
-                            in.close(); out.close(); socket.close();
-                        }
+                GameMessage joinMessage = channel.receive();
+                if ("JOIN".equals(joinMessage.getType()) || "RESUME".equals(joinMessage.getType())) {
+                    StreamClientConnection connection = new StreamClientConnection(socket, channel, newOutboundQueue(), outboundWriters);
+                    boolean admitted = false;
+                    if ("RESUME".equals(joinMessage.getType()) && !(admitted = resumePlayer(connection, joinMessage)) && !draining) {
+                        joinMessage = channel.receive(); // Rejected; the client joins anew on the same connection
+                    }
+                    if (!admitted && "JOIN".equals(joinMessage.getType())) {
+                        admitted = registerPlayer(connection, joinMessage);
+                    }
+                    if (admitted) {
+                        socket.setSoTimeout(0); // From here on, heartbeats decide when the client is gone
+                        clientThreadPool.submit(new GameServerHandler(this, connection));
                     } else {
-                        logger.warn("Received unexpected message type: " + joinMessage.getType() + " during join phase from " + socket.getInetAddress() + ". Connection rejected by immediate close.");
-                        in.close(); out.close(); socket.close();
+                        connection.closeGracefully(); // Lets a rejection notice reach the client
                     }
                 } else {
-                    Thread.sleep(FULL_LOBBY_CHECK_INTERVAL_MS);
+                    logger.warn("Received unexpected message type: " + joinMessage.getType() + " during join phase from " + socket.getInetAddress() + ". Connection rejected by immediate close.");
+                    channel.close();
                 }
             } catch (SocketTimeoutException e) { // Catches timeouts on initial read
                 logger.warn("Client connection timed out during initial JOIN message from " + (socket != null ? socket.getInetAddress() : "unknown") + ": " + e.getMessage());
@@ -151,13 +263,31 @@ public class GameServer {
                 } else {
                     logger.error("Socket error in accept loop: " + se.getMessage(), se);
                 }
-            } catch (IOException | ClassNotFoundException e) { // Catches other I/O errors and deserialization issues
+            } catch (IOException e) { // Catches other I/O errors, unknown protocols and undecodable messages
                 logger.error("Error accepting client or reading join message: " + e.getMessage(), e);
                 if (socket != null && !socket.isClosed()) try { socket.close(); } catch (IOException ignored) {}
             }
         }
     }
 
+    /**
+     * Starts reporting to the lobby router once the server is listening, if game.server.router is set.
+     */
+    private void startRouterLink() {
+        if (router != null && !router.isEmpty()) {
+            routerLink = new RouterLink(router, routerHeartbeatMs, nodeAuthenticator, this::getNodeStatus);
+            routerLink.start();
+        }
+    }
+
+    /**
+     * @return this node's load as reported to the lobby router
+     */
+    public NodeStatus getNodeStatus() {
+        return new NodeStatus(advertisedHost + ":" + port, tableRegistry.getTables().size(), connectedPlayers.size(),
+                tableRegistry.getOpenSeats(), tableRegistry.getMaxTables(), draining);
+    }
+
     /**
      * Stops the game server gracefully.
      * @throws IOException if an I/O error occurs while closing the socket.
@@ -165,14 +295,23 @@ public class GameServer {
      */
     public void stop() throws IOException, InterruptedException {
         running = false; // Signal main loop to terminate
+        if (routerLink != null) {
+            routerLink.stop(); // The router stops sending players here
+        }
         if (serverSocket != null && !serverSocket.isClosed()) {
             serverSocket.close(); // Interrupts blocking accept() call
             logger.info("Game Server socket closed.");
         }
-        for (Socket clientSocket : clientSockets) { // Close all connected client sockets
-            try { if (!clientSocket.isClosed()) clientSocket.close(); } catch (IOException ignored) {}
+        if (nioServer != null) {
+            nioServer.stop(); // Closes the listening channel and every NIO connection
         }
-        clientOutputs.clear(); connectedPlayers.clear(); clientSockets.clear();
+        for (ClientConnection connection : clientConnections) { // Close all connected clients
+            connection.close();
+        }
+        clientConnections.clear(); connectedPlayers.clear(); detachedConnections.clear(); tableRegistry.clear(); sessions.clear(); matchmakingQueue.clear(); heartbeats.clear();
+        outboundWriters.shutdownNow(); // Connections are closed, so pending writes are moot
+        lobbyScheduler.shutdown();
+        roundRunner.shutdownNow();
 
         clientThreadPool.shutdown(); // Shutdown client handling threads
         try {
@@ -187,131 +326,505 @@ public class GameServer {
         }
     }
 
+    /**
+     * Drains the server for a rolling restart, then stops it. New JOINs are answered with SHUTDOWN and
+     * countdowns that have not dealt are cancelled, but rounds in progress run to completion so their point
+     * updates are written in full. Every client is then sent SHUTDOWN, carrying the host:port of the node to
+     * reconnect to (game.server.drainRedirect) if one is set, and is disconnected once the frame is written.
+     * Waits at most game.server.drainTimeoutMs for rounds to finish.
+     *
+     * @return true if every round in progress finished before the timeout
+     */
+    public boolean drain() throws IOException, InterruptedException {
+        if (!running || draining) {
+            return true;
+        }
+        draining = true;
+        if (routerLink != null) {
+            routerLink.report(); // Tells the router at once, so it stops sending players here
+        }
+        logger.info("Draining Game Server: no new players or rounds; waiting up to " + drainTimeoutMs + " ms for rounds in progress.");
+        lobbyScheduler.shutdown(); // Cancels countdowns that have not dealt yet
+        roundRunner.shutdown();
+        boolean finished = roundRunner.awaitTermination(drainTimeoutMs, TimeUnit.MILLISECONDS);
+        if (!finished) {
+            logger.warn("Rounds still in progress after " + drainTimeoutMs + " ms. Stopping anyway.");
+        }
+        for (ClientConnection connection : clientConnections) {
+            sendShutdown(connection);
+        }
+        long deadline = System.currentTimeMillis() + CLIENT_SOCKET_READ_TIMEOUT_MS;
+        while (!clientConnections.isEmpty() && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(20); // Handlers remove each client once its SHUTDOWN is written
+        }
+        stop();
+        logger.info("Game Server drained.");
+        return finished;
+    }
+
+    /**
+     * Tells the client the server is going away, with the node to reconnect to if one is set, then closes it.
+     */
+    private void sendShutdown(ClientConnection connection) {
+        String redirect = drainRedirect;
+        connection.send(new GameMessage("SHUTDOWN", redirect == null || redirect.isEmpty() ? null : redirect));
+        connection.closeGracefully();
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    /**
+     * Sets the host:port clients are told to reconnect to when the server drains, or null for none.
+     */
+    public void setDrainRedirect(String drainRedirect) {
+        this.drainRedirect = drainRedirect;
+    }
+
+    /**
+     * Validates a JOIN message and seats the player at an open table.
+     * Used by both transports; for NIO it runs on the dispatch executor, never on an event loop thread.
+     *
+     * @return true if the player joined a table, false if the connection should be closed
+     */
+    public boolean registerPlayer(ClientConnection connection, GameMessage joinMessage) {
+        if (draining) {
+            sendShutdown(connection);
+            return false;
+        }
+        if (!(joinMessage.getPayload() instanceof Player joinPlayer) || joinPlayer.getUsername() == null || joinPlayer.getUsername().trim().isEmpty()) {
+            logger.warn("Client from " + connection.getRemoteAddress() + " sent invalid JOIN payload. Connection rejected.");
+            return false;
+        }
+        Player player = authenticate(connection, joinPlayer);
+        if (player == null) {
+            return false;
+        }
+        connection.setPlayer(player);
+        clientConnections.add(connection); // Registered first so a disconnect during seating still frees the seat
+        heartbeats.put(connection, new Heartbeat());
+        joinedAt.put(connection, System.nanoTime());
+        if (matchmaking) { // Seated once matched, after the player asks to play
+            connectedPlayers.add(player);
+            logger.info("Player joined: " + player.getUsername() + ". Waiting for START_GAME to be matched.");
+            connection.send(new GameMessage("Game Lobby - Number of Players:", 1));
+            return true;
+        }
+        GameTable table = tableRegistry.seat(player, connection);
+        if (table == null) {
+            clientConnections.remove(connection);
+            heartbeats.remove(connection);
+            joinedAt.remove(connection);
+            connection.setPlayer(null);
+            return false;
+        }
+        connectedPlayers.add(player);
+
+        if (draining) { // Drain began while this JOIN was being seated; no round will start for it
+            if (clientConnections.remove(connection)) {
+                heartbeats.remove(connection);
+                joinedAt.remove(connection);
+                releaseSeat(connection);
+            }
+            sendShutdown(connection);
+            return false;
+        }
+
+        logger.info("Player joined: " + player.getUsername() + " at table " + table.getId() + ". Players at table: " + table.getPlayers().size() + " of " + MAX_PLAYERS);
+        table.sendAll(new GameMessage("Game Lobby - Number of Players:", table.getPlayers().size()));
+        if (table.isFull()) {
+            lobbyScheduler.tableFull(table);
+        }
+        return true;
+    }
+
+    /**
+     * Handles a RESUME from a client whose connection dropped: verifies its session ticket, moves its held seat
+     * to the new connection and sends it every table broadcast after the sequence number it last received
+     * (the message's request id). Used by both transports in place of registerPlayer.
+     * On RESUME_REJECTED the connection stays in the join phase, so the client can send a JOIN next.
+     *
+     * @return true if the seat was resumed, false if it was rejected
+     */
+    public boolean resumePlayer(ClientConnection connection, GameMessage resumeMessage) {
+        if (draining) {
+            sendShutdown(connection);
+            return false;
+        }
+        SessionTicket ticket = resumeMessage.getPayload() instanceof String token ? ticketSigner().verify(token) : null;
+        if (ticket == null) {
+            logger.warn("Client from " + connection.getRemoteAddress() + " sent RESUME without a valid session ticket. Connection rejected.");
+            connection.send(resumeMessage.reply("RESUME_REJECTED", "Invalid or expired session ticket"));
+            return false;
+        }
+        ClientConnection lost = detachedConnections.remove(ticket.getUsername());
+        GameTable table = lost != null ? tableRegistry.getTable(lost.getPlayer()) : null;
+        if (table == null) {
+            logger.info("No held seat for " + ticket.getUsername() + " to resume. Client must join again.");
+            connection.send(resumeMessage.reply("RESUME_REJECTED", "No seat to resume"));
+            return false;
+        }
+        clientConnections.add(connection);
+        heartbeats.put(connection, new Heartbeat());
+        if (!table.resume(lost, connection, resumeMessage.getRequestId(), resumeMessage.reply("RESUMED", table.getPlayers().size()))) {
+            clientConnections.remove(connection);
+            heartbeats.remove(connection);
+            logger.info("Missed messages for " + ticket.getUsername() + " are no longer buffered. Client must join again.");
+            connection.send(resumeMessage.reply("RESUME_REJECTED", "Too far behind to resume"));
+            releaseSeat(lost);
+            return false;
+        }
+        logger.info("Player " + ticket.getUsername() + " resumed at table " + table.getId() + " from " + connection.getRemoteAddress());
+        return true;
+    }
+
+    /**
+     * Verifies the JOIN's session ticket locally and returns the session's player.
+     * Clients without a ticket are accepted as sent unless game.server.requireTicket is set.
+     *
+     * @return the player to seat, or null if the connection should be rejected
+     */
+    private Player authenticate(ClientConnection connection, Player joinPlayer) {
+        if (joinPlayer.getSessionTicket() == null) {
+            if (requireTicket) {
+                logger.warn("Player " + joinPlayer.getUsername() + " from " + connection.getRemoteAddress() + " sent no session ticket. Connection rejected.");
+                return null;
+            }
+            return joinPlayer;
+        }
+        SessionTicket ticket = ticketSigner().verify(joinPlayer.getSessionTicket());
+        if (ticket == null) {
+            logger.warn("Invalid or expired session ticket for " + joinPlayer.getUsername() + " from " + connection.getRemoteAddress() + ". Connection rejected.");
+            return null;
+        }
+        return sessions.resolve(ticket, joinPlayer);
+    }
+
     /**
      * Handles incoming game messages from clients.
      */
-    public synchronized void handleMessage(GameMessage message, Player player) {
+    public void handleMessage(GameMessage message, ClientConnection connection) {
+        Player player = connection.getPlayer();
+        Heartbeat heartbeat = heartbeats.get(connection);
+        if (heartbeat != null) {
+            heartbeat.heard(System.currentTimeMillis());
+        }
+        if (PONG.equals(message.getType())) {
+            if (heartbeat != null) {
+                heartbeat.pong(message.getRequestId(), System.nanoTime());
+            }
+            return;
+        }
         logger.debug("Server received message from " + player.getUsername() + ": " + message.getType());
 
         if ("START_GAME".equals(message.getType()) || "REMATCH".equals(message.getType())) {
-            if (!gameStarted) {
-                new Thread(() -> { // Starts a new thread for game launch countdown
-                    long startTime = System.currentTimeMillis();
-                    logger.info("START_GAME received. Countdown to launch begins...");
-
-                    while (System.currentTimeMillis() - startTime < START_GAME_TIMEOUT_SECONDS * 1000) {
-                        if (connectedPlayers.size() == MAX_PLAYERS) {
-                            logger.info("Four players connected. Starting game immediately.");
-                            break;
-                        }
-                        try {
-                            Thread.sleep(TIMEOUT_CHECK_INTERVAL_MS);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                        }
-                    }
-                    if (!gameStarted) {
-                        logger.info("Countdown complete. Starting game now.");
-                        fillMissingPlayersIfNeeded();
-                        beginGame();
-                        gameStarted = true;
-                    }
-                }).start();
+            if (draining) {
+                logger.info("Ignoring " + message.getType() + " from " + player.getUsername() + ": server is draining.");
+                return;
+            }
+            GameTable table = tableRegistry.getTable(player);
+            if (table == null && matchmaking) {
+                List<ClientConnection> group = matchmakingQueue.enqueue(connection, System.currentTimeMillis());
+                if (group != null) {
+                    openMatchedTable(group);
+                }
+                return;
+            }
+            if (table == null) {
+                logger.warn("Player " + player.getUsername() + " is not seated at a table.");
+                return;
             }
+            lobbyScheduler.startCountdown(table); // Only the first request starts the table's countdown
         }
     }
 
     /**
-     * Runs a full game round for connected players.
+     * Sends every client its next PING and drops the clients that stopped answering.
+     * A half-open connection is noticed within a few intervals rather than on the next failed write.
      */
-    private synchronized void beginGame() {
-        IGameService newGameService = context.getBean(IGameService.class);
-        newGameService.setPlayers(connectedPlayers);
-        GameManager gameManager = new GameManager(newGameService);
+    private void checkHeartbeats() {
+        try {
+            long now = System.currentTimeMillis();
+            long nowNanos = System.nanoTime();
+            for (ClientConnection connection : clientConnections) {
+                Heartbeat heartbeat = heartbeats.get(connection);
+                if (heartbeat == null) {
+                    continue;
+                }
+                int sequence = heartbeat.nextPing(nowNanos);
+                boolean dead = heartbeat.isAnswering()
+                        ? heartbeat.getMissed() >= heartbeatMissLimit
+                        : now - heartbeat.getLastHeardAt() > legacyIdleTimeoutMs;
+                if (dead) {
+                    Player player = connection.getPlayer();
+                    logger.warn("Dropping unresponsive client " + (player != null ? player.getUsername() : "unknown") + " from "
+                            + connection.getRemoteAddress() + " after " + heartbeat.getMissed() + " missed heartbeats. RTT p50 "
+                            + heartbeat.getRoundTrips().getPercentileMicros(50) + " us, p99 " + heartbeat.getRoundTrips().getPercentileMicros(99) + " us.");
+                    removeClient(connection);
+                } else {
+                    connection.send(new GameMessage(PING, null, sequence));
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Heartbeat check failed: " + e.getMessage(), e); // An escaping exception would cancel the check
+        }
+    }
 
-        gameManager.startGame();
-        gameManager.dealCards();
+    /**
+     * Widens the matchmaking windows of waiting players and seats the groups that now match.
+     */
+    private void sweepMatchmaking() {
+        try {
+            for (List<ClientConnection> group : matchmakingQueue.sweep(System.currentTimeMillis())) {
+                openMatchedTable(group);
+            }
+            if (matchmakingQueue.getDepth() > 0) {
+                logger.debug("Matchmaking queue depth " + matchmakingQueue.getDepth() + ", wait p50 "
+                        + matchmakingQueue.getWaitPercentileMs(50) + " ms, p99 " + matchmakingQueue.getWaitPercentileMs(99) + " ms");
+            }
+        } catch (RuntimeException e) {
+            logger.error("Matchmaking sweep failed: " + e.getMessage(), e); // An escaping exception would cancel the sweep
+        }
+    }
 
-        List<Card[]> hands = gameManager.getHands();
-        sendAll(new GameMessage("HANDS", hands));
+    /**
+     * Seats a matched group at a new table and starts its round. A full group needs no countdown, and a partial
+     * group has already waited the maximum time.
+     */
+    private void openMatchedTable(List<ClientConnection> group) {
+        group.removeIf(connection -> !clientConnections.contains(connection)); // Left while being matched
+        if (group.isEmpty()) {
+            return;
+        }
+        GameTable table = tableRegistry.seatTogether(group);
+        if (table == null) {
+            long now = System.currentTimeMillis();
+            for (ClientConnection connection : group) {
+                matchmakingQueue.enqueue(connection, now); // Try again on a later sweep
+            }
+            return;
+        }
+        table.sendAll(new GameMessage("Game Lobby - Number of Players:", table.getPlayers().size()));
+        lobbyScheduler.startNow(table);
+    }
 
-        List<Player> updatedPlayers = gameManager.executeBettingRound(BETS_ROUND_NUMBER);
-        sendAll(new GameMessage("POINTS_UPDATED", updatedPlayers));
+    /**
+     * Runs a full game round for the players seated at a table.
+     *
+     * @param countdown the countdown that asked for the round; a stale request is ignored
+     */
+    private void beginGame(GameTable table, int countdown) {
+        List<Player> players = table.startRound(countdown);
+        if (players == null) {
+            return; // Already started, or everyone left during the countdown
+        }
+        try {
+            fillMissingPlayersIfNeeded(players);
 
-        List<Player> winners = gameManager.determineWinner();
-        sendAll(new GameMessage("WINNERS", winners));
+            IGameService tableGameService = table.getGameService();
+            if (tableGameService == null) {
+                tableGameService = context.getBean(IGameService.class);
+                table.setGameService(tableGameService);
+            }
+            tableGameService.setPlayers(players, sessions::isCurrent); // Read once per session on this node; bots never
+            sessions.markCurrent(players);
+            long seed = table.nextRoundSeed();
+            tableGameService.setRandomGenerator(RandomStreams.forSeed(seed)); // Only drawn from if the shoe is shuffled
+            GameManager gameManager = new GameManager(tableGameService);
+
+            gameManager.startGame();
+            int shoeOffset = tableGameService.getShoeOffset();
+            long shoeSeed = table.recordShoe(seed, shoeOffset);
+            gameManager.dealCards();
+
+            List<Card[]> hands = gameManager.getHands();
+            int[] pointsBefore = PointsDelta.snapshot(players);
+            gameManager.executeBettingRound(BETS_ROUND_NUMBER); // Updates the seated players in place
+            List<Player> winners = gameManager.determineWinner();
+
+            // One frame per client per round; clients keep the roster, so it is only included when the seating changes
+            RoundResult result = new RoundResult(table.updateRoster(players) ? players : null, hands,
+                    PointsDelta.between(pointsBefore, players), RoundResult.seatsOf(players, winners));
+            EncodedMessage resultMessage = table.sendAll(new GameMessage("ROUND_RESULT", result));
+            rounds.mark();
+            long dealtAt = System.nanoTime();
+            for (ClientConnection connection : table.getConnections()) {
+                Long joined = joinedAt.remove(connection);
+                if (joined != null) {
+                    joinToDeal.record(dealtAt - joined);
+                }
+            }
 
-        logger.info("Game round completed and updates sent to clients.");
+            logger.info("Game round completed at table " + table.getId() + " (shoe seed " + shoeSeed + ", offset " + shoeOffset
+                    + ") and updates sent to clients.");
+            recordBroadcastSavings(table, resultMessage);
+        } finally {
+            botPool.release(players);
+            table.finishRound();
+            if (matchmaking) {
+                tableRegistry.disband(table); // Players queue again with REMATCH
+            }
+        }
     }
 
     /**
      * Broadcasts a message to all connected clients.
+     * Each send only enqueues, so the broadcast does not wait for the slowest client,
+     * and the message is encoded once per wire format rather than once per client.
      */
-    public synchronized void sendAll(GameMessage message) {
-        List<ObjectOutputStream> outputsToSend = new ArrayList<>(clientOutputs);
-        for (ObjectOutputStream out : outputsToSend) {
-            try {
-                out.writeObject(message);
-                out.flush();
-            } catch (IOException e) {
-                logger.error("Failed to send message to client: " + e.getMessage());
-            }
+    public void sendAll(GameMessage message) {
+        EncodedMessage encoded = new EncodedMessage(message);
+        for (ClientConnection connection : clientConnections) {
+            connection.send(encoded);
         }
     }
 
     /**
-     * Fills the game with additional bot players if the lobby is not full.
+     * Adds what a round's shared broadcast frames saved to the server totals and logs it.
      */
-    private void fillMissingPlayersIfNeeded() {
-        int missing = MAX_PLAYERS - connectedPlayers.size();
-        if (missing <= 0) return;
+    private void recordBroadcastSavings(GameTable table, EncodedMessage... broadcasts) {
+        long bytesSaved = 0;
+        long nanosSaved = 0;
+        for (EncodedMessage broadcast : broadcasts) {
+            bytesSaved += broadcast.getBytesSaved();
+            nanosSaved += broadcast.getEncodeNanosSaved();
+        }
+        broadcastBytesSaved.addAndGet(bytesSaved);
+        broadcastEncodeNanosSaved.addAndGet(nanosSaved);
+        logger.info("Table " + table.getId() + " round broadcasts saved " + bytesSaved + " bytes and "
+                + TimeUnit.NANOSECONDS.toMicros(nanosSaved) + " us of encoding.");
+    }
+
+    /**
+     * @return frame bytes broadcasts reused instead of encoding again, since the server started
+     */
+    public long getBroadcastBytesSaved() {
+        return broadcastBytesSaved.get();
+    }
 
-        List<Player> allPlayers = playerManager.getAllPlayers();
-        // Remove already connected players from potential bots list
-        allPlayers.removeIf(p -> connectedPlayers.stream().anyMatch(cp -> cp.getUsername().equals(p.getUsername())));
+    /**
+     * @return estimated encoding time broadcasts saved, in nanoseconds, since the server started
+     */
+    public long getBroadcastEncodeNanosSaved() {
+        return broadcastEncodeNanosSaved.get();
+    }
+
+    /**
+     * Creates the outbound queue for a new connection, bounded and policed as configured.
+     */
+    <T> OutboundQueue<T> newOutboundQueue() {
+        return new OutboundQueue<>(outboundQueueSize, slowConsumerPolicy);
+    }
+
+    /**
+     * Fills the round with bot players if the table is not full. Bots come from memory, never the database.
+     */
+    private void fillMissingPlayersIfNeeded(List<Player> players) {
+        int missing = MAX_PLAYERS - players.size();
+        if (missing <= 0) return;
 
-        Collections.shuffle(allPlayers); // Randomize bot selection
+        List<Player> bots = botPool.borrow(missing);
+        players.addAll(bots);
+        logger.info("Added " + missing + " filler bots: " + bots.stream().map(Player::getUsername).toList());
+    }
 
-        for (int i = 0; i < missing; i++) {
-            Player tempPlayer;
-            if (i < allPlayers.size()) {
-                tempPlayer = allPlayers.get(i);
+    /**
+     * Handles the disconnection of a client: frees its seat and closes the connection.
+     */
+    public void removeClient(ClientConnection connection) {
+        if (clientConnections.remove(connection)) {
+            matchmakingQueue.remove(connection);
+            heartbeats.remove(connection);
+            joinedAt.remove(connection);
+            Player player = connection.getPlayer();
+            if (running && !draining && resumeGraceMs > 0 && player != null && sessions.isVerified(player) && tableRegistry.getTable(player) != null) {
+                // Hold the seat so the client can RESUME; broadcasts to the closed connection are skipped meanwhile
+                detachedConnections.put(player.getUsername(), connection);
+                lobbyScheduler.schedule(() -> {
+                    if (detachedConnections.remove(player.getUsername(), connection)) {
+                        releaseSeat(connection);
+                    }
+                }, resumeGraceMs);
+                logger.info("Holding seat of disconnected player " + player.getUsername() + " for " + resumeGraceMs + " ms.");
             } else {
-                // Create new bot if no existing player is available
-                String baseUsername = "Bot" + (i + 1);
-                String tempUsername = baseUsername;
-                int suffix = 1;
-                while (playerManager.getPlayerByUsername(tempUsername) != null) tempUsername = baseUsername + "_" + suffix++;
-                tempPlayer = new Player(tempUsername, "pass" + (i + 1), baseUsername, "Bot", LocalDate.of(1900, 1, 1));
-                playerManager.addPlayer(tempPlayer);
-                logger.warn("Created temporary player: " + tempPlayer.getUsername());
+                releaseSeat(connection);
             }
-            connectedPlayers.add(tempPlayer);
-            logger.info("Added filler player: " + tempPlayer.getUsername());
         }
+        connection.close();
     }
 
     /**
-     * Handles the disconnection of a client.
+     * Publishes the server's live state in the metrics registry and starts publishing the registry.
      */
-    public void removeClient(Socket socket, ObjectInputStream in, ObjectOutputStream out) {
-        int index = clientSockets.indexOf(socket);
-        if (index != -1) {
-            logger.info("Removing disconnected player: " + connectedPlayers.get(index).getUsername());
-            connectedPlayers.remove(index);
-            clientOutputs.remove(index);
-            clientSockets.remove(index);
-        }
-        try { // Close client resources
-            if (in != null) in.close();
-            if (out != null) out.close();
-            if (socket != null) socket.close();
-        } catch (IOException e) {
-            logger.error("Error closing client streams: " + e.getMessage());
+    private void registerGauges() {
+        metrics.gauge("game.connections", clientConnections::size);
+        metrics.gauge("game.players", connectedPlayers::size);
+        metrics.gauge("game.tables", () -> tableRegistry.getTables().size());
+        metrics.gauge("game.detached", detachedConnections::size);
+        metrics.gauge("game.matchmaking.depth", matchmakingQueue::getDepth);
+        metrics.gauge("game.broadcastBytesSaved", broadcastBytesSaved::get);
+        metrics.start();
+    }
+
+    /**
+     * Frees the seat of a connection that is gone for good.
+     */
+    private void releaseSeat(ClientConnection connection) {
+        Player player = connection.getPlayer();
+        GameTable table = tableRegistry.leave(connection);
+        if (player != null) {
+            logger.info("Removing disconnected player: " + player.getUsername() + (table != null ? " from table " + table.getId() : ""));
+            connectedPlayers.remove(player);
         }
     }
 
     public List<Player> getConnectedPlayers() {
         return connectedPlayers;
     }
-}
\ No newline at end of file
+
+    public PlayerSessionCache getSessions() {
+        return sessions;
+    }
+
+    /**
+     * @return the connection's heartbeat and round-trip times, or null if it is not connected
+     */
+    public Heartbeat getHeartbeat(ClientConnection connection) {
+        return heartbeats.get(connection);
+    }
+
+    /**
+     * @return true if the player's connection dropped and its seat is held for a RESUME
+     */
+    public boolean isDetached(String username) {
+        return detachedConnections.containsKey(username);
+    }
+
+    public MatchmakingQueue getMatchmakingQueue() {
+        return matchmakingQueue;
+    }
+
+    public LobbyScheduler getLobbyScheduler() {
+        return lobbyScheduler;
+    }
+
+    public TableRegistry getTableRegistry() {
+        return tableRegistry;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Sets the lobby router (host:port) this node reports to when started, or null for a standalone server.
+     */
+    public void setRouter(String router) {
+        this.router = router;
+    }
+
+    public void setServerMode(ServerMode serverMode) {
+        this.serverMode = serverMode;
+    }
+}
@@ -5,9 +5,6 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.net.Socket;
 
 /**
  * Handles communication for a single client connection on a separate thread.
@@ -17,40 +14,26 @@ public class GameServerHandler implements Runnable {
     private static final Logger logger = LogManager.getLogger(GameServerHandler.class);
 
     private final GameServer server;
-    private final Socket clientSocket;
-    private final ObjectInputStream in;
+    private final StreamClientConnection connection;
+    private final Player player;
 
-    private final ObjectOutputStream out;
-    private Player player;
-
-    public GameServerHandler(GameServer server, Socket socket, ObjectInputStream in, ObjectOutputStream out) {
+    public GameServerHandler(GameServer server, StreamClientConnection connection) {
         this.server = server;
-        this.clientSocket = socket;
-        this.in = in;
-        this.out = out;
-
-        // Find the player object associated with this connection
-        try {
-            // The most recently added player corresponds to this socket.
-            this.player = server.getConnectedPlayers().get(server.getConnectedPlayers().size() - 1);
-        } catch (Exception e) {
-            logger.error("Could not link handler to a player: " + e.getMessage());
-        }
+        this.connection = connection;
+        this.player = connection.getPlayer(); // Set when the server accepted the JOIN
     }
 
     @Override
     public void run() {
         try {
             while (true) {
-                GameMessage message = (GameMessage) in.readObject();
-                server.handleMessage(message, player);
+                GameMessage message = connection.receive();
+                server.handleMessage(message, connection);
             }
         } catch (IOException e) {
             logger.error("Client disconnected: " + (player != null ? player.getUsername() : "unknown"));
-        } catch (ClassNotFoundException e) {
-            logger.error("Invalid object received from client: " + e.getMessage());
         } finally {
-            server.removeClient(clientSocket, in, out);
+            server.removeClient(connection);
         }
     }
-}
\ No newline at end of file
+}
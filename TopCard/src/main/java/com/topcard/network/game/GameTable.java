@@ -0,0 +1,278 @@
+package com.topcard.network.game;
+
+import com.topcard.domain.Player;
+import com.topcard.network.protocol.EncodedMessage;
+import com.topcard.service.game.IGameService;
+import com.topcard.util.LatencyHistogram;
+import com.topcard.util.MetricsRegistry;
+import com.topcard.util.RandomStreams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.random.RandomGenerator;
+
+/**
+ * One game table on the server: its seated players, their connections, its own game service and its lifecycle.
+ * Tables are independent, so rounds on different tables run in parallel.
+ */
+public class GameTable {
+
+    /**
+     * Lifecycle of a table. Players can join while it is WAITING or in COUNTDOWN.
+     */
+    public enum State { WAITING, COUNTDOWN, IN_PROGRESS }
+
+    public static final int DEFAULT_REPLAY_BUFFER_SIZE = 64;
+    private static final LatencyHistogram SEND_ALL_TIMES = MetricsRegistry.getDefault().histogram("game.sendAll");
+
+    private final int id;
+    private final int capacity;
+    private final List<Player> players = new CopyOnWriteArrayList<>();
+    private final List<ClientConnection> connections = new CopyOnWriteArrayList<>();
+
+    private volatile State state = State.WAITING;
+    private int countdown; // Numbers each countdown, so a late timer cannot start a later one
+    private ScheduledFuture<?> startDeadline;
+    private IGameService gameService;
+    private List<String> lastRoster = List.of(); // Usernames by seat in the last round
+    private final ReplayBuffer replay;
+    private final RandomGenerator random; // This table's own stream; round seeds are drawn from it
+    private long shoeSeed; // Seed of the round that last shuffled the table's shoe
+
+    public GameTable(int id, int capacity) {
+        this(id, capacity, DEFAULT_REPLAY_BUFFER_SIZE);
+    }
+
+    public GameTable(int id, int capacity, int replayBufferSize) {
+        this(id, capacity, replayBufferSize, RandomStreams.newRoot());
+    }
+
+    /**
+     * @param random the table's random stream, split off the server's root stream
+     */
+    public GameTable(int id, int capacity, int replayBufferSize, RandomGenerator random) {
+        this.id = id;
+        this.capacity = capacity;
+        this.replay = new ReplayBuffer(replayBufferSize);
+        this.random = random;
+    }
+
+    /**
+     * Draws the seed the next round shuffles with, if its shoe needs shuffling.
+     */
+    public synchronized long nextRoundSeed() {
+        return random.nextLong();
+    }
+
+    /**
+     * Records where a round was dealt from. A shoe shuffled with RandomStreams.forSeed of the returned seed, with
+     * shoeOffset cards dealt off it, is where the round began.
+     *
+     * @param seed the round's seed
+     * @param shoeOffset cards dealt since the shoe's last shuffle when the round began, 0 if the round shuffled it
+     * @return the seed the shoe was last shuffled with
+     */
+    public synchronized long recordShoe(long seed, int shoeOffset) {
+        if (shoeOffset == 0) {
+            shoeSeed = seed;
+        }
+        return shoeSeed;
+    }
+
+    /**
+     * Seats a player if the table is open.
+     *
+     * @return true if the player was seated
+     */
+    public synchronized boolean seat(Player player, ClientConnection connection) {
+        if (!isOpen()) {
+            return false;
+        }
+        players.add(player);
+        connections.add(connection);
+        return true;
+    }
+
+    /**
+     * Removes the player of the given connection from the table.
+     *
+     * @return true if the connection was seated here
+     */
+    public synchronized boolean leave(ClientConnection connection) {
+        if (connections.remove(connection)) {
+            players.remove(connection.getPlayer());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Starts the lobby countdown if the table is waiting.
+     *
+     * @return true if this call started the countdown
+     */
+    public synchronized boolean startCountdown() {
+        if (state == State.WAITING) {
+            state = State.COUNTDOWN;
+            countdown++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Remembers the timer that ends the current countdown, so starting the round early cancels it.
+     * A deadline that arrives after the countdown is over is cancelled at once.
+     */
+    public synchronized void setStartDeadline(ScheduledFuture<?> deadline) {
+        if (state != State.COUNTDOWN) {
+            deadline.cancel(false);
+            return;
+        }
+        if (startDeadline != null) {
+            startDeadline.cancel(false);
+        }
+        startDeadline = deadline;
+    }
+
+    /**
+     * Closes the table to new players and returns the players for the round.
+     *
+     * @return a snapshot of the seated players, or null if the countdown was not running or nobody is seated
+     */
+    public synchronized List<Player> startRound() {
+        return startRound(countdown);
+    }
+
+    /**
+     * Starts the round if the given countdown is still the one running.
+     *
+     * @param countdown the countdown number from {@link #getCountdown()} when the start was requested
+     * @return a snapshot of the seated players, or null if that countdown is not running or nobody is seated
+     */
+    public synchronized List<Player> startRound(int countdown) {
+        if (state != State.COUNTDOWN || countdown != this.countdown) {
+            return null;
+        }
+        if (startDeadline != null) {
+            startDeadline.cancel(false);
+            startDeadline = null;
+        }
+        if (players.isEmpty()) {
+            state = State.WAITING;
+            return null;
+        }
+        state = State.IN_PROGRESS;
+        return new ArrayList<>(players);
+    }
+
+    /**
+     * Records who sits where in the coming round.
+     *
+     * @return true if the seating differs from the last round, so clients need the new roster
+     */
+    public synchronized boolean updateRoster(List<Player> roundPlayers) {
+        List<String> roster = new ArrayList<>(roundPlayers.size());
+        for (Player player : roundPlayers) {
+            roster.add(player.getUsername());
+        }
+        if (roster.equals(lastRoster)) {
+            return false;
+        }
+        lastRoster = roster;
+        return true;
+    }
+
+    /**
+     * Reopens the table so seated players can start another round and new players can join.
+     */
+    public synchronized void finishRound() {
+        state = State.WAITING;
+    }
+
+    /**
+     * Broadcasts a message to every client seated at this table, encoding it once per wire format.
+     * The message is numbered with the table's next sequence number (carried as its request id) and kept
+     * for replay, so a client that reconnects can be sent what it missed.
+     *
+     * @return the shared encoding, which reports how much re-encoding the broadcast saved
+     */
+    public synchronized EncodedMessage sendAll(GameMessage message) {
+        long start = System.nanoTime();
+        EncodedMessage encoded = new EncodedMessage(new GameMessage(message.getType(), message.getPayload(), replay.nextSequence()));
+        replay.add(encoded);
+        for (ClientConnection connection : connections) {
+            connection.send(encoded);
+        }
+        SEND_ALL_TIMES.record(System.nanoTime() - start);
+        return encoded;
+    }
+
+    /**
+     * Moves a seat from a lost connection to a new one and sends the new one the acknowledgement followed by
+     * every broadcast after lastSequence. Runs under the table lock, so no broadcast slips in between.
+     *
+     * @return true if the seat was resumed, false if the old connection is not seated here or the missed
+     * broadcasts are no longer buffered
+     */
+    public synchronized boolean resume(ClientConnection lost, ClientConnection resumed, int lastSequence, GameMessage acknowledgement) {
+        int seat = connections.indexOf(lost);
+        List<EncodedMessage> missed = replay.since(lastSequence);
+        if (seat < 0 || missed == null) {
+            return false;
+        }
+        resumed.setPlayer(lost.getPlayer());
+        connections.set(seat, resumed);
+        resumed.send(acknowledgement);
+        for (EncodedMessage message : missed) {
+            resumed.send(message);
+        }
+        return true;
+    }
+
+    public boolean isOpen() {
+        return state != State.IN_PROGRESS && players.size() < capacity;
+    }
+
+    public boolean isFull() {
+        return players.size() >= capacity;
+    }
+
+    public boolean isEmpty() {
+        return players.isEmpty();
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized int getCountdown() {
+        return countdown;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    public List<ClientConnection> getConnections() {
+        return connections;
+    }
+
+    public synchronized IGameService getGameService() {
+        return gameService;
+    }
+
+    public synchronized void setGameService(IGameService gameService) {
+        this.gameService = gameService;
+    }
+}
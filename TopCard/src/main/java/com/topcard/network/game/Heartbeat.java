@@ -0,0 +1,82 @@
+package com.topcard.network.game;
+
+import com.topcard.util.LatencyHistogram;
+
+/**
+ * Heartbeat state of one client connection: the outstanding PING, how many PINGs in a row went unanswered,
+ * and the round-trip times of the answered ones.
+ * Clients that have never answered a PING predate heartbeats and are judged by how long they have been silent.
+ */
+public class Heartbeat {
+
+    private final LatencyHistogram roundTrips = new LatencyHistogram();
+
+    private int sequence;
+    private long sentAtNanos;
+    private boolean awaitingPong;
+    private int missed;
+    private boolean answered;
+    private volatile long lastHeardAt = System.currentTimeMillis();
+    private volatile long lastRoundTripNanos;
+
+    /**
+     * Starts a new PING, counting the previous one as missed if it is still unanswered.
+     *
+     * @return the sequence number to send with the PING
+     */
+    public synchronized int nextPing(long nowNanos) {
+        if (awaitingPong) {
+            missed++;
+        }
+        awaitingPong = true;
+        sentAtNanos = nowNanos;
+        return ++sequence;
+    }
+
+    /**
+     * Records the answer to a PING. Answers to earlier PINGs, or to none, are ignored.
+     *
+     * @return true if the PONG answered the outstanding PING
+     */
+    public synchronized boolean pong(int sequence, long nowNanos) {
+        if (!awaitingPong || sequence != this.sequence) {
+            return false;
+        }
+        lastRoundTripNanos = nowNanos - sentAtNanos;
+        roundTrips.record(lastRoundTripNanos);
+        awaitingPong = false;
+        missed = 0;
+        answered = true;
+        return true;
+    }
+
+    /**
+     * Notes that the client sent something, which proves the connection is alive.
+     */
+    public void heard(long now) {
+        lastHeardAt = now;
+    }
+
+    public synchronized int getMissed() {
+        return missed;
+    }
+
+    /**
+     * @return true once the client has answered a PING, so missed PINGs mean it is gone
+     */
+    public synchronized boolean isAnswering() {
+        return answered;
+    }
+
+    public long getLastHeardAt() {
+        return lastHeardAt;
+    }
+
+    public long getLastRoundTripNanos() {
+        return lastRoundTripNanos;
+    }
+
+    public LatencyHistogram getRoundTrips() {
+        return roundTrips;
+    }
+}
@@ -0,0 +1,126 @@
+package com.topcard.network.game;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Starts table rounds when their lobby countdown ends, or at once when the table fills up.
+ * One timer thread holds the start deadlines of every table, so a waiting lobby costs a queued task
+ * rather than a sleeping thread, and repeated START_GAME requests cost nothing once a countdown runs.
+ * Once the scheduler or the round runner is shut down (the server is draining or stopping), requests that
+ * are still in flight are logged and dropped rather than failing the caller's thread.
+ */
+public class LobbyScheduler {
+
+    private static final Logger logger = LogManager.getLogger(LobbyScheduler.class);
+
+    private final long countdownMs;
+    private final Executor roundRunner;
+    private final BiConsumer<GameTable, Integer> roundStarter;
+    private final ScheduledThreadPoolExecutor timer;
+
+    /**
+     * @param countdownMs how long a table waits for more players after the first START_GAME
+     * @param roundRunner runs the rounds, so a round never holds up the timer thread
+     * @param roundStarter starts the round of a table for the given countdown number
+     */
+    public LobbyScheduler(long countdownMs, Executor roundRunner, BiConsumer<GameTable, Integer> roundStarter) {
+        this.countdownMs = countdownMs;
+        this.roundRunner = roundRunner;
+        this.roundStarter = roundStarter;
+        this.timer = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "lobby-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true); // Tables that fill early do not leave dead deadlines behind
+    }
+
+    /**
+     * Starts the table's countdown unless one is already running.
+     *
+     * @return true if this call started the countdown
+     */
+    public boolean startCountdown(GameTable table) {
+        if (!table.startCountdown()) {
+            return false;
+        }
+        int countdown = table.getCountdown();
+        logger.info("START_GAME received at table " + table.getId() + ". Countdown to launch begins...");
+        try {
+            table.setStartDeadline(timer.schedule(() -> {
+                logger.info("Countdown complete at table " + table.getId() + ". Starting game now.");
+                start(table, countdown);
+            }, countdownMs, TimeUnit.MILLISECONDS));
+        } catch (RejectedExecutionException e) {
+            logger.info("Countdown at table " + table.getId() + " not started: the lobby is shut down.");
+            return false;
+        }
+        if (table.isFull()) {
+            tableFull(table);
+        }
+        return true;
+    }
+
+    /**
+     * Starts the table's round now, without a countdown, unless it is already counting down or playing.
+     */
+    public void startNow(GameTable table) {
+        if (table.startCountdown()) {
+            start(table, table.getCountdown());
+        }
+    }
+
+    /**
+     * Runs a task once on the timer thread after the delay. The task must be short.
+     */
+    public void schedule(Runnable task, long delayMs) {
+        try {
+            timer.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Task not scheduled: the lobby is shut down.");
+        }
+    }
+
+    /**
+     * Runs a task on the timer thread every period until shutdown. The task must be short.
+     */
+    public void schedulePeriodic(Runnable task, long periodMs) {
+        timer.scheduleAtFixedRate(task, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts the table's round now if its countdown is running. Called whenever a player takes the last seat.
+     */
+    public void tableFull(GameTable table) {
+        if (table.getState() == GameTable.State.COUNTDOWN) {
+            logger.info("Table " + table.getId() + " is full. Starting game immediately.");
+            start(table, table.getCountdown());
+        }
+    }
+
+    /**
+     * @return start deadlines and periodic tasks waiting on the timer
+     */
+    public int getPendingCount() {
+        return timer.getQueue().size();
+    }
+
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    private void start(GameTable table, int countdown) {
+        try {
+            roundRunner.execute(() -> roundStarter.accept(table, countdown));
+        } catch (RejectedExecutionException e) {
+            logger.info("Round at table " + table.getId() + " not started: rounds are no longer run.");
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.topcard.network.game;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Waiting queue that groups players of similar points into tables.
+ * <p>
+ * Players wait in buckets of {@code bucketWidth} points. A new player is matched at once with waiting players
+ * in the neighbouring buckets; the search window widens by one bucket on each side every {@code windowGrowthMs}
+ * a player waits, and after {@code maxWaitMs} the player is seated with whoever is in range (the round fills the
+ * rest with bots). An enqueue looks up at most a few buckets, each in O(log n).
+ * </p>
+ */
+public class MatchmakingQueue {
+
+    private static final int WAIT_SAMPLES = 1024;
+
+    private final int tableSize;
+    private final int bucketWidth;
+    private final long windowGrowthMs;
+    private final long maxWaitMs;
+
+    private final TreeMap<Integer, Deque<Ticket>> buckets = new TreeMap<>();
+    private final Map<ClientConnection, Ticket> waiting = new LinkedHashMap<>(); // Arrival order, oldest first
+    private final long[] recentWaits = new long[WAIT_SAMPLES];
+    private long matchedCount;
+
+    private static class Ticket {
+        final ClientConnection connection;
+        final int bucket;
+        final long enqueuedAt;
+
+        Ticket(ClientConnection connection, int bucket, long enqueuedAt) {
+            this.connection = connection;
+            this.bucket = bucket;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    public MatchmakingQueue(int tableSize, int bucketWidth, long windowGrowthMs, long maxWaitMs) {
+        this.tableSize = tableSize;
+        this.bucketWidth = bucketWidth;
+        this.windowGrowthMs = windowGrowthMs;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    /**
+     * Adds the connection's player to the queue and tries to form a table around it.
+     *
+     * @return the connections of a full table including this one, or null if the player waits
+     */
+    public synchronized List<ClientConnection> enqueue(ClientConnection connection, long now) {
+        if (waiting.containsKey(connection)) {
+            return null;
+        }
+        Ticket ticket = new Ticket(connection, Math.floorDiv(connection.getPlayer().getPoints(), bucketWidth), now);
+        waiting.put(connection, ticket);
+        buckets.computeIfAbsent(ticket.bucket, bucket -> new ArrayDeque<>()).addLast(ticket);
+        return match(ticket, now, false);
+    }
+
+    /**
+     * Removes a player who left before being matched.
+     *
+     * @return true if the player was waiting
+     */
+    public synchronized boolean remove(ClientConnection connection) {
+        Ticket ticket = waiting.remove(connection);
+        if (ticket == null) {
+            return false;
+        }
+        removeFromBucket(ticket);
+        return true;
+    }
+
+    /**
+     * Retries matching with the windows widened by waiting time, oldest players first, and releases players
+     * who have waited the maximum time into partial tables.
+     *
+     * @return the tables formed, possibly none
+     */
+    public synchronized List<List<ClientConnection>> sweep(long now) {
+        List<List<ClientConnection>> tables = new ArrayList<>();
+        for (Ticket ticket : new ArrayList<>(waiting.values())) {
+            if (waiting.containsKey(ticket.connection)) { // Not taken by an earlier match in this sweep
+                List<ClientConnection> table = match(ticket, now, now - ticket.enqueuedAt >= maxWaitMs);
+                if (table != null) {
+                    tables.add(table);
+                }
+            }
+        }
+        return tables;
+    }
+
+    /**
+     * Collects players from the anchor's bucket outwards, nearest buckets first and oldest players first.
+     */
+    private List<ClientConnection> match(Ticket anchor, long now, boolean allowPartial) {
+        int window = 1 + (int) ((now - anchor.enqueuedAt) / windowGrowthMs);
+        List<Ticket> group = new ArrayList<>(tableSize);
+        group.add(anchor);
+        for (int distance = 0; distance <= window && group.size() < tableSize; distance++) {
+            collect(anchor, anchor.bucket - distance, group);
+            if (distance > 0) {
+                collect(anchor, anchor.bucket + distance, group);
+            }
+        }
+        if (group.size() < tableSize && !allowPartial) {
+            return null;
+        }
+        List<ClientConnection> table = new ArrayList<>(group.size());
+        for (Ticket ticket : group) {
+            waiting.remove(ticket.connection);
+            removeFromBucket(ticket);
+            recordWait(now - ticket.enqueuedAt);
+            table.add(ticket.connection);
+        }
+        return table;
+    }
+
+    private void collect(Ticket anchor, int bucket, List<Ticket> group) {
+        Deque<Ticket> tickets = buckets.get(bucket);
+        if (tickets == null) {
+            return;
+        }
+        Iterator<Ticket> iterator = tickets.iterator();
+        while (iterator.hasNext() && group.size() < tableSize) {
+            Ticket ticket = iterator.next();
+            if (ticket != anchor) {
+                group.add(ticket);
+            }
+        }
+    }
+
+    private void removeFromBucket(Ticket ticket) {
+        Deque<Ticket> tickets = buckets.get(ticket.bucket);
+        if (tickets != null && tickets.remove(ticket) && tickets.isEmpty()) {
+            buckets.remove(ticket.bucket);
+        }
+    }
+
+    private void recordWait(long waitMs) {
+        recentWaits[(int) (matchedCount++ % WAIT_SAMPLES)] = waitMs;
+    }
+
+    /**
+     * @return players waiting to be matched
+     */
+    public synchronized int getDepth() {
+        return waiting.size();
+    }
+
+    /**
+     * @return players matched into tables since the queue was created
+     */
+    public synchronized long getMatchedCount() {
+        return matchedCount;
+    }
+
+    /**
+     * Returns a percentile of the time matched players waited, over the last {@value #WAIT_SAMPLES} matches.
+     *
+     * @param percentile between 0 and 100, e.g. 50 for the median or 99
+     * @return the wait in milliseconds, or 0 if nobody has been matched yet
+     */
+    public synchronized long getWaitPercentileMs(double percentile) {
+        int samples = (int) Math.min(matchedCount, WAIT_SAMPLES);
+        if (samples == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(recentWaits, samples);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * samples) - 1;
+        return sorted[Math.max(0, Math.min(samples - 1, index))];
+    }
+
+    public synchronized void clear() {
+        buckets.clear();
+        waiting.clear();
+    }
+}
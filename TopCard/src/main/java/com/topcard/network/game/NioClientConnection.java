@@ -0,0 +1,308 @@
+package com.topcard.network.game;
+
+import com.topcard.domain.Player;
+import com.topcard.network.protocol.EncodedMessage;
+import com.topcard.network.protocol.FrameCodec;
+import com.topcard.network.protocol.MessageCodec;
+import com.topcard.util.MetricsRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * State of one non-blocking client connection owned by a {@link GameEventLoop}.
+ * Reads, frame parsing and socket writes happen on the event loop thread; {@link #send(GameMessage)}
+ * may be called from any thread and only enqueues the encoded frame.
+ */
+public class NioClientConnection implements ClientConnection {
+
+    private static final Logger logger = LogManager.getLogger(NioClientConnection.class);
+
+    private static final int INITIAL_READ_BUFFER_SIZE = 4096;
+    private static final int MAX_FRAMES_PER_WRITE = 64;
+    private static final LongAdder BYTES_SENT = MetricsRegistry.getDefault().counter("net.bytesSent");
+
+    private final SocketChannel channel;
+    private final GameEventLoop eventLoop;
+    private final String remoteAddress;
+    private final long connectedAt = System.currentTimeMillis();
+
+    private final OutboundQueue<ByteBuffer> writeQueue;
+    private final AtomicBoolean writeRequested = new AtomicBoolean(false);
+
+    // Accessed only by the event loop thread
+    private SelectionKey key;
+    private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER_SIZE);
+    private ByteBuffer[] writeBatch = new ByteBuffer[0]; // Frames taken from the queue and not fully written yet
+    private int writeBatchStart;
+    private int requiredCapacity;
+    private CompletableFuture<Void> lastTask = CompletableFuture.completedFuture(null);
+
+    private volatile MessageCodec codec; // Known once the preface has been read
+    private volatile boolean joinReceived = false;
+    private volatile boolean closed = false;
+    private boolean closeWhenFlushed; // Event loop thread only
+    private volatile Player player;
+
+    public NioClientConnection(SocketChannel channel, GameEventLoop eventLoop, OutboundQueue<ByteBuffer> writeQueue) {
+        this.channel = channel;
+        this.eventLoop = eventLoop;
+        this.writeQueue = writeQueue;
+        String address;
+        try {
+            address = String.valueOf(channel.getRemoteAddress());
+        } catch (IOException e) {
+            address = "unknown";
+        }
+        this.remoteAddress = address;
+    }
+
+    /**
+     * Encodes the message and queues it for the event loop to write. Never blocks on the socket.
+     */
+    @Override
+    public void send(GameMessage message) {
+        send(new EncodedMessage(message));
+    }
+
+    /**
+     * Queues the message's shared frame for the event loop to write, encoding it only if no other recipient has.
+     */
+    @Override
+    public void send(EncodedMessage message) {
+        if (closed) {
+            return;
+        }
+        if (codec == null) {
+            logger.warn("Cannot send " + message.getMessage().getType() + " to " + remoteAddress + " before the protocol preface.");
+            return;
+        }
+        ByteBuffer frame;
+        try {
+            frame = message.frameBuffer(codec);
+        } catch (IOException e) {
+            logger.error("Failed to encode message " + message.getMessage().getType() + ": " + e.getMessage());
+            return;
+        }
+        switch (writeQueue.offer(frame)) {
+            case DROPPED -> {
+                logger.warn("Outbound queue full for " + remoteAddress + ". Dropped " + message.getMessage().getType() + ".");
+                return;
+            }
+            case OVERFLOW -> {
+                logger.warn("Outbound queue full for " + remoteAddress + ". Disconnecting slow client.");
+                close();
+                return;
+            }
+            default -> { }
+        }
+        if (writeRequested.compareAndSet(false, true)) {
+            eventLoop.execute(this::enableWriteInterest);
+        }
+    }
+
+    /**
+     * Closes the connection on its event loop after every queued frame has been written.
+     */
+    @Override
+    public void closeGracefully() {
+        eventLoop.execute(() -> {
+            closeWhenFlushed = true;
+            enableWriteInterest(); // The next flush that empties the queue closes the connection
+        });
+    }
+
+    boolean isCloseWhenFlushed() {
+        return closeWhenFlushed;
+    }
+
+    /**
+     * Closes the connection on its event loop.
+     */
+    @Override
+    public void close() {
+        eventLoop.execute(() -> eventLoop.closeConnection(this));
+    }
+
+    /**
+     * Reads what is available on the channel and returns every complete message.
+     *
+     * @throws IOException if the peer closed the connection or sent an invalid preface or frame
+     */
+    List<GameMessage> readMessages() throws IOException {
+        if (channel.read(readBuffer) < 0) {
+            throw new EOFException("Client closed the connection.");
+        }
+        List<GameMessage> messages = new ArrayList<>(1);
+        readBuffer.flip();
+        try {
+            if (codec == null) {
+                if (readBuffer.remaining() < FrameCodec.PREFACE_LENGTH) {
+                    return messages;
+                }
+                byte[] preface = new byte[FrameCodec.PREFACE_LENGTH];
+                readBuffer.get(preface);
+                codec = FrameCodec.readPreface(preface);
+            }
+            while (readBuffer.remaining() >= FrameCodec.LENGTH_FIELD_SIZE) {
+                int length = readBuffer.getInt(readBuffer.position());
+                FrameCodec.checkFrameLength(length);
+                int frameSize = FrameCodec.LENGTH_FIELD_SIZE + length;
+                if (readBuffer.remaining() < frameSize) {
+                    requiredCapacity = frameSize;
+                    break;
+                }
+                int payloadStart = readBuffer.position() + FrameCodec.LENGTH_FIELD_SIZE;
+                messages.add(codec.decode(readBuffer.array(), readBuffer.arrayOffset() + payloadStart, length));
+                readBuffer.position(payloadStart + length);
+            }
+        } finally {
+            readBuffer.compact();
+        }
+        if (requiredCapacity > readBuffer.capacity()) { // Grow so the pending frame fits in one buffer
+            ByteBuffer larger = ByteBuffer.allocate(requiredCapacity);
+            readBuffer.flip();
+            larger.put(readBuffer);
+            readBuffer = larger;
+        }
+        requiredCapacity = 0;
+        return messages;
+    }
+
+    /**
+     * Writes queued frames until the queue is empty or the socket buffer is full.
+     * Frames are written in batches with one gathering write each, so a burst costs one system call.
+     *
+     * @return true if every queued frame was written
+     */
+    boolean flushWrites() throws IOException {
+        while (true) {
+            if (writeBatchStart == writeBatch.length && !takeWriteBatch()) {
+                break;
+            }
+            BYTES_SENT.add(channel.write(writeBatch, writeBatchStart, writeBatch.length - writeBatchStart));
+            while (writeBatchStart < writeBatch.length && !writeBatch[writeBatchStart].hasRemaining()) {
+                writeBatch[writeBatchStart++] = null;
+            }
+            if (writeBatchStart < writeBatch.length) {
+                return false; // Socket buffer full, wait for OP_WRITE
+            }
+        }
+        writeRequested.set(false);
+        if (!writeQueue.isEmpty() && writeRequested.compareAndSet(false, true)) {
+            return false; // A sender raced with the drain
+        }
+        return true;
+    }
+
+    /**
+     * Runs the task on the executor after every task previously dispatched for this connection,
+     * so messages from one client are handled in arrival order. Called only by the event loop thread.
+     */
+    void dispatch(Runnable task, Executor executor) {
+        lastTask = lastTask.thenRunAsync(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.error("Error handling message from " + remoteAddress + ": " + e.getMessage(), e);
+            }
+        }, executor);
+    }
+
+    private void enableWriteInterest() {
+        if (key != null && key.isValid()) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        }
+    }
+
+    void closeChannel() {
+        closed = true;
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Error closing channel for " + remoteAddress + ": " + e.getMessage());
+        }
+        writeQueue.clear();
+        writeBatch = new ByteBuffer[0];
+        writeBatchStart = 0;
+    }
+
+    /**
+     * Moves up to MAX_FRAMES_PER_WRITE queued frames into the write batch.
+     *
+     * @return false if the queue was empty
+     */
+    private boolean takeWriteBatch() {
+        int count = Math.min(writeQueue.size(), MAX_FRAMES_PER_WRITE);
+        ByteBuffer[] batch = new ByteBuffer[Math.max(count, 1)];
+        int taken = 0;
+        ByteBuffer frame;
+        while (taken < batch.length && (frame = writeQueue.poll()) != null) {
+            batch[taken++] = frame;
+        }
+        if (taken == 0) {
+            return false;
+        }
+        writeBatch = taken == batch.length ? batch : Arrays.copyOf(batch, taken);
+        writeBatchStart = 0;
+        return true;
+    }
+
+    void setKey(SelectionKey key) {
+        this.key = key;
+    }
+
+    SelectionKey getKey() {
+        return key;
+    }
+
+    void markJoinReceived() {
+        this.joinReceived = true;
+    }
+
+    void resetJoinReceived() {
+        this.joinReceived = false;
+    }
+
+    boolean isJoinReceived() {
+        return joinReceived;
+    }
+
+    long getConnectedAt() {
+        return connectedAt;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public Player getPlayer() {
+        return player;
+    }
+
+    @Override
+    public void setPlayer(Player player) {
+        this.player = player;
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+}
@@ -0,0 +1,83 @@
+package com.topcard.network.game;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.Executor;
+
+/**
+ * Non-blocking transport for {@link GameServer}.
+ * The accepting thread only accepts sockets and hands them round-robin to a small set of
+ * {@link GameEventLoop} threads, so a slow or silent client never holds up new connections.
+ */
+public class NioGameServer {
+
+    private static final Logger logger = LogManager.getLogger(NioGameServer.class);
+
+    private static final int ACCEPT_BACKLOG = 1024;
+
+    private final int port;
+    private final GameEventLoop[] eventLoops;
+
+    private ServerSocketChannel serverChannel;
+    private volatile boolean running = false;
+    private int nextLoop = 0;
+
+    public NioGameServer(GameServer server, int port, int eventLoopThreads, Executor dispatcher, long joinTimeoutMs) throws IOException {
+        this.port = port;
+        this.eventLoops = new GameEventLoop[Math.max(1, eventLoopThreads)];
+        for (int i = 0; i < eventLoops.length; i++) {
+            eventLoops[i] = new GameEventLoop(server, dispatcher, joinTimeoutMs);
+        }
+    }
+
+    /**
+     * Binds the port, starts the event loops and accepts connections until {@link #stop()} is called.
+     */
+    public void start() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), ACCEPT_BACKLOG);
+        running = true;
+        for (int i = 0; i < eventLoops.length; i++) {
+            Thread thread = new Thread(eventLoops[i], "game-event-loop-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        logger.info("TopCard Server started on port " + port + " (NIO, " + eventLoops.length + " event loops)");
+
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                eventLoops[nextLoop].register(channel);
+                nextLoop = (nextLoop + 1) % eventLoops.length;
+            } catch (AsynchronousCloseException e) {
+                logger.info("Game Server socket closed, exiting accept loop cleanly.");
+                break;
+            } catch (IOException e) {
+                if (!running) {
+                    break;
+                }
+                logger.error("Error accepting client: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Closes the listening channel and stops every event loop.
+     */
+    public void stop() throws IOException {
+        running = false;
+        if (serverChannel != null && serverChannel.isOpen()) {
+            serverChannel.close();
+            logger.info("Game Server socket closed.");
+        }
+        for (GameEventLoop eventLoop : eventLoops) {
+            eventLoop.stop();
+        }
+    }
+}
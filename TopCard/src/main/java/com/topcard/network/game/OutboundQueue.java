@@ -0,0 +1,106 @@
+package com.topcard.network.game;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Messages waiting to be written to one client. Senders only enqueue, so a client with a full
+ * TCP window slows down nobody but itself; what happens once it falls {@code capacity} messages
+ * behind is decided by the {@link SlowConsumerPolicy}.
+ *
+ * @param <T> the queued item, a message or an encoded frame
+ */
+public class OutboundQueue<T> {
+
+    /**
+     * What to do with a client whose outbound queue is full.
+     */
+    public enum SlowConsumerPolicy {
+        /** Discard the new message and keep the connection. */
+        DROP,
+        /** Close the connection; the client can rejoin. */
+        DISCONNECT,
+        /** Keep queueing past the capacity, trading memory for delivery. */
+        BUFFER
+    }
+
+    /**
+     * Outcome of {@link #offer(Object)}.
+     */
+    public enum OfferResult { QUEUED, DROPPED, OVERFLOW }
+
+    private final Queue<T> items = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final int capacity;
+    private final SlowConsumerPolicy policy;
+
+    public OutboundQueue(int capacity, SlowConsumerPolicy policy) {
+        this.capacity = capacity;
+        this.policy = policy;
+    }
+
+    /**
+     * Queues an item unless the queue is full and the policy says otherwise.
+     *
+     * @return QUEUED if the item was queued, DROPPED if it was discarded,
+     *         or OVERFLOW if the queue is full and the connection should be closed
+     */
+    public OfferResult offer(T item) {
+        if (size.incrementAndGet() > capacity && policy != SlowConsumerPolicy.BUFFER) {
+            size.decrementAndGet();
+            if (policy == SlowConsumerPolicy.DROP) {
+                dropped.incrementAndGet();
+                return OfferResult.DROPPED;
+            }
+            return OfferResult.OVERFLOW;
+        }
+        items.add(item);
+        return OfferResult.QUEUED;
+    }
+
+    /**
+     * Returns the oldest item without removing it, or null if the queue is empty.
+     */
+    public T peek() {
+        return items.peek();
+    }
+
+    /**
+     * Removes and returns the oldest item, or null if the queue is empty.
+     */
+    public T poll() {
+        T item = items.poll();
+        if (item != null) {
+            size.decrementAndGet();
+        }
+        return item;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    public void clear() {
+        while (poll() != null) {
+            // Drain so the size stays consistent with concurrent offers
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * @return how many messages were discarded under the DROP policy
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public SlowConsumerPolicy getPolicy() {
+        return policy;
+    }
+}
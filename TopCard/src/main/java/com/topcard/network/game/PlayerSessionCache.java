@@ -0,0 +1,107 @@
+package com.topcard.network.game;
+
+import com.topcard.domain.Player;
+import com.topcard.network.authentication.SessionTicket;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory state of players who joined with a valid session ticket, kept until the ticket expires.
+ * The ticket is trusted for identity only. Its points were taken at login and may be out of date (points won
+ * on another node, or offline), so they are only shown until the player's first round on this node, which
+ * reads the stored points once; later rounds keep them in memory. Rounds store wins and losses as deltas, so
+ * a stale total is never written back. A player who leaves and rejoins on the same ticket gets back the
+ * points of their last round; a newer ticket (a fresh login) replaces the cached state.
+ */
+public class PlayerSessionCache {
+
+    private static final long SWEEP_INTERVAL_MS = 60 * 1000;
+
+    private final Map<Integer, Session> sessions = new ConcurrentHashMap<>();
+    private volatile long lastSweep = System.currentTimeMillis();
+
+    private static class Session {
+        final Player player;
+        final long issuedAt;
+        final long expiresAt;
+        volatile boolean pointsLoaded; // Stored points read on this node
+
+        Session(Player player, SessionTicket ticket) {
+            this.player = player;
+            this.issuedAt = ticket.getIssuedAt();
+            this.expiresAt = ticket.getExpiresAt();
+        }
+    }
+
+    /**
+     * Returns the player for a verified ticket, reusing the cached player while the ticket's session lives.
+     * Identity comes from the ticket; only the display name is taken from the JOIN payload.
+     */
+    public Player resolve(SessionTicket ticket, Player joinPlayer) {
+        long now = System.currentTimeMillis();
+        sweepIfDue(now);
+        return sessions.compute(ticket.getPlayerId(), (id, current) ->
+                current != null && current.expiresAt > now && current.issuedAt >= ticket.getIssuedAt()
+                        ? current
+                        : new Session(newPlayer(ticket, joinPlayer), ticket)).player;
+    }
+
+    /**
+     * @return true if the player is the cached session player, so its id is verified
+     */
+    public boolean isVerified(Player player) {
+        Session session = sessions.get(player.getPlayerId());
+        return session != null && session.player == player;
+    }
+
+    /**
+     * @return true if the player is the cached session player and its stored points have been read on this node
+     */
+    public boolean isCurrent(Player player) {
+        Session session = sessions.get(player.getPlayerId());
+        return session != null && session.player == player && session.pointsLoaded;
+    }
+
+    /**
+     * Records that the stored points of the session players among these have been read on this node.
+     */
+    public void markCurrent(List<Player> players) {
+        for (Player player : players) {
+            Session session = sessions.get(player.getPlayerId());
+            if (session != null && session.player == player) {
+                session.pointsLoaded = true;
+            }
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public void clear() {
+        sessions.clear();
+    }
+
+    private Player newPlayer(SessionTicket ticket, Player joinPlayer) {
+        Player player = new Player();
+        player.setPlayerId(ticket.getPlayerId());
+        player.setUsername(ticket.getUsername());
+        player.setPoints(ticket.getPoints()); // Shown until the first round here reads the stored points
+        player.setFirstName(joinPlayer.getFirstName());
+        player.setLastName(joinPlayer.getLastName());
+        return player;
+    }
+
+    /**
+     * Drops expired sessions at most once a minute, so the cache stays bounded by the players active within one ticket lifetime.
+     */
+    private void sweepIfDue(long now) {
+        if (now - lastSweep < SWEEP_INTERVAL_MS) {
+            return;
+        }
+        lastSweep = now;
+        sessions.values().removeIf(session -> session.expiresAt <= now);
+    }
+}
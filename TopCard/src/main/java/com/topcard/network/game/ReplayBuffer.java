@@ -0,0 +1,58 @@
+package com.topcard.network.game;
+
+import com.topcard.network.protocol.EncodedMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ring buffer of a table's most recent broadcasts, indexed by sequence number, so a client that
+ * reconnects can be sent exactly the messages it missed. Not thread safe; the owning table guards it.
+ */
+public class ReplayBuffer {
+
+    private final EncodedMessage[] messages;
+    private int lastSequence; // Sequence number of the newest message, 0 before the first
+
+    public ReplayBuffer(int capacity) {
+        this.messages = new EncodedMessage[Math.max(1, capacity)];
+    }
+
+    /**
+     * Stores the next broadcast, overwriting the oldest once the buffer is full.
+     *
+     * @return the message's sequence number
+     */
+    public int add(EncodedMessage message) {
+        lastSequence++;
+        messages[lastSequence % messages.length] = message;
+        return lastSequence;
+    }
+
+    /**
+     * Returns the sequence number the next message will get.
+     */
+    public int nextSequence() {
+        return lastSequence + 1;
+    }
+
+    /**
+     * Returns the messages after the given sequence number, oldest first.
+     *
+     * @return the missed messages, or null if some were already overwritten or the sequence number is unknown
+     */
+    public List<EncodedMessage> since(int sequence) {
+        if (sequence < 0 || sequence > lastSequence || lastSequence - sequence > messages.length) {
+            return null;
+        }
+        List<EncodedMessage> missed = new ArrayList<>(lastSequence - sequence);
+        for (int next = sequence + 1; next <= lastSequence; next++) {
+            missed.add(messages[next % messages.length]);
+        }
+        return missed;
+    }
+
+    public int getLastSequence() {
+        return lastSequence;
+    }
+}
@@ -0,0 +1,122 @@
+package com.topcard.network.game;
+
+import com.topcard.network.protocol.MessageChannel;
+import com.topcard.network.protocol.WireProtocol;
+import com.topcard.network.router.NodeAuthenticator;
+import com.topcard.network.router.NodeStatus;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.function.Supplier;
+
+/**
+ * A game node's heartbeat connection to the lobby router. Sends the node's status every interval, and at once
+ * when asked (such as when the node starts draining), reconnecting on the next beat if the router goes away.
+ * On each new connection the node answers the router's challenge with the cluster secret before its heartbeats count.
+ */
+public class RouterLink {
+
+    private static final Logger logger = LogManager.getLogger(RouterLink.class);
+
+    private static final int CHALLENGE_TIMEOUT_MS = 5000;
+
+    private final String routerHost;
+    private final int routerPort;
+    private final long intervalMs;
+    private final NodeAuthenticator authenticator;
+    private final Supplier<NodeStatus> status;
+    private MessageChannel channel; // Guarded by this
+    private Thread thread;
+    private volatile boolean running;
+
+    /**
+     * @param router the router as host:port
+     * @param authenticator answers the router's challenge with the cluster secret
+     * @param status reads the node's current status
+     */
+    public RouterLink(String router, long intervalMs, NodeAuthenticator authenticator, Supplier<NodeStatus> status) {
+        int colon = router.lastIndexOf(':');
+        this.routerHost = router.substring(0, colon);
+        this.routerPort = Integer.parseInt(router.substring(colon + 1));
+        this.intervalMs = intervalMs;
+        this.authenticator = authenticator;
+        this.status = status;
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this::beat, "router-link");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the heartbeat. The router drops the node when the connection closes.
+     */
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        disconnect();
+    }
+
+    private void beat() {
+        while (running) {
+            report();
+            try {
+                Thread.sleep(intervalMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sends the node's status now, connecting first if needed. Failures are logged and retried on the next beat.
+     */
+    public synchronized void report() {
+        if (!running) {
+            return;
+        }
+        try {
+            if (channel == null) {
+                connect();
+                return; // The status that opened the connection is this beat's report
+            }
+            channel.send(new GameMessage("NODE_STATUS", status.get()));
+        } catch (IOException e) {
+            logger.warn("Could not report to lobby router " + routerHost + ":" + routerPort + ": " + e.getMessage());
+            disconnect();
+        }
+    }
+
+    /**
+     * Opens the connection with the node's status and answers the router's challenge for it.
+     */
+    private void connect() throws IOException {
+        Socket socket = new Socket(routerHost, routerPort);
+        channel = WireProtocol.BINARY.open(socket);
+        NodeStatus current = status.get();
+        channel.send(new GameMessage("NODE_STATUS", current));
+        socket.setSoTimeout(CHALLENGE_TIMEOUT_MS);
+        GameMessage challenge = channel.receive();
+        socket.setSoTimeout(0); // The router sends nothing else
+        if (!"NODE_CHALLENGE".equals(challenge.getType()) || !(challenge.getPayload() instanceof String nonce)) {
+            throw new IOException("Lobby router sent " + challenge.getType() + " instead of a challenge");
+        }
+        channel.send(new GameMessage("NODE_AUTH", authenticator.respond(nonce, current.address())));
+        logger.info("Connected to lobby router " + routerHost + ":" + routerPort);
+    }
+
+    private synchronized void disconnect() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {}
+            channel = null;
+        }
+    }
+}
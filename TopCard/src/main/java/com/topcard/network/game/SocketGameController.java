@@ -1,6 +1,8 @@
 package com.topcard.network.game;
 
 import com.topcard.domain.Player;
+import com.topcard.network.protocol.MessageChannel;
+import com.topcard.network.protocol.WireProtocol;
 import com.topcard.presentation.common.Constants;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -17,8 +19,7 @@ import java.net.Socket;
 public class SocketGameController {
 
     private static final Logger logger = LogManager.getLogger(SocketGameController.class);
-    private ObjectOutputStream out;
-    private ObjectInputStream in;
+    private MessageChannel channel;
     Socket socket;
 
     private final Player localPlayer;
@@ -26,29 +27,28 @@ public class SocketGameController {
     public SocketGameController(Player player, String host) throws IOException {
         this.localPlayer = player;
         this.socket = new Socket(host, Constants.GAME_PORT);
-        this.out = new ObjectOutputStream(socket.getOutputStream());
-        this.in = new ObjectInputStream(socket.getInputStream());
+        this.channel = WireProtocol.fromConfig().open(socket);
         sendJoinRequest();
         listen();
     }
 
     private void sendJoinRequest() throws IOException {
         GameMessage join = new GameMessage("JOIN", localPlayer);
-        out.writeObject(join);
-        out.flush();
+        channel.send(join);
     }
 
     private void listen() {
         new Thread(() -> {
             try {
                 while (true) {
-                    GameMessage msg = (GameMessage) in.readObject();
+                    GameMessage msg = channel.receive();
                     switch (msg.getType()) {
-                        case "HANDS", "POINTS_UPDATED", "WINNERS" -> {
+                        case "ROUND_RESULT", "HANDS", "POINTS_UPDATED", "WINNERS" -> {
                             // These message types are processed by the game logic.
                             // The controller acknowledges them to maintain compatibility but does not act on them directly.
                             // No action or print messages needed here.
                         }
+                        case "PING" -> channel.send(msg.reply("PONG", null)); // Heartbeat
                         default -> logger.error("Unrecognized message: " + msg.getType());
                     }
                 }
@@ -63,13 +63,9 @@ public class SocketGameController {
      */
     public void disconnect() {
         try {
-            if (out != null) {
-                out.close();
-                out = null;
-            }
-            if (in != null) {
-                in.close();
-                in = null;
+            if (channel != null) {
+                channel.close();
+                channel = null;
             }
             if (socket != null && !socket.isClosed()) {
                 socket.close();
@@ -0,0 +1,131 @@
+package com.topcard.network.game;
+
+import com.topcard.domain.Player;
+import com.topcard.network.protocol.EncodedMessage;
+import com.topcard.network.protocol.MessageChannel;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A blocking client connection over any {@link MessageChannel}, read by a {@link GameServerHandler}.
+ * {@link #send(GameMessage)} only enqueues; a writer task on the writer executor drains the queue and
+ * flushes once per batch, so a slow client never blocks the thread broadcasting to it.
+ */
+public class StreamClientConnection implements ClientConnection {
+
+    private static final Logger logger = LogManager.getLogger(StreamClientConnection.class);
+
+    private final Socket socket;
+    private final MessageChannel channel;
+    private final OutboundQueue<EncodedMessage> outbound;
+    private final Executor writer;
+    private final AtomicBoolean writerScheduled = new AtomicBoolean(false);
+    private volatile boolean closed = false;
+    private volatile boolean closeWhenDrained = false;
+    private volatile Player player;
+
+    public StreamClientConnection(Socket socket, MessageChannel channel, OutboundQueue<EncodedMessage> outbound, Executor writer) {
+        this.socket = socket;
+        this.channel = channel;
+        this.outbound = outbound;
+        this.writer = writer;
+    }
+
+    @Override
+    public void send(GameMessage message) {
+        send(new EncodedMessage(message));
+    }
+
+    @Override
+    public void send(EncodedMessage message) {
+        if (closed) {
+            return;
+        }
+        switch (outbound.offer(message)) {
+            case DROPPED -> logger.warn("Outbound queue full for " + getRemoteAddress() + ". Dropped " + message.getMessage().getType() + ".");
+            case OVERFLOW -> {
+                logger.warn("Outbound queue full for " + getRemoteAddress() + ". Disconnecting slow client.");
+                close();
+            }
+            case QUEUED -> {
+                if (writerScheduled.compareAndSet(false, true)) {
+                    writer.execute(this::drain);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes every queued message and flushes once. Runs on the writer executor, one task per connection at a time.
+     */
+    private void drain() {
+        try {
+            do {
+                EncodedMessage message;
+                while ((message = outbound.poll()) != null) {
+                    channel.write(message);
+                }
+                channel.flush();
+                writerScheduled.set(false);
+            } while (!outbound.isEmpty() && writerScheduled.compareAndSet(false, true)); // A sender raced with the drain
+            if (closeWhenDrained) {
+                close();
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                logger.error("Failed to send message to client " + getRemoteAddress() + ": " + e.getMessage());
+                close();
+            }
+        }
+    }
+
+    /**
+     * Blocks until the next message arrives from the client.
+     */
+    public GameMessage receive() throws IOException {
+        return channel.receive();
+    }
+
+    @Override
+    public void closeGracefully() {
+        closeWhenDrained = true;
+        if (writerScheduled.compareAndSet(false, true)) { // Otherwise the running drain closes when done
+            writer.execute(this::drain);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        outbound.clear();
+        try { // Closes the streams and the socket; a blocked reader or writer fails and exits
+            if (channel != null) channel.close();
+            else if (socket != null) socket.close();
+        } catch (IOException e) {
+            logger.error("Error closing client streams: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return socket != null ? String.valueOf(socket.getInetAddress()) : "unknown";
+    }
+
+    @Override
+    public Player getPlayer() {
+        return player;
+    }
+
+    @Override
+    public void setPlayer(Player player) {
+        this.player = player;
+    }
+}
@@ -0,0 +1,169 @@
+package com.topcard.network.game;
+
+import com.topcard.domain.Player;
+import com.topcard.util.RandomStreams;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+/**
+ * Keeps every table on the server and seats joining players at an open table,
+ * opening a new one when all existing tables are full or playing.
+ * Each new table gets its own random stream, split off the registry's root stream.
+ */
+public class TableRegistry {
+
+    private static final Logger logger = LogManager.getLogger(TableRegistry.class);
+
+    private final int tableCapacity;
+    private final int maxTables;
+    private final int replayBufferSize;
+    private final Map<Integer, GameTable> tables = new ConcurrentHashMap<>();
+    private final Map<String, GameTable> tablesByUsername = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTableId = new AtomicInteger(1);
+    private final SplittableGenerator random = RandomStreams.newRoot(); // Split once per table; guarded by this
+
+    public TableRegistry(int tableCapacity, int maxTables) {
+        this(tableCapacity, maxTables, GameTable.DEFAULT_REPLAY_BUFFER_SIZE);
+    }
+
+    public TableRegistry(int tableCapacity, int maxTables, int replayBufferSize) {
+        this.tableCapacity = tableCapacity;
+        this.maxTables = maxTables;
+        this.replayBufferSize = replayBufferSize;
+    }
+
+    /**
+     * Seats the player at the fullest open table, or at a new table if none is open.
+     *
+     * @return the table the player joined, or null if the player is already seated or the server is at its table limit
+     */
+    public synchronized GameTable seat(Player player, ClientConnection connection) {
+        if (tablesByUsername.containsKey(player.getUsername())) {
+            logger.warn("Player " + player.getUsername() + " attempted to join twice. Connection rejected.");
+            return null;
+        }
+        GameTable table = findOpenTable();
+        if (table == null) {
+            if (tables.size() >= maxTables) {
+                logger.warn("All " + maxTables + " tables are in use. Player " + player.getUsername() + " rejected.");
+                return null;
+            }
+            table = new GameTable(nextTableId.getAndIncrement(), tableCapacity, replayBufferSize, random.split());
+            tables.put(table.getId(), table);
+            logger.info("Opened table " + table.getId());
+        }
+        if (!table.seat(player, connection)) {
+            return null; // Table started its round in between; the client may retry
+        }
+        tablesByUsername.put(player.getUsername(), table);
+        return table;
+    }
+
+    /**
+     * Opens a new table for a group formed by matchmaking and seats all of its players.
+     *
+     * @return the new table, or null if the server is at its table limit or a player is already seated
+     */
+    public synchronized GameTable seatTogether(List<ClientConnection> group) {
+        if (tables.size() >= maxTables) {
+            logger.warn("All " + maxTables + " tables are in use. Matched group of " + group.size() + " must wait.");
+            return null;
+        }
+        for (ClientConnection connection : group) {
+            if (tablesByUsername.containsKey(connection.getPlayer().getUsername())) {
+                logger.warn("Player " + connection.getPlayer().getUsername() + " is already seated. Matched group rejected.");
+                return null;
+            }
+        }
+        GameTable table = new GameTable(nextTableId.getAndIncrement(), tableCapacity, replayBufferSize, random.split());
+        for (ClientConnection connection : group) {
+            table.seat(connection.getPlayer(), connection);
+            tablesByUsername.put(connection.getPlayer().getUsername(), table);
+        }
+        tables.put(table.getId(), table);
+        logger.info("Opened table " + table.getId() + " for a matched group of " + group.size());
+        return table;
+    }
+
+    /**
+     * Unseats everyone at the table and drops it, so its players can be matched again.
+     */
+    public synchronized void disband(GameTable table) {
+        for (ClientConnection connection : table.getConnections()) {
+            leave(connection);
+        }
+        tables.remove(table.getId());
+    }
+
+    /**
+     * Removes the connection's player from its table and drops the table once it is empty.
+     *
+     * @return the table the player left, or null if the player was not seated
+     */
+    public synchronized GameTable leave(ClientConnection connection) {
+        Player player = connection.getPlayer();
+        if (player == null) {
+            return null;
+        }
+        GameTable table = tablesByUsername.get(player.getUsername());
+        if (table == null || !table.leave(connection)) {
+            return null;
+        }
+        tablesByUsername.remove(player.getUsername());
+        if (table.isEmpty()) {
+            tables.remove(table.getId());
+            logger.info("Closed empty table " + table.getId());
+        }
+        return table;
+    }
+
+    /**
+     * Returns the table where the player is seated, or null.
+     */
+    public GameTable getTable(Player player) {
+        return player == null || player.getUsername() == null ? null : tablesByUsername.get(player.getUsername());
+    }
+
+    public Collection<GameTable> getTables() {
+        return tables.values();
+    }
+
+    /**
+     * @return free seats at tables still waiting for players
+     */
+    public int getOpenSeats() {
+        int openSeats = 0;
+        for (GameTable table : tables.values()) {
+            if (table.isOpen()) {
+                openSeats += table.getCapacity() - table.getPlayers().size();
+            }
+        }
+        return openSeats;
+    }
+
+    public int getMaxTables() {
+        return maxTables;
+    }
+
+    public synchronized void clear() {
+        tables.clear();
+        tablesByUsername.clear();
+    }
+
+    private GameTable findOpenTable() {
+        GameTable best = null;
+        for (GameTable table : tables.values()) {
+            if (table.isOpen() && (best == null || table.getPlayers().size() > best.getPlayers().size())) {
+                best = table;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,346 @@
+package com.topcard.network.protocol;
+
+import com.topcard.domain.Card;
+import com.topcard.domain.Player;
+import com.topcard.domain.PointsDelta;
+import com.topcard.domain.RoundResult;
+import com.topcard.network.game.GameMessage;
+import com.topcard.network.router.NodeStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of game messages.
+ * <p>
+ * A payload is a one-byte {@link Opcode} (followed by the type name for GENERIC messages), the request id
+ * and one tagged value.
+ * Integers are zigzag varints, strings are a varint length plus UTF-8 bytes, and a card is a single byte
+ * (suit * 13 + rank). Players carry only id, points, username and display name, so entities, class
+ * descriptors and password hashes never go on the wire; the password is sent only inside LOGIN and REGISTER.
+ * A player's session ticket, when present, travels with it.
+ * </p>
+ */
+public class BinaryCodec implements MessageCodec {
+
+    public static final byte ID = 1;
+
+    private static final int NO_CARD = 0xFF;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    // Value tags
+    private static final int NULL = 0;
+    private static final int INT = 1;
+    private static final int STRING = 2;
+    private static final int PLAYER = 3;
+    private static final int PLAYER_LIST = 4;
+    private static final int HANDS = 5;
+    private static final int CREDENTIALS = 6;
+    private static final int REGISTRATION = 7;
+    private static final int SESSION_PLAYER = 8; // A player plus the signed session ticket, for AUTH_SUCCESS and JOIN
+    private static final int POINTS_DELTAS = 9; // (seat, delta, newTotal) per seat, for POINTS_UPDATED
+    private static final int ROUND_RESULT = 10; // Optional roster, hands, deltas and winner seats of one round
+    private static final int NODE_STATUS = 11; // A game node's load, for its heartbeat to the router
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public byte[] encode(GameMessage message) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        Opcode opcode = Opcode.forType(message.getType());
+        out.writeByte(opcode.getCode());
+        if (opcode == Opcode.GENERIC) {
+            writeString(out, message.getType());
+        }
+        writeVarInt(out, message.getRequestId());
+        writeValue(out, message.getPayload(), opcode);
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public GameMessage decode(byte[] data, int offset, int length) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, offset, length));
+        try {
+            int code = in.readUnsignedByte();
+            Opcode opcode = Opcode.forCode(code);
+            if (opcode == null) {
+                throw new IOException("Unknown opcode: " + code);
+            }
+            String type = opcode == Opcode.GENERIC ? readString(in) : opcode.getType();
+            int requestId = readVarInt(in);
+            Object payload = readValue(in);
+            if (in.available() > 0) {
+                throw new IOException("Unexpected " + in.available() + " trailing bytes in " + type + " frame");
+            }
+            return new GameMessage(type, payload, requestId);
+        } catch (EOFException e) {
+            throw new IOException("Truncated binary frame", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeValue(DataOutputStream out, Object value, Opcode opcode) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Integer number) {
+            out.writeByte(INT);
+            writeVarInt(out, number);
+        } else if (value instanceof String text) {
+            out.writeByte(STRING);
+            writeString(out, text);
+        } else if (value instanceof Player player && opcode == Opcode.LOGIN) {
+            out.writeByte(CREDENTIALS);
+            writeString(out, player.getUsername());
+            writeString(out, player.getPassword());
+        } else if (value instanceof Player player && opcode == Opcode.REGISTER) {
+            out.writeByte(REGISTRATION);
+            writeString(out, player.getUsername());
+            writeString(out, player.getPassword());
+            writeString(out, player.getFirstName());
+            writeString(out, player.getLastName());
+            writeVarInt(out, player.getDateOfBirth() == null ? NO_DATE : (int) player.getDateOfBirth().toEpochDay());
+        } else if (value instanceof Player player && player.getSessionTicket() != null) {
+            out.writeByte(SESSION_PLAYER);
+            writePlayer(out, player);
+            writeString(out, player.getSessionTicket());
+        } else if (value instanceof Player player) {
+            out.writeByte(PLAYER);
+            writePlayer(out, player);
+        } else if (value instanceof List<?> list && (list.isEmpty() || list.get(0) instanceof Player)) {
+            out.writeByte(PLAYER_LIST);
+            writeVarInt(out, list.size());
+            for (Player player : (List<Player>) list) {
+                writePlayer(out, player);
+            }
+        } else if (value instanceof List<?> list && list.get(0) instanceof PointsDelta) {
+            out.writeByte(POINTS_DELTAS);
+            writeDeltas(out, (List<PointsDelta>) list);
+        } else if (value instanceof List<?> list && list.get(0) instanceof Card[]) {
+            out.writeByte(HANDS);
+            writeHands(out, (List<Card[]>) list);
+        } else if (value instanceof RoundResult result) {
+            out.writeByte(ROUND_RESULT);
+            writeValue(out, result.getSeats(), opcode); // A player list, or null if the seating is unchanged
+            writeHands(out, result.getHands());
+            writeDeltas(out, result.getPointsDeltas());
+            writeVarInt(out, result.getWinnerSeats().length);
+            for (int seat : result.getWinnerSeats()) {
+                writeVarInt(out, seat);
+            }
+        } else if (value instanceof NodeStatus status) {
+            out.writeByte(NODE_STATUS);
+            writeString(out, status.address());
+            writeVarInt(out, status.tables());
+            writeVarInt(out, status.players());
+            writeVarInt(out, status.openSeats());
+            writeVarInt(out, status.maxTables());
+            out.writeBoolean(status.draining());
+        } else {
+            throw new IOException("Payload type not supported by the binary codec: " + value.getClass().getName());
+        }
+    }
+
+    private Object readValue(DataInputStream in) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case INT:
+                return readVarInt(in);
+            case STRING:
+                return readString(in);
+            case PLAYER:
+                return readPlayer(in);
+            case SESSION_PLAYER: {
+                Player player = readPlayer(in);
+                player.setSessionTicket(readString(in));
+                return player;
+            }
+            case CREDENTIALS: {
+                Player player = new Player();
+                player.setUsername(readString(in));
+                player.setPassword(readString(in));
+                return player;
+            }
+            case REGISTRATION: {
+                Player player = new Player();
+                player.setUsername(readString(in));
+                player.setPassword(readString(in));
+                player.setFirstName(readString(in));
+                player.setLastName(readString(in));
+                int epochDay = readVarInt(in);
+                player.setDateOfBirth(epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay));
+                return player;
+            }
+            case PLAYER_LIST: {
+                int size = readLength(in);
+                List<Player> players = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    players.add(readPlayer(in));
+                }
+                return players;
+            }
+            case POINTS_DELTAS:
+                return readDeltas(in);
+            case HANDS:
+                return readHands(in);
+            case ROUND_RESULT: {
+                Object seats = readValue(in);
+                if (seats != null && !(seats instanceof List)) {
+                    throw new IOException("Invalid round result roster");
+                }
+                List<Card[]> hands = readHands(in);
+                List<PointsDelta> deltas = readDeltas(in);
+                int[] winnerSeats = new int[readLength(in)];
+                for (int i = 0; i < winnerSeats.length; i++) {
+                    winnerSeats[i] = readVarInt(in);
+                }
+                @SuppressWarnings("unchecked")
+                List<Player> roster = (List<Player>) seats;
+                return new RoundResult(roster, hands, deltas, winnerSeats);
+            }
+            case NODE_STATUS:
+                return new NodeStatus(readString(in), readVarInt(in), readVarInt(in), readVarInt(in), readVarInt(in), in.readBoolean());
+            default:
+                throw new IOException("Unknown value tag: " + tag);
+        }
+    }
+
+    private void writeHands(DataOutputStream out, List<Card[]> hands) throws IOException {
+        writeVarInt(out, hands.size());
+        for (Card[] hand : hands) {
+            writeVarInt(out, hand.length);
+            for (Card card : hand) {
+                out.writeByte(card == null ? NO_CARD : card.getCode());
+            }
+        }
+    }
+
+    private List<Card[]> readHands(DataInputStream in) throws IOException {
+        int size = readLength(in);
+        List<Card[]> hands = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Card[] hand = new Card[readLength(in)];
+            for (int j = 0; j < hand.length; j++) {
+                hand[j] = readCard(in);
+            }
+            hands.add(hand);
+        }
+        return hands;
+    }
+
+    private void writeDeltas(DataOutputStream out, List<PointsDelta> deltas) throws IOException {
+        writeVarInt(out, deltas.size());
+        for (PointsDelta delta : deltas) {
+            writeVarInt(out, delta.getSeat());
+            writeVarInt(out, delta.getDelta());
+            writeVarInt(out, delta.getNewTotal());
+        }
+    }
+
+    private List<PointsDelta> readDeltas(DataInputStream in) throws IOException {
+        int size = readLength(in);
+        List<PointsDelta> deltas = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            deltas.add(new PointsDelta(readVarInt(in), readVarInt(in), readVarInt(in)));
+        }
+        return deltas;
+    }
+
+    private void writePlayer(DataOutputStream out, Player player) throws IOException {
+        writeVarInt(out, player.getPlayerId());
+        writeVarInt(out, player.getPoints());
+        writeString(out, player.getUsername());
+        writeString(out, player.getFirstName()); // Display name shown by the game views
+    }
+
+    private Player readPlayer(DataInputStream in) throws IOException {
+        Player player = new Player();
+        player.setPlayerId(readVarInt(in));
+        player.setPoints(readVarInt(in));
+        player.setUsername(readString(in));
+        player.setFirstName(readString(in));
+        return player;
+    }
+
+    private Card readCard(DataInputStream in) throws IOException {
+        int index = in.readUnsignedByte();
+        if (index == NO_CARD) {
+            return null;
+        }
+        if (index >= Card.NUM_OF_CODES) {
+            throw new IOException("Invalid card: " + index);
+        }
+        return Card.of(index);
+    }
+
+    /**
+     * Writes a string as its UTF-8 length plus one (zero means null) followed by the bytes.
+     */
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            writeVarInt(out, 0);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, utf8.length + 1);
+        out.write(utf8);
+    }
+
+    private String readString(DataInputStream in) throws IOException {
+        int length = readLength(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length - 1];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a count or length and checks it against the frame size limit, so a corrupt frame cannot trigger a huge allocation.
+     */
+    private int readLength(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        if (length < 0 || length > FrameCodec.MAX_FRAME_LENGTH) {
+            throw new IOException("Invalid length: " + length);
+        }
+        return length;
+    }
+
+    /**
+     * Writes a zigzag-encoded varint: 1 byte for -64..63, at most 5 bytes.
+     */
+    private void writeVarInt(DataOutputStream out, int value) throws IOException {
+        int zigzag = (value << 1) ^ (value >> 31);
+        while ((zigzag & ~0x7F) != 0) {
+            out.writeByte((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        out.writeByte(zigzag);
+    }
+
+    private int readVarInt(DataInputStream in) throws IOException {
+        int zigzag = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            zigzag |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
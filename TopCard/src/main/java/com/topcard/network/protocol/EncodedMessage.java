@@ -0,0 +1,89 @@
+package com.topcard.network.protocol;
+
+import com.topcard.network.game.GameMessage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A message that is encoded at most once per codec, however many clients it is sent to.
+ * Broadcasts wrap their message in one instance and hand it to every recipient, which all write
+ * the same immutable frame bytes. It also records how much encoding that sharing saved.
+ */
+public final class EncodedMessage {
+
+    private final GameMessage message;
+    private final Map<Byte, Encoding> encodings = new HashMap<>(2); // Guarded by this
+
+    public EncodedMessage(GameMessage message) {
+        this.message = message;
+    }
+
+    public GameMessage getMessage() {
+        return message;
+    }
+
+    /**
+     * Returns the complete frame, length prefix included, as a read-only buffer positioned at its start.
+     */
+    public ByteBuffer frameBuffer(MessageCodec codec) throws IOException {
+        return ByteBuffer.wrap(frameBytes(codec)).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the shared frame bytes for the codec, encoding them on first use. Callers must not modify the array.
+     */
+    synchronized byte[] frameBytes(MessageCodec codec) throws IOException {
+        Encoding encoding = encodings.get(codec.getId());
+        if (encoding == null) {
+            long start = System.nanoTime();
+            ByteBuffer frame = FrameCodec.encodeFrame(codec, message);
+            encoding = new Encoding(frame.array(), System.nanoTime() - start);
+            encodings.put(codec.getId(), encoding);
+        }
+        encoding.uses++;
+        return encoding.frame;
+    }
+
+    /**
+     * @return frame bytes that did not have to be encoded again, over all codecs
+     */
+    public synchronized long getBytesSaved() {
+        long saved = 0;
+        for (Encoding encoding : encodings.values()) {
+            saved += (long) (encoding.uses - 1) * encoding.frame.length;
+        }
+        return saved;
+    }
+
+    /**
+     * @return encoding time saved, estimated as the time of the first encoding times the number of reuses
+     */
+    public synchronized long getEncodeNanosSaved() {
+        long saved = 0;
+        for (Encoding encoding : encodings.values()) {
+            saved += (encoding.uses - 1) * encoding.encodeNanos;
+        }
+        return saved;
+    }
+
+    /**
+     * @return how many times the message was actually encoded
+     */
+    public synchronized int getEncodeCount() {
+        return encodings.size();
+    }
+
+    private static final class Encoding {
+        private final byte[] frame;
+        private final long encodeNanos;
+        private int uses;
+
+        private Encoding(byte[] frame, long encodeNanos) {
+            this.frame = frame;
+            this.encodeNanos = encodeNanos;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.topcard.network.protocol;
+
+import com.topcard.network.game.GameMessage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Length-prefixed framing shared by the blocking and non-blocking transports.
+ * <p>
+ * A framed connection starts with a 4-byte preface sent by the client: the magic bytes 'T' 'C',
+ * the protocol version and the id of the payload codec. After that every message is sent as a
+ * 4-byte big-endian length followed by that many payload bytes.
+ * </p>
+ */
+public final class FrameCodec {
+
+    public static final byte MAGIC_0 = 'T';
+    public static final byte MAGIC_1 = 'C';
+    public static final byte VERSION = 1;
+    public static final int PREFACE_LENGTH = 4;
+    public static final int LENGTH_FIELD_SIZE = 4;
+    public static final int MAX_FRAME_LENGTH = 1024 * 1024; // No game message comes close to 1 MB
+
+    private FrameCodec() {}
+
+    /**
+     * Builds the connection preface announcing the given codec.
+     */
+    public static byte[] preface(MessageCodec codec) {
+        return new byte[]{MAGIC_0, MAGIC_1, VERSION, codec.getId()};
+    }
+
+    /**
+     * Checks whether the first two bytes of a connection are the framed protocol magic.
+     */
+    public static boolean isPreface(int first, int second) {
+        return first == MAGIC_0 && second == MAGIC_1;
+    }
+
+    /**
+     * Validates a preface and returns the codec it announces.
+     *
+     * @param preface the 4 preface bytes
+     * @return the codec to use for the connection
+     * @throws IOException if the magic, version or codec id is not supported
+     */
+    public static MessageCodec readPreface(byte[] preface) throws IOException {
+        if (!isPreface(preface[0], preface[1])) {
+            throw new IOException("Invalid protocol preface.");
+        }
+        if (preface[2] != VERSION) {
+            throw new IOException("Unsupported protocol version: " + preface[2]);
+        }
+        return codecFor(preface[3]);
+    }
+
+    /**
+     * Returns the codec registered for the given id.
+     */
+    public static MessageCodec codecFor(byte id) throws IOException {
+        if (id == SerializationCodec.ID) {
+            return new SerializationCodec();
+        }
+        if (id == BinaryCodec.ID) {
+            return new BinaryCodec();
+        }
+        throw new IOException("Unsupported codec id: " + id);
+    }
+
+    /**
+     * Encodes a message into a complete frame, length prefix included, ready to be written to a channel.
+     */
+    public static ByteBuffer encodeFrame(MessageCodec codec, GameMessage message) throws IOException {
+        byte[] payload = codec.encode(message);
+        ByteBuffer frame = ByteBuffer.allocate(LENGTH_FIELD_SIZE + payload.length);
+        frame.putInt(payload.length).put(payload).flip();
+        return frame;
+    }
+
+    /**
+     * Checks a frame length read from the wire.
+     *
+     * @throws IOException if the length is negative or larger than MAX_FRAME_LENGTH
+     */
+    public static void checkFrameLength(int length) throws IOException {
+        if (length < 0 || length > MAX_FRAME_LENGTH) {
+            throw new IOException("Invalid frame length: " + length);
+        }
+    }
+}
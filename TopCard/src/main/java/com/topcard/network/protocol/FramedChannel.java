@@ -0,0 +1,106 @@
+package com.topcard.network.protocol;
+
+import com.topcard.network.game.GameMessage;
+import com.topcard.util.MetricsRegistry;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Blocking side of the framed protocol. A client sends the preface on creation, a server reads it in
+ * {@link #accept(Socket, InputStream)}; both then exchange length-prefixed frames encoded with the chosen codec.
+ */
+public class FramedChannel implements MessageChannel {
+
+    private static final LongAdder BYTES_SENT = MetricsRegistry.getDefault().counter("net.bytesSent");
+
+    private final Socket socket;
+    private final MessageCodec codec;
+    private final DataOutputStream out;
+    private final DataInputStream in;
+
+    public FramedChannel(Socket socket, MessageCodec codec) throws IOException {
+        this(socket, new BufferedInputStream(socket.getInputStream()), codec);
+        out.write(FrameCodec.preface(codec));
+        out.flush();
+    }
+
+    private FramedChannel(Socket socket, InputStream in, MessageCodec codec) throws IOException {
+        this.socket = socket;
+        this.codec = codec;
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        this.in = new DataInputStream(in);
+    }
+
+    /**
+     * Server side of the framed protocol: reads the client's preface and answers with the codec it announced.
+     *
+     * @param socket the accepted socket
+     * @param in     the socket's input stream, positioned at the preface
+     * @throws IOException if the preface is invalid or the connection closes before it arrives
+     */
+    public static FramedChannel accept(Socket socket, InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        byte[] preface = new byte[FrameCodec.PREFACE_LENGTH];
+        data.readFully(preface);
+        return new FramedChannel(socket, in, FrameCodec.readPreface(preface));
+    }
+
+    /**
+     * @return the codec negotiated for this connection
+     */
+    public MessageCodec getCodec() {
+        return codec;
+    }
+
+    @Override
+    public synchronized void send(GameMessage message) throws IOException {
+        write(message);
+        flush();
+    }
+
+    @Override
+    public synchronized void write(GameMessage message) throws IOException {
+        byte[] payload = codec.encode(message);
+        out.writeInt(payload.length);
+        out.write(payload);
+        BYTES_SENT.add(Integer.BYTES + payload.length);
+    }
+
+    @Override
+    public synchronized void write(EncodedMessage message) throws IOException {
+        byte[] frame = message.frameBytes(codec);
+        out.write(frame); // Length prefix included
+        BYTES_SENT.add(frame.length);
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public GameMessage receive() throws IOException {
+        int length = in.readInt();
+        FrameCodec.checkFrameLength(length);
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return codec.decode(payload, 0, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.close();
+            in.close();
+        } finally {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.topcard.network.protocol;
+
+import com.topcard.network.game.GameMessage;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A blocking, bidirectional message connection used by the socket clients.
+ */
+public interface MessageChannel extends Closeable {
+
+    /**
+     * Writes one message and flushes it to the peer.
+     */
+    void send(GameMessage message) throws IOException;
+
+    /**
+     * Writes one message without flushing, so a writer draining several messages can flush them together.
+     */
+    void write(GameMessage message) throws IOException;
+
+    /**
+     * Writes a message that may be shared with other recipients, without flushing.
+     * Framed channels write its cached frame; the object stream has to serialize it again.
+     */
+    default void write(EncodedMessage message) throws IOException {
+        write(message.getMessage());
+    }
+
+    /**
+     * Flushes written messages to the peer.
+     */
+    void flush() throws IOException;
+
+    /**
+     * Blocks until the next message arrives.
+     */
+    GameMessage receive() throws IOException;
+}
@@ -0,0 +1,38 @@
+package com.topcard.network.protocol;
+
+import com.topcard.network.game.GameMessage;
+
+import java.io.IOException;
+
+/**
+ * Converts a GameMessage to and from the payload bytes carried inside one frame.
+ */
+public interface MessageCodec {
+
+    /**
+     * Identifies the codec in the connection preface so the receiver can pick the matching decoder.
+     *
+     * @return the codec id
+     */
+    byte getId();
+
+    /**
+     * Encodes a message into a self-contained payload.
+     *
+     * @param message the message to encode
+     * @return the encoded payload
+     * @throws IOException if the message cannot be encoded
+     */
+    byte[] encode(GameMessage message) throws IOException;
+
+    /**
+     * Decodes one payload back into a message.
+     *
+     * @param data the buffer holding the payload
+     * @param offset the start of the payload
+     * @param length the length of the payload
+     * @return the decoded message
+     * @throws IOException if the payload is malformed
+     */
+    GameMessage decode(byte[] data, int offset, int length) throws IOException;
+}
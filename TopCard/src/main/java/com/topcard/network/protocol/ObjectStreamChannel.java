@@ -0,0 +1,70 @@
+package com.topcard.network.protocol;
+
+import com.topcard.network.game.GameMessage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.Socket;
+
+/**
+ * The original protocol: one continuous ObjectOutputStream/ObjectInputStream pair per socket.
+ * The stream is reset after every message, so neither side's handle table keeps the objects sent before it.
+ */
+public class ObjectStreamChannel implements MessageChannel {
+
+    private final Socket socket;
+    private final ObjectOutputStream out;
+    private final ObjectInputStream in;
+
+    public ObjectStreamChannel(Socket socket) throws IOException {
+        this(socket, socket.getInputStream());
+    }
+
+    /**
+     * Opens the channel over an input stream that wraps the socket's, e.g. one a server has already peeked into.
+     */
+    public ObjectStreamChannel(Socket socket, InputStream in) throws IOException {
+        this.socket = socket;
+        this.out = new ObjectOutputStream(socket.getOutputStream());
+        this.out.flush(); // Send the stream header before blocking on the peer's
+        this.in = new ObjectInputStream(in);
+    }
+
+    @Override
+    public synchronized void send(GameMessage message) throws IOException {
+        write(message);
+        flush();
+    }
+
+    @Override
+    public synchronized void write(GameMessage message) throws IOException {
+        out.writeObject(message);
+        out.reset(); // Otherwise an object sent again arrives as a reference to its first, stale copy
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public GameMessage receive() throws IOException {
+        try {
+            return (GameMessage) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Invalid object received: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            out.close();
+            in.close();
+        } finally {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.topcard.network.protocol;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One-byte message types of the binary codec. Each known GameMessage type gets its own opcode;
+ * any other type is sent as GENERIC with the type name spelled out.
+ */
+public enum Opcode {
+    GENERIC(0, null),
+    JOIN(1, "JOIN"),
+    START_GAME(2, "START_GAME"),
+    REMATCH(3, "REMATCH"),
+    LOBBY(4, "Game Lobby - Number of Players:"),
+    HANDS(5, "HANDS"),
+    POINTS_UPDATED(6, "POINTS_UPDATED"),
+    WINNERS(7, "WINNERS"),
+    SHUTDOWN(8, "SHUTDOWN"),
+    LOGIN(9, "LOGIN"),
+    AUTH_SUCCESS(10, "AUTH_SUCCESS"),
+    AUTH_FAILURE(11, "AUTH_FAILURE"),
+    REGISTER(12, "REGISTER"),
+    PROFILE(13, "PROFILE"),
+    PING(14, "PING"),
+    PONG(15, "PONG"),
+    ROUND_RESULT(16, "ROUND_RESULT"),
+    RESUME(17, "RESUME"),
+    RESUMED(18, "RESUMED"),
+    RESUME_REJECTED(19, "RESUME_REJECTED"),
+    REDIRECT(20, "REDIRECT"),
+    NODE_STATUS(21, "NODE_STATUS");
+
+    private static final Opcode[] BY_CODE = new Opcode[values().length];
+    private static final Map<String, Opcode> BY_TYPE = new HashMap<>();
+
+    static {
+        for (Opcode opcode : values()) {
+            BY_CODE[opcode.code] = opcode;
+            if (opcode.type != null) {
+                BY_TYPE.put(opcode.type, opcode);
+            }
+        }
+    }
+
+    private final byte code;
+    private final String type;
+
+    Opcode(int code, String type) {
+        this.code = (byte) code;
+        this.type = type;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * @return the GameMessage type this opcode stands for, or null for GENERIC
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Returns the opcode for a message type, or GENERIC if the type has no opcode of its own.
+     */
+    public static Opcode forType(String type) {
+        return BY_TYPE.getOrDefault(type, GENERIC);
+    }
+
+    /**
+     * Returns the opcode with the given code, or null if the code is unknown.
+     */
+    public static Opcode forCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
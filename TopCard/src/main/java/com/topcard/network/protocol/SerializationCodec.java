@@ -0,0 +1,46 @@
+package com.topcard.network.protocol;
+
+import com.topcard.network.game.GameMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * Encodes each message with standard Java serialization.
+ * Unlike the continuous object stream, every payload is independent, so a frame can be decoded
+ * as soon as its bytes have arrived without keeping per-connection stream state.
+ */
+public class SerializationCodec implements MessageCodec {
+
+    public static final byte ID = 0;
+
+    @Override
+    public byte getId() {
+        return ID;
+    }
+
+    @Override
+    public byte[] encode(GameMessage message) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(message);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public GameMessage decode(byte[] data, int offset, int length) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data, offset, length))) {
+            Object object = in.readObject();
+            if (!(object instanceof GameMessage message)) {
+                throw new IOException("Frame does not contain a GameMessage: " + object);
+            }
+            return message;
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Unknown class in frame: " + e.getMessage(), e);
+        }
+    }
+}
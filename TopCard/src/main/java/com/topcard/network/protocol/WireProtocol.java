@@ -0,0 +1,72 @@
+package com.topcard.network.protocol;
+
+import com.topcard.util.ConfigUtil;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+
+/**
+ * Wire formats a client can use to talk to the TopCard servers.
+ * Selected with the game.protocol setting; OBJECT_STREAM stays the default for existing clients.
+ * Both servers tell the formats apart from the first bytes of a connection, so old and new clients can mix.
+ */
+public enum WireProtocol {
+    /** Continuous Java object stream, understood by the blocking servers while they allow object streams. */
+    OBJECT_STREAM,
+    /** Preface plus length-prefixed, Java-serialized frames. */
+    FRAMED,
+    /** Preface plus length-prefixed frames in the compact {@link BinaryCodec} format. */
+    BINARY;
+
+    private static final int STREAM_MAGIC_0 = 0xAC; // ObjectOutputStream header (STREAM_MAGIC 0xACED)
+    private static final int STREAM_MAGIC_1 = 0xED;
+
+    /**
+     * Opens a client channel over an already connected socket.
+     */
+    public MessageChannel open(Socket socket) throws IOException {
+        return switch (this) {
+            case FRAMED -> new FramedChannel(socket, new SerializationCodec());
+            case BINARY -> new FramedChannel(socket, new BinaryCodec());
+            default -> new ObjectStreamChannel(socket);
+        };
+    }
+
+    /**
+     * Opens the server side of an accepted socket, detecting the protocol from the client's first bytes.
+     *
+     * @param socket            the accepted socket
+     * @param allowObjectStream whether clients still on the object stream protocol are accepted
+     * @throws EOFException if the client closed the connection before sending anything
+     * @throws IOException  if the client speaks an unknown or disallowed protocol
+     */
+    public static MessageChannel accept(Socket socket, boolean allowObjectStream) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(socket.getInputStream());
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        if (first < 0 || second < 0) {
+            throw new EOFException("Connection closed before the protocol could be detected");
+        }
+        if (FrameCodec.isPreface(first, second)) {
+            return FramedChannel.accept(socket, in);
+        }
+        if (first == STREAM_MAGIC_0 && second == STREAM_MAGIC_1) {
+            if (!allowObjectStream) {
+                throw new IOException("Object stream clients are disabled on this server");
+            }
+            return new ObjectStreamChannel(socket, in);
+        }
+        throw new IOException("Unknown protocol");
+    }
+
+    /**
+     * Returns the protocol configured for clients.
+     */
+    public static WireProtocol fromConfig() {
+        return ConfigUtil.getEnum("game.protocol", OBJECT_STREAM);
+    }
+}
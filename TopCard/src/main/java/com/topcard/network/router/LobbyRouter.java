@@ -0,0 +1,200 @@
+package com.topcard.network.router;
+
+import com.topcard.network.game.GameMessage;
+import com.topcard.network.protocol.MessageChannel;
+import com.topcard.network.protocol.WireProtocol;
+import com.topcard.presentation.common.Constants;
+import com.topcard.util.ConfigUtil;
+import com.topcard.util.ExecutorMode;
+import com.topcard.util.MetricsRegistry;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Front door of a cluster of GameServer nodes.
+ * <p>
+ * Each node keeps a connection open to the router and sends its {@link NodeStatus} as a heartbeat. A client
+ * connects to the router and sends its JOIN as it would to a game server; the router answers with REDIRECT
+ * carrying the host:port of the node chosen by the {@link NodeDirectory}, and the client joins there with the
+ * same player and session ticket, which the node verifies locally. Clients are answered SHUTDOWN when no node
+ * can take them. Nodes only need distinct ports, so a whole cluster can run on one host. A node is only routed
+ * to once it has answered the {@link NodeAuthenticator} challenge with the cluster secret.
+ * </p>
+ */
+public class LobbyRouter {
+
+    private static final Logger logger = LogManager.getLogger(LobbyRouter.class);
+
+    private static final int CLIENT_SOCKET_READ_TIMEOUT_MS = 5000;
+
+    private int port = ConfigUtil.getInt("router.port", Constants.ROUTER_PORT);
+    private final boolean allowObjectStream = ConfigUtil.getBoolean("router.allowObjectStream", true); // Compatibility with old clients
+    private final int nodeTimeoutMs = ConfigUtil.getInt("router.nodeTimeoutMs", 3000);
+    private final NodeDirectory directory = new NodeDirectory(Constants.MAX_PLAYERS, nodeTimeoutMs,
+            ConfigUtil.getInt("router.joinGraceMs", 1000));
+    private final ExecutorService connectionThreads = ExecutorMode.VIRTUAL.newExecutor("LobbyRouter", 0);
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+    private NodeAuthenticator nodeAuthenticator; // Created on start(), which refuses to run without the cluster secret
+    private ServerSocket serverSocket;
+    private volatile boolean running;
+
+    private final MetricsRegistry metrics = MetricsRegistry.getDefault();
+    private final MetricsRegistry.Meter routed = metrics.meter("router.routed");
+    private final MetricsRegistry.Meter unavailable = metrics.meter("router.unavailable");
+    private final MetricsRegistry.Meter rejectedNodes = metrics.meter("router.rejectedNodes");
+
+    /**
+     * Main entry point for the router.
+     */
+    public static void main(String[] args) {
+        LobbyRouter router = new LobbyRouter();
+        Runtime.getRuntime().addShutdownHook(new Thread(router::stop, "lobby-router-stop"));
+        try {
+            router.start();
+        } catch (IOException e) {
+            logger.error("Error with Lobby Router", e);
+        }
+    }
+
+    /**
+     * Starts the router and serves node heartbeats and client JOINs until stopped.
+     */
+    public void start() throws IOException {
+        nodeAuthenticator = NodeAuthenticator.fromConfig();
+        metrics.gauge("router.nodes", () -> directory.getLiveCount(System.currentTimeMillis()));
+        metrics.start();
+        serverSocket = new ServerSocket(port);
+        running = true;
+        logger.info("Lobby Router started on port " + port);
+
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                openSockets.add(socket);
+                connectionThreads.submit(() -> serve(socket));
+            } catch (SocketException se) {
+                if (!running) {
+                    logger.info("Lobby Router socket closed, exiting accept loop.");
+                    break;
+                }
+                logger.error("Router accept loop socket error: " + se.getMessage(), se);
+            } catch (IOException e) {
+                logger.error("Router accept loop I/O error: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Stops the router and closes every node and client connection.
+     */
+    public void stop() {
+        running = false;
+        try {
+            if (serverSocket != null && !serverSocket.isClosed()) {
+                serverSocket.close();
+                logger.info("Lobby Router socket closed.");
+            }
+        } catch (IOException e) {
+            logger.error("Error closing Lobby Router socket: " + e.getMessage());
+        }
+        for (Socket socket : openSockets) {
+            try { socket.close(); } catch (IOException ignored) {}
+        }
+        connectionThreads.shutdownNow();
+        try {
+            connectionThreads.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setSoTimeout(CLIENT_SOCKET_READ_TIMEOUT_MS);
+            MessageChannel channel = WireProtocol.accept(socket, allowObjectStream);
+            GameMessage first = channel.receive();
+            if (first.getPayload() instanceof NodeStatus status && "NODE_STATUS".equals(first.getType())) {
+                serveNode(socket, channel, first, status);
+            } else if ("JOIN".equals(first.getType())) {
+                channel.send(routeJoin(first, socket));
+            } else {
+                logger.warn("Received unexpected message type: " + first.getType() + " from " + socket.getInetAddress() + ". Connection closed.");
+            }
+        } catch (IOException e) {
+            if (running) {
+                logger.debug("Router connection from " + socket.getInetAddress() + " ended: " + e.getMessage());
+            }
+        } finally {
+            openSockets.remove(socket);
+        }
+    }
+
+    /**
+     * Challenges a node for the cluster secret, then reads its heartbeats until its connection closes or it
+     * misses them for nodeTimeoutMs.
+     */
+    private void serveNode(Socket socket, MessageChannel channel, GameMessage first, NodeStatus status) throws IOException {
+        String address = status.address();
+        String challenge = nodeAuthenticator.newChallenge();
+        channel.send(first.reply("NODE_CHALLENGE", challenge));
+        GameMessage answer = channel.receive();
+        if (!"NODE_AUTH".equals(answer.getType()) || !nodeAuthenticator.verify(challenge, address, answer.getPayload())) {
+            rejectedNodes.mark();
+            logger.warn("Rejected game node claiming " + address + " from " + socket.getInetAddress() + ": it did not prove the cluster secret.");
+            return;
+        }
+        logger.info("Game node " + address + " joined the cluster from " + socket.getInetAddress() + ".");
+        socket.setSoTimeout(nodeTimeoutMs);
+        try {
+            while (true) {
+                directory.update(status, System.currentTimeMillis());
+                GameMessage heartbeat = channel.receive();
+                if (!(heartbeat.getPayload() instanceof NodeStatus next) || !address.equals(next.address())) {
+                    logger.warn("Game node " + address + " sent an invalid heartbeat. Dropping it.");
+                    return;
+                }
+                status = next;
+            }
+        } catch (EOFException | SocketTimeoutException e) {
+            logger.info("Game node " + address + " left the cluster: " + (e instanceof EOFException ? "disconnected" : "heartbeat missed"));
+        } finally {
+            directory.remove(address);
+        }
+    }
+
+    /**
+     * Picks the node for a joining client.
+     *
+     * @return REDIRECT with the node's host:port, or SHUTDOWN if no node can take the player
+     */
+    private GameMessage routeJoin(GameMessage join, Socket socket) {
+        String address = directory.route(System.currentTimeMillis());
+        if (address == null) {
+            unavailable.mark();
+            logger.warn("No game node can take the player from " + socket.getInetAddress() + ".");
+            return join.reply("SHUTDOWN", null);
+        }
+        routed.mark();
+        logger.debug("Routed player from " + socket.getInetAddress() + " to " + address);
+        return join.reply("REDIRECT", address);
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public NodeDirectory getDirectory() {
+        return directory;
+    }
+}
@@ -0,0 +1,80 @@
+package com.topcard.network.router;
+
+import com.topcard.util.ConfigUtil;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Proves that a game node reporting to the lobby router belongs to the cluster.
+ * <p>
+ * The router answers a node's first NODE_STATUS with a random challenge, and the node replies with the
+ * HMAC-SHA256 of the challenge and its address under the cluster secret ({@code router.secret}). Only then is
+ * the node routed to, so a stranger who reaches the router port cannot have players, and their session tickets,
+ * sent to an address of its choosing. The secret comes from the {@code TOPCARD_ROUTER_SECRET} environment variable
+ * or the file named by {@code router.secretFile}; the router and the nodes refuse to start without one.
+ * </p>
+ */
+public class NodeAuthenticator {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String SECRET_ENV = "TOPCARD_ROUTER_SECRET";
+    private static final int CHALLENGE_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecretKeySpec key;
+    private final SecureRandom random = new SecureRandom();
+
+    public NodeAuthenticator(byte[] secret) {
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+    }
+
+    /**
+     * Creates an authenticator from the configured cluster secret.
+     *
+     * @throws IllegalStateException if no cluster secret is configured
+     */
+    public static NodeAuthenticator fromConfig() {
+        String secret = ConfigUtil.getSecret("router.secret", SECRET_ENV); // Or router.secretFile
+        if (secret == null) {
+            throw new IllegalStateException("router.secret is not set. Give the lobby router and every game node the same "
+                    + "private cluster secret in " + SECRET_ENV + " or router.secretFile.");
+        }
+        return new NodeAuthenticator(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return a fresh random challenge for a connecting node
+     */
+    public String newChallenge() {
+        byte[] challenge = new byte[CHALLENGE_BYTES];
+        random.nextBytes(challenge);
+        return ENCODER.encodeToString(challenge);
+    }
+
+    /**
+     * Answers the router's challenge for the node at the given address.
+     */
+    public String respond(String challenge, String address) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return ENCODER.encodeToString(mac.doFinal((challenge + "|" + address).getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e); // Every JDK ships it
+        }
+    }
+
+    /**
+     * @return true if the response proves the node at the address knows the cluster secret
+     */
+    public boolean verify(String challenge, String address, Object response) {
+        return response instanceof String answer && MessageDigest.isEqual(
+                respond(challenge, address).getBytes(StandardCharsets.UTF_8), answer.getBytes(StandardCharsets.UTF_8));
+    }
+}
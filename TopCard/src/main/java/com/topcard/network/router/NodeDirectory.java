@@ -0,0 +1,153 @@
+package com.topcard.network.router;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The router's view of the cluster: the last status each node reported, and the players sent to each node
+ * that its status cannot include yet.
+ * <p>
+ * A player is sent to the node with the fullest table still waiting for players, so tables fill up before new
+ * ones are opened. When no node has an open seat, the player opens a new table on the node with the lowest
+ * share of its table limit in use. Players routed within the last joinGraceMs count as seated on top of the
+ * reported status, since the node will not report them until they have connected and joined.
+ * </p>
+ */
+public class NodeDirectory {
+
+    private final int tableCapacity;
+    private final long nodeTimeoutMs;
+    private final long joinGraceMs;
+    private final Map<String, Node> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * @param tableCapacity seats per table on every node
+     * @param nodeTimeoutMs how long a node that stops reporting is still routed to
+     * @param joinGraceMs how long a routed player is counted before the node's status includes it
+     */
+    public NodeDirectory(int tableCapacity, long nodeTimeoutMs, long joinGraceMs) {
+        this.tableCapacity = tableCapacity;
+        this.nodeTimeoutMs = nodeTimeoutMs;
+        this.joinGraceMs = joinGraceMs;
+    }
+
+    /**
+     * Records a node heartbeat, adding the node if it is new.
+     */
+    public void update(NodeStatus status, long now) {
+        nodes.computeIfAbsent(status.address(), address -> new Node()).update(status, now);
+    }
+
+    /**
+     * Forgets a node, such as one whose heartbeat connection closed.
+     */
+    public void remove(String address) {
+        nodes.remove(address);
+    }
+
+    /**
+     * Picks the node for a joining player and counts the player against it.
+     *
+     * @return the node's host:port, or null if no live node can take a player
+     */
+    public synchronized String route(long now) {
+        Node best = null;
+        int bestOpenSeats = 0;
+        double bestLoad = Double.MAX_VALUE;
+        for (Node node : nodes.values()) {
+            Estimate estimate = node.estimate(now);
+            if (estimate == null) {
+                continue;
+            }
+            if (estimate.openSeats > 0) { // Fullest waiting table first
+                if (bestOpenSeats == 0 || estimate.openSeats < bestOpenSeats) {
+                    best = node;
+                    bestOpenSeats = estimate.openSeats;
+                }
+            } else if (bestOpenSeats == 0 && estimate.tables < estimate.maxTables && estimate.load() < bestLoad) {
+                best = node;
+                bestLoad = estimate.load();
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+        best.routed(now);
+        return best.status.address();
+    }
+
+    /**
+     * @return the last status of every node, live or not
+     */
+    public List<NodeStatus> getNodes() {
+        List<NodeStatus> statuses = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            statuses.add(node.status);
+        }
+        return statuses;
+    }
+
+    /**
+     * @return nodes heard from within nodeTimeoutMs and not draining
+     */
+    public int getLiveCount(long now) {
+        int live = 0;
+        for (Node node : nodes.values()) {
+            if (node.isLive(now)) {
+                live++;
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Tables and open seats of a node once the players routed to it but not yet reported are seated.
+     */
+    private record Estimate(int tables, int openSeats, int maxTables) {
+        double load() {
+            return maxTables == 0 ? 1 : (double) tables / maxTables;
+        }
+    }
+
+    private class Node {
+        private volatile NodeStatus status;
+        private volatile long reportedAt;
+        private final Deque<Long> routedAt = new ArrayDeque<>(); // Guarded by the directory
+
+        void update(NodeStatus status, long now) {
+            this.status = status;
+            this.reportedAt = now;
+        }
+
+        boolean isLive(long now) {
+            return !status.draining() && now - reportedAt <= nodeTimeoutMs;
+        }
+
+        void routed(long now) {
+            routedAt.addLast(now);
+        }
+
+        /**
+         * @return the estimate, or null if the node is not live
+         */
+        Estimate estimate(long now) {
+            if (!isLive(now)) {
+                return null;
+            }
+            while (!routedAt.isEmpty() && now - routedAt.peekFirst() > joinGraceMs) {
+                routedAt.removeFirst();
+            }
+            NodeStatus current = status;
+            int pending = routedAt.size() - current.openSeats(); // Players beyond the open seats open new tables
+            if (pending <= 0) {
+                return new Estimate(current.tables(), -pending, current.maxTables());
+            }
+            int newTables = (pending + tableCapacity - 1) / tableCapacity;
+            return new Estimate(current.tables() + newTables, newTables * tableCapacity - pending, current.maxTables());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.topcard.network.router;
+
+import java.io.Serializable;
+
+/**
+ * Load of one GameServer node, sent to the router with every node heartbeat.
+ *
+ * @param address host:port clients are redirected to; also identifies the node
+ * @param tables tables open on the node
+ * @param players players connected to the node
+ * @param openSeats free seats at tables still waiting for players
+ * @param maxTables the node's table limit (game.server.maxTables)
+ * @param draining true once the node has stopped taking players
+ */
+public record NodeStatus(String address, int tables, int players, int openSeats, int maxTables, boolean draining) implements Serializable {
+}
@@ -27,6 +27,7 @@ public class Constants {
     public static final String PLAYER_ADDED = "Player added successfully";
     public static final String PLAYER_NOT_ADDED = "Player not added: Already exists";
     public static final String REQUIRED = "This field is required.";
+    public static final int ROUTER_PORT = 12340;
     public static final String SIGN_UP_SUCCESS = "Sign Up Successful";
     public static final String SUCCESS = "Success";
     public static final String UPDATED = "Player information updated successfully";
@@ -61,7 +62,7 @@ public class Constants {
                 "<li> Start the server service: ./run-server.sh` (or manually with this command. Before launching, make sure that the classpath ($CP) includes all required dependencies and compiled classes. Then run: java -cp \"$CP\" com.topcard.network.game.GameServer)</li><br>" +
                 "<li> Start the client service: ./run-client_playgame.sh (Alternatively, run them manually:<br>" +
                 "     java -jar ./target/TopCard-1.0-SNAPSHOT-jar-with-dependencies.jar &</li><br>" +
-                "<li> When any player clicks \"Play Game\", a 5-second countdown begins. During this time, other players may join. If fewer than four players are present when the countdown ends, the server automatically fills the remaining slots with up to three auto-generated players from the database.<br>" +
+                "<li> When any player clicks \"Play Game\", a 5-second countdown begins. During this time, other players may join. If fewer than four players are present when the countdown ends, the server automatically fills the remaining slots with up to three bot players, which exist only in memory and never touch the database.<br>" +
                 "     This ensures the game always starts with four participants, even if only one real player is available.</li><br>" +
             "<ul>" +
             "</body></html>";
@@ -3,6 +3,7 @@ package com.topcard.presentation.controller;
 import com.topcard.business.GameManager;
 import com.topcard.domain.Card;
 import com.topcard.domain.Player;
+import com.topcard.domain.PointsDelta;
 import com.topcard.service.game.IGameService;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
@@ -18,12 +19,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
-import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * This class represents the GameController.
@@ -185,18 +183,16 @@ public class GameController {
 
         // After the last card is displayed, run the rest of the game logic
         timeline.setOnFinished(event -> {
-            // Clone the players list
-            List<Player> initialPlayers = clonePlayers(players);
+            List<Player> seated = gameManager.getPlayers(); // Seat order of the game
+            int[] pointsBefore = PointsDelta.snapshot(seated);
 
-            // Execute betting round
-            List<Player> updatedPlayers = gameManager.executeBettingRound(betAmount);
-
-            updatePlayerPointChanges(initialPlayers, updatedPlayers);
+            // Execute betting round; it updates the players in place
+            gameManager.executeBettingRound(betAmount);
+            applyPointsDeltas(PointsDelta.between(pointsBefore, seated));
 
             // Determine winners and display them
             List<Player> winners = gameManager.determineWinner();
             displayWinners(winners);
-            setPlayersPoints(updatedPlayers);
         });
 
         // Start the animation
@@ -248,43 +244,17 @@ public class GameController {
     }
 
     /**
-     * Updates the changes in player points and displays them in the UI.
+     * Displays each seat's change in points and its new balance.
      *
-     * @param initialPlayers the list of players before the betting round
-     * @param updatedPlayers the list of players with updated points
+     * @param deltas one delta per seat, from this client's round or from the server
      */
-    private void updatePlayerPointChanges(List<Player> initialPlayers, List<Player> updatedPlayers) {
-        // Create a map to store initial points for players
-        Map<String, Integer> initialPoints = initialPlayers.stream()
-                .collect(Collectors.toMap(Player::getUsername, Player::getPoints));
-
-        // Sort the updatedPlayers to match the order of initialPlayers by username
-        updatedPlayers.sort(Comparator.comparingInt(updatedPlayer ->
-                initialPlayers.indexOf(initialPlayers.stream()
-                        .filter(player -> player.getUsername().equals(updatedPlayer.getUsername()))
-                        .findFirst()
-                        .orElse(null))
-        ));
-
-        // Calculate and set the changes in player points
-        for (int i = 0; i < initialPlayers.size(); i++) {
-            int initialPoint = initialPoints.get(initialPlayers.get(i).getUsername());
-            int updatedPoint = updatedPlayers.get(i).getPoints();
-            int change = updatedPoint - initialPoint;
-
-            switch (i) {
-                case 0:
-                    player1Change.setText(String.valueOf(change));
-                    break;
-                case 1:
-                    player2Change.setText(String.valueOf(change));
-                    break;
-                case 2:
-                    player3Change.setText(String.valueOf(change));
-                    break;
-                case 3:
-                    player4Change.setText(String.valueOf(change));
-                    break;
+    public void applyPointsDeltas(List<PointsDelta> deltas) {
+        TextField[] changes = {player1Change, player2Change, player3Change, player4Change};
+        TextField[] balances = {player1Balance, player2Balance, player3Balance, player4Balance};
+        for (PointsDelta delta : deltas) {
+            if (delta.getSeat() < changes.length) {
+                changes[delta.getSeat()].setText(String.valueOf(delta.getDelta()));
+                balances[delta.getSeat()].setText(String.valueOf(delta.getNewTotal()));
             }
         }
     }
@@ -301,30 +271,4 @@ public class GameController {
         }
         winnerTextField.setText(winnerNames.toString().trim());
     }
-
-    private List<Player> clonePlayers(List<Player> players) {
-        return players.stream().map(this::clonePlayer).collect(Collectors.toList());
-    }
-
-    /**
-     * Creates a deep copy of the given Player object.
-     * The cloned player retains the same ID, password, and other attributes as the original player.
-     *
-     * @param player the Player object to be cloned
-     * @return a new Player object that is a deep copy of the provided player
-     */
-    private Player clonePlayer(Player player) {
-        Player clonedPlayer = new Player(
-                player.getUsername(),
-                player.getPassword(),
-                player.getFirstName(),
-                player.getLastName(),
-                player.getDateOfBirth()
-        );
-        clonedPlayer.setPlayerId(player.getPlayerId());
-        clonedPlayer.setPoints(player.getPoints());
-        clonedPlayer.setAdmin(player.isAdmin());
-        clonedPlayer.setLoggedIn(player.isLoggedIn());
-        return clonedPlayer;
-    }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package com.topcard.presentation.controller;
 
 import com.topcard.business.PlayerManager;
 import com.topcard.domain.Player;
+import com.topcard.network.authentication.AuthClient;
 import com.topcard.network.game.GameClient;
 import com.topcard.network.game.GameMessage;
 import com.topcard.presentation.common.Constants;
@@ -20,8 +21,6 @@ import java.awt.Color;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketTimeoutException;
@@ -125,15 +124,9 @@ public class LoginController extends JFrame {
     }
 
     private GameMessage sendAuthRequest(String type, Player player) {
-        try (Socket socket = new Socket(Constants.LOCAL_HOST, Constants.AUTH_PORT);
-             ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
-             ObjectInputStream in = new ObjectInputStream(socket.getInputStream())) {
-
-            out.writeObject(new GameMessage(type, player));
-            out.flush();
-            return (GameMessage) in.readObject();
-
-        } catch (IOException | ClassNotFoundException e) {
+        try {
+            return AuthClient.getInstance().send(type, player); // Reuses the open authentication session
+        } catch (IOException e) {
             logger.error("Authentication request failed: " + e.getMessage());
             return null;
         }
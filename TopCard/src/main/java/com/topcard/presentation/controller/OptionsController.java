@@ -1,5 +1,6 @@
 package com.topcard.presentation.controller;
 
+import com.topcard.business.BotPool;
 import com.topcard.business.PlayerManager;
 import com.topcard.domain.Player;
 import com.topcard.network.game.GameClient;
@@ -22,9 +23,7 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
-import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 /**
@@ -47,7 +46,9 @@ public class OptionsController {
     private boolean isOnline; // boolean flag to track online status
 
     private PlayerManager playerManager;
+    private final BotPool botPool;
     private Player player = null;
+    private List<Player> offlineBots = List.of(); // Opponents of the current offline game
 
     // Inject controllers and views directly
     private final AddPlayerController addPlayerController;
@@ -57,9 +58,10 @@ public class OptionsController {
     private final GameView gameView;
 
     @Autowired
-    public OptionsController(PlayerManager playerManager, AddPlayerController addPlayerController, AddPlayerView addPlayerView,
+    public OptionsController(PlayerManager playerManager, BotPool botPool, AddPlayerController addPlayerController, AddPlayerView addPlayerView,
                              UpdateController updateController, UpdateView updateView, GameView gameView) {
         this.playerManager = playerManager;
+        this.botPool = botPool;
         this.addPlayerController = addPlayerController;
         this.addPlayerView = addPlayerView;
         this.updateController = updateController;
@@ -131,40 +133,17 @@ public class OptionsController {
     }
 
     /**
-     * Retrieves a list of three random players excluding the authenticated user.
-     * The authenticated user is added as the first player.
+     * Seats three bot opponents with the authenticated user, who is added as the first player.
+     * The bots exist only in memory, so no other account's points change.
      *
      * @return the list of four players (including the authenticated user)
      */
     private List<Player> getThreeRandomOpponentPlayers() {
-        List<Player> allPlayers = playerManager.getAllPlayers();
-        allPlayers.removeIf(p -> p.getUsername().equals(player.getUsername())); // remove the logged-in player from allPlayers
+        botPool.release(offlineBots); // The previous offline game is over
+        offlineBots = botPool.borrow(3);
         List<Player> selectedPlayers = new ArrayList<>();
         selectedPlayers.add(player); // Add the logged-in player as the first player
-
-        Collections.shuffle(allPlayers);
-
-        // Select up to 3 opponents from the available list or create new temp players
-        for (int i = 0; i < 3; i++) {
-            if (i < allPlayers.size()) {
-                selectedPlayers.add(allPlayers.get(i));
-            } else {
-                // Not enough players, generate a unique temporary username
-                String baseUsername = "Bot" + (i + 1);
-                String tempUsername = baseUsername;
-                int suffix = 1;
-
-                // Make sure the player tempUsername already does not exist
-                while (playerManager.getPlayerByUsername(tempUsername) != null) {
-                    tempUsername = baseUsername + "_" + suffix++;
-                }
-                LocalDate dob = LocalDate.of(1900, 1, 1);
-                Player tempPlayer = new Player(tempUsername, "pass" + (i + 1), baseUsername,"Bot", dob);
-                playerManager.addPlayer(tempPlayer);
-                logger.warn("Not enough players in DB. Created temporary player: " + tempPlayer.getUsername());
-                selectedPlayers.add(tempPlayer);
-            }
-        }
+        selectedPlayers.addAll(offlineBots);
         return selectedPlayers;
     }
 
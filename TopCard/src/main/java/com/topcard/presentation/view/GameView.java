@@ -1,6 +1,7 @@
 package com.topcard.presentation.view;
 
 import com.topcard.domain.Player;
+import com.topcard.domain.PointsDelta;
 import com.topcard.presentation.controller.GameController;
 import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
@@ -35,6 +36,7 @@ public class GameView {
     private static final Logger logger = LogManager.getLogger(GameView.class);
 
     private List<Player> players;
+    private List<PointsDelta> pointsDeltas; // Changes of the round just played online, if any
 
     private final ApplicationContext context;
 
@@ -66,6 +68,9 @@ public class GameView {
             GameController controller = loader.getController();
             controller.setPlayersName(players);
             controller.setPlayersPoints(players);
+            if (pointsDeltas != null) {
+                controller.applyPointsDeltas(pointsDeltas);
+            }
             // Set up the primary stage
             primaryStage.setTitle("TopCard Game");
             primaryStage.setScene(new Scene(root, 680, 600));
@@ -86,4 +91,8 @@ public class GameView {
     public void setPlayers(List<Player> players) {
         this.players = players;
     }
+
+    public void setPointsDeltas(List<PointsDelta> pointsDeltas) {
+        this.pointsDeltas = pointsDeltas;
+    }
 }
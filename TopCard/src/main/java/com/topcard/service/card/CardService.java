@@ -2,8 +2,11 @@ package com.topcard.service.card;
 
 import com.topcard.domain.Card;
 import com.topcard.domain.Deck;
+import com.topcard.domain.Shoe;
 import org.springframework.stereotype.Service;
 
+import java.util.random.RandomGenerator;
+
 /**
  * CardService is a service class that implements the ICardService interface.
  * It provides the business logic for card-related operations in the TopCard game.
@@ -37,6 +40,18 @@ public class CardService implements ICardService {
         return this.deck;
     }
 
+    @Override
+    public Deck createShuffledDeck(RandomGenerator random) {
+        this.deck = new Deck(random);
+        deck.shuffle();
+        return this.deck;
+    }
+
+    @Override
+    public Shoe createShoe(int decks, int penetrationPercent, RandomGenerator random) {
+        return new Shoe(decks, penetrationPercent, random); // Owned by the caller, such as one table's game
+    }
+
     @Override
     public int getRemainingCards() {
         return deck.getRemainingCards();
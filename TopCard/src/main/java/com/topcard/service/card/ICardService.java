@@ -2,6 +2,9 @@ package com.topcard.service.card;
 
 import com.topcard.domain.Card;
 import com.topcard.domain.Deck;
+import com.topcard.domain.Shoe;
+
+import java.util.random.RandomGenerator;
 
 /**
  * ICardService defines the operations related to card management in the TopCard game.
@@ -40,6 +43,26 @@ public interface ICardService {
      */
     Deck createShuffledDeck();
 
+    /**
+     * Creates and returns a new deck of cards shuffled with the given generator.
+     * The deck keeps using the generator when it is shuffled again.
+     *
+     * @param random the generator to shuffle with
+     * @return the new shuffled Deck of cards
+     */
+    Deck createShuffledDeck(RandomGenerator random);
+
+    /**
+     * Creates and returns a new shoe of several decks, apart from the service's own deck.
+     * It is shuffled before its first deal and again once the cut card comes out.
+     *
+     * @param decks the number of decks in the shoe
+     * @param penetrationPercent how much of the shoe is dealt before reshuffling, from 0 to 100
+     * @param random the generator to shuffle with, or null for ThreadLocalRandom
+     * @return the new Shoe
+     */
+    Shoe createShoe(int decks, int penetrationPercent, RandomGenerator random);
+
     /**
      * Returns the number of remaining cards in the deck.
      *
@@ -3,12 +3,17 @@ package com.topcard.service.game;
 import com.topcard.domain.Card;
 import com.topcard.domain.Game;
 import com.topcard.domain.Player;
+import com.topcard.domain.PointsDelta;
+import com.topcard.domain.Shoe;
 import com.topcard.service.player.IPlayerService;
+import com.topcard.util.ConfigUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.random.RandomGenerator;
 
 @Service
 @Scope("prototype")
@@ -17,6 +22,8 @@ public class GameService implements IGameService {
     private Game game;
     private final IPlayerService playerService;
     private List<Player> players;
+    private final int shoeDecks = ConfigUtil.getInt("game.shoe.decks", 1);
+    private final int shoePenetrationPercent = ConfigUtil.getInt("game.shoe.penetrationPercent", 0);
 
     @Autowired
     public GameService(IPlayerService playerService) {
@@ -24,11 +31,30 @@ public class GameService implements IGameService {
     }
 
     public void setPlayers(List<Player> players) {
+        setPlayers(players, player -> false);
+    }
+
+    @Override
+    public void setPlayers(List<Player> players, Predicate<Player> isCurrent) {
         this.players = players;
-        List<Player> updatedPlayers = updateExistingPlayers(players);
-        this.game = new Game(updatedPlayers);
+        List<Player> updatedPlayers = updateExistingPlayers(players, isCurrent);
+        if (game == null) {
+            this.game = new Game(updatedPlayers, new Shoe(shoeDecks, shoePenetrationPercent, null));
+        } else {
+            game.setPlayers(updatedPlayers); // A table's later rounds reuse its game and shoe
+        }
+    }
+
+
+    @Override
+    public void setRandomGenerator(RandomGenerator random) {
+        game.setRandomGenerator(random);
     }
 
+    @Override
+    public int getShoeOffset() {
+        return game.getShoeOffset();
+    }
 
     @Override
     public void startGame() {
@@ -52,8 +78,16 @@ public class GameService implements IGameService {
 
     @Override
     public List<Player> executeBettingRound(int points) {
-        List<Player> updatedPlayers = game.betAndUpdatePlayerPoints(points, game.getPlayers());
-        updatePoints(updatedPlayers);
+        List<Player> seated = game.getPlayers();
+        int[] pointsBefore = PointsDelta.snapshot(seated);
+        List<Player> updatedPlayers = game.betAndUpdatePlayerPoints(points, seated);
+        for (int i = 0; i < pointsBefore.length; i++) {
+            Player player = seated.get(i);
+            int delta = player.getPoints() - pointsBefore[i];
+            if (delta != 0 && !player.isBot()) { // A delta, so a stale total held here never overwrites the stored one
+                playerService.addPoints(player.getPlayerId(), delta);
+            }
+        }
         return updatedPlayers;
     }
 
@@ -64,7 +98,9 @@ public class GameService implements IGameService {
 
     @Override
     public void updateProfile(Player player) {
-        playerService.updateProfile(player);
+        if (!player.isBot()) {
+            playerService.updateProfile(player);
+        }
     }
 
     @Override
@@ -76,7 +112,9 @@ public class GameService implements IGameService {
 
     @Override
     public void updatePoints(Player player) {
-        playerService.changePoints(player.getPlayerId(), player.getPoints());
+        if (!player.isBot()) { // Bots exist only in memory
+            playerService.changePoints(player.getPlayerId(), player.getPoints());
+        }
     }
 
     @Override
@@ -108,11 +146,17 @@ public class GameService implements IGameService {
      * Updates the points of existing players based on the data.
      * If a player with the same username is found in the data, their points are updated.
      *
+     * Players that are already current, and bots, are not looked up.
+     *
      * @param players the list of players to be checked and updated
+     * @param isCurrent tells which players are already current
      * @return the list of players with updated points
      */
-    private List<Player> updateExistingPlayers(List<Player> players) {
+    private List<Player> updateExistingPlayers(List<Player> players, Predicate<Player> isCurrent) {
         for (Player player : players) {
+            if (player.isBot() || isCurrent.test(player)) {
+                continue;
+            }
             Player existingPlayer = playerService.getPlayerByUsername(player.getUsername());
             if (existingPlayer != null) {
                 player.setPlayerId(existingPlayer.getPlayerId()); // preserve id
@@ -5,6 +5,8 @@ import com.topcard.domain.Player;
 import com.topcard.service.player.IPlayerService;
 
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.random.RandomGenerator;
 
 /**
  * The IGameService interface defines the contract for the GameService.
@@ -17,10 +19,25 @@ import java.util.List;
 public interface IGameService {
 
     /**
-     * Starts the game by shuffling the deck and dealing cards to players.
+     * Starts the game by shuffling the shoe if its cut card has come out and dealing cards to players.
+     * The shoe's size and cut card come from game.shoe.decks and game.shoe.penetrationPercent.
      */
     void startGame();
 
+    /**
+     * Sets the generator the shoe is shuffled with in later rounds. Must be called after setPlayers.
+     *
+     * @param random the generator, such as one made from a recorded round seed
+     */
+    void setRandomGenerator(RandomGenerator random);
+
+    /**
+     * Returns how many cards had been dealt from the shoe since its last shuffle when the current round began.
+     *
+     * @return the shoe offset of the current round, 0 if the shoe was shuffled for it
+     */
+    int getShoeOffset();
+
     /**
      * Returns a list of players' hands.
      *
@@ -44,6 +61,8 @@ public interface IGameService {
      * Must start game (startGame()) first before calling this function
      * The first player in the list is treated as the main player who places the bet,
      * and the points are updated based on the hand values of all players.
+     * Each player's win or loss is added to the stored points rather than overwriting them, so
+     * points won on another server or in another session are kept.
      *
      * @param points the amount of points each player bets
      * @return the list of players with updated points
@@ -100,5 +119,13 @@ public interface IGameService {
 
     void setPlayers(List<Player> players);
 
+    /**
+     * Sets the players for the next game, skipping the data lookup for players whose id and points are already current.
+     *
+     * @param players the players of the game
+     * @param isCurrent tells which players are already current, e.g. verified from a session ticket
+     */
+    void setPlayers(List<Player> players, Predicate<Player> isCurrent);
+
     IPlayerService getPlayerService();
 }
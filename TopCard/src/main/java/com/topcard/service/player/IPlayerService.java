@@ -63,6 +63,14 @@ public interface IPlayerService {
      */
     void changePoints(int playerId, int points);
 
+    /**
+     * Adds a round's win or loss to a player's stored points, leaving changes made elsewhere in place.
+     *
+     * @param playerId the ID of the player
+     * @param delta the points won, or negative points lost
+     */
+    void addPoints(int playerId, int delta);
+
     /**
      * Checks if a player is an admin.
      *
@@ -32,6 +32,7 @@ public class PlayerService implements IPlayerService {
     private static final Logger logger = LogManager.getLogger(PlayerService.class);
 
     private final IPlayerDao playerDao;
+    private volatile int passwordCost = 10; // BCrypt's default; the authentication server calibrates it on startup
 
     @Autowired
     public PlayerService(IPlayerDao playerDao) {
@@ -103,6 +104,13 @@ public class PlayerService implements IPlayerService {
         }
     }
 
+    @Override
+    public void addPoints(int playerId, int delta) {
+        if (!playerDao.addPoints(playerId, delta)) {
+            logger.warn("Cannot add points. Player with ID " + playerId + " not found.");
+        }
+    }
+
     @Override
     public boolean isPlayerAdmin(int playerId) {
         Optional<Player> optionalPlayer = playerDao.getPlayerById(playerId);
@@ -187,7 +195,16 @@ public class PlayerService implements IPlayerService {
      * @return the encrypted password
      */
     private String encryptPassword(String password) {
-        return BCrypt.hashpw(password, BCrypt.gensalt());
+        return BCrypt.hashpw(password, BCrypt.gensalt(passwordCost));
+    }
+
+    /**
+     * Sets the BCrypt cost for passwords hashed from now on. Existing hashes keep their cost.
+     *
+     * @param passwordCost the log2 of the number of BCrypt rounds
+     */
+    public void setPasswordCost(int passwordCost) {
+        this.passwordCost = passwordCost;
     }
 
     /**
@@ -0,0 +1,109 @@
+package com.topcard.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Reads application settings from config.properties on the classpath.
+ * A JVM system property with the same key (e.g. -Dgame.server.mode=nio) overrides the file value,
+ * so servers can be tuned from the launch scripts without rebuilding.
+ */
+public class ConfigUtil {
+
+    private static final Logger logger = LogManager.getLogger(ConfigUtil.class);
+
+    private static final Properties properties = new Properties();
+
+    static {
+        try (InputStream input = ConfigUtil.class.getClassLoader().getResourceAsStream("config.properties")) {
+            if (input != null) {
+                properties.load(input);
+            } else {
+                logger.warn("config.properties not found on classpath. Using default settings.");
+            }
+        } catch (IOException e) {
+            logger.error("Failed to load config.properties: " + e.getMessage());
+        }
+    }
+
+    private ConfigUtil() {}
+
+    /**
+     * Returns the value for the key, or the default if it is not configured.
+     */
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key, properties.getProperty(key));
+        return (value == null || value.trim().isEmpty()) ? defaultValue : value.trim();
+    }
+
+    /**
+     * Returns the value for the key as an int, or the default if it is missing or not a number.
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid number for " + key + ": " + value + ". Using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Returns the value for the key as a boolean, or the default if it is not configured.
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Returns the value for the key as an enum constant (case-insensitive), or the default if it is missing or unknown.
+     */
+    public static <E extends Enum<E>> E getEnum(String key, E defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(defaultValue.getDeclaringClass(), value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid value for " + key + ": " + value + ". Using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Returns a secret, which must never be passed on a command line: the key's value (for tests), else the
+     * environment variable, else the contents of the file named by the key plus "File".
+     *
+     * @return the secret, or null if none is set
+     * @throws IllegalStateException if the named file cannot be read
+     */
+    public static String getSecret(String key, String environmentVariable) {
+        String secret = getString(key, null);
+        if (secret == null) {
+            String env = System.getenv(environmentVariable);
+            secret = env == null || env.trim().isEmpty() ? null : env.trim();
+        }
+        String file = getString(key + "File", null);
+        if (secret == null && file != null) {
+            try {
+                secret = Files.readString(Path.of(file), StandardCharsets.UTF_8).trim();
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read " + key + "File " + file + ": " + e.getMessage(), e);
+            }
+        }
+        return secret == null || secret.isEmpty() ? null : secret;
+    }
+}
@@ -0,0 +1,43 @@
+package com.topcard.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * How a server runs its per-connection handlers.
+ * FIXED uses a bounded pool of platform threads, so connections beyond the pool size wait for a free thread.
+ * VIRTUAL starts one virtual thread per task, so blocking socket and JDBC calls scale with the number of clients.
+ */
+public enum ExecutorMode {
+    FIXED,
+    VIRTUAL;
+
+    private static final Logger logger = LogManager.getLogger(ExecutorMode.class);
+
+    /**
+     * Creates the executor for this mode.
+     *
+     * @param name     server name, used in log messages
+     * @param poolSize number of threads in FIXED mode; ignored in VIRTUAL mode
+     */
+    public ExecutorService newExecutor(String name, int poolSize) {
+        if (this == FIXED) {
+            logger.info(name + " handlers run on a fixed pool of " + poolSize + " threads");
+            return Executors.newFixedThreadPool(poolSize);
+        }
+        // Looked up at runtime so the build still targets Java 17; see the java21 profile in pom.xml
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            logger.info(name + " handlers run on virtual threads");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            logger.warn("Virtual threads need Java 21 or later (running " + Runtime.version().feature()
+                    + "). " + name + " handlers run on one platform thread per connection.");
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.topcard.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in power-of-two microsecond buckets (under 1 us, 1-2 us, 2-4 us, ...).
+ * Recording is one atomic increment, and percentiles are accurate to within a factor of two,
+ * which is enough to tell a healthy client from a struggling one.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 40; // Up to about 2^39 us, far beyond any timeout
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Records one duration.
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        int bucket = micros == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        counts.incrementAndGet(bucket);
+    }
+
+    /**
+     * @return durations recorded so far
+     */
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the upper bound of the bucket holding the given percentile.
+     *
+     * @param percentile between 0 and 100, e.g. 50 for the median or 99
+     * @return the duration in microseconds, or 0 if nothing has been recorded
+     */
+    public long getPercentileMicros(double percentile) {
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return 1L << i;
+            }
+        }
+        return 1L << (BUCKETS - 1);
+    }
+}
@@ -0,0 +1,293 @@
+package com.topcard.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Named counters, rate meters, gauges and latency histograms shared by the servers.
+ * <p>
+ * Names are dotted, and the part before the first dot is the group ({@code game.connections} is in group
+ * {@code game}). Once published, each group is a JMX MBean {@code com.topcard:type=Metrics,name=<group>} whose
+ * attributes are the group's current values, and the whole registry is logged periodically. Recording is a
+ * striped add or an atomic increment, so instrumenting a hot path costs next to nothing.
+ * </p>
+ */
+public class MetricsRegistry {
+
+    private static final Logger logger = LogManager.getLogger(MetricsRegistry.class);
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+    private static final String JMX_DOMAIN = "com.topcard";
+
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Map<String, Meter> meters = new ConcurrentHashMap<>();
+    private final Map<String, Supplier<? extends Number>> gauges = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final Set<String> publishedGroups = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean jmxPublished;
+    private ScheduledExecutorService snapshotLogger; // Guarded by this
+
+    /**
+     * @return the registry the servers, DAOs and protocol classes record into
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    public LongAdder counter(String name) {
+        return register(name, counters, LongAdder::new);
+    }
+
+    public Meter meter(String name) {
+        return register(name, meters, Meter::new);
+    }
+
+    public LatencyHistogram histogram(String name) {
+        return register(name, histograms, LatencyHistogram::new);
+    }
+
+    /**
+     * Publishes a histogram that is already kept elsewhere, replacing any under the same name.
+     */
+    public void histogram(String name, LatencyHistogram histogram) {
+        histograms.put(name, histogram);
+        groupAdded(name);
+    }
+
+    /**
+     * Publishes a value read on demand, replacing any gauge under the same name (such as one left by a
+     * server that was stopped and started again).
+     */
+    public void gauge(String name, Supplier<? extends Number> value) {
+        gauges.put(name, value);
+        groupAdded(name);
+    }
+
+    private <T> T register(String name, Map<String, T> metrics, Supplier<T> factory) {
+        T metric = metrics.get(name);
+        if (metric == null) {
+            metric = metrics.computeIfAbsent(name, key -> factory.get());
+            groupAdded(name);
+        }
+        return metric;
+    }
+
+    /**
+     * Returns every current value by name. Meters give {@code .count} and {@code .perSecond} (over the last
+     * minute); histograms give {@code .count}, {@code .p50Micros}, {@code .p95Micros} and {@code .p99Micros}.
+     *
+     * @param group only names in this group, or null for all
+     */
+    public SortedMap<String, Number> snapshot(String group) {
+        SortedMap<String, Number> values = new TreeMap<>();
+        String prefix = group == null ? "" : group + ".";
+        counters.forEach((name, counter) -> {
+            if (name.startsWith(prefix)) values.put(name, counter.sum());
+        });
+        long nowSeconds = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        meters.forEach((name, meter) -> {
+            if (name.startsWith(prefix)) {
+                values.put(name + ".count", meter.getCount());
+                values.put(name + ".perSecond", meter.getRatePerSecond(nowSeconds));
+            }
+        });
+        gauges.forEach((name, gauge) -> {
+            if (name.startsWith(prefix)) {
+                try {
+                    values.put(name, gauge.get());
+                } catch (RuntimeException e) {
+                    logger.debug("Gauge " + name + " failed: " + e.getMessage());
+                }
+            }
+        });
+        histograms.forEach((name, histogram) -> {
+            if (name.startsWith(prefix)) {
+                values.put(name + ".count", histogram.getCount());
+                values.put(name + ".p50Micros", histogram.getPercentileMicros(50));
+                values.put(name + ".p95Micros", histogram.getPercentileMicros(95));
+                values.put(name + ".p99Micros", histogram.getPercentileMicros(99));
+            }
+        });
+        return values;
+    }
+
+    /**
+     * Publishes the registry as configured by metrics.jmx and metrics.logIntervalMs (0 turns logging off).
+     * Both servers call this on start; only the first call has an effect.
+     */
+    public synchronized void start() {
+        if (ConfigUtil.getBoolean("metrics.jmx", true)) {
+            publishJmx();
+        }
+        int logIntervalMs = ConfigUtil.getInt("metrics.logIntervalMs", 60000);
+        if (logIntervalMs > 0 && snapshotLogger == null) {
+            snapshotLogger = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "metrics-log");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotLogger.scheduleAtFixedRate(() -> logger.info("Metrics: " + snapshot(null)), logIntervalMs, logIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Registers one MBean per group, now and for groups added later.
+     */
+    public void publishJmx() {
+        jmxPublished = true;
+        for (String name : snapshot(null).keySet()) {
+            groupAdded(name);
+        }
+    }
+
+    private void groupAdded(String name) {
+        if (!jmxPublished) {
+            return;
+        }
+        int dot = name.indexOf('.');
+        String group = dot > 0 ? name.substring(0, dot) : name;
+        if (!publishedGroups.add(group)) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=Metrics,name=" + group);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(new GroupMBean(group), objectName);
+            }
+        } catch (JMException e) {
+            logger.warn("Could not publish metrics group " + group + " over JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Counts events and their rate over the last minute in one-second slots.
+     */
+    public static final class Meter {
+        private static final int SLOTS = 60;
+
+        private final LongAdder count = new LongAdder();
+        private final AtomicLongArray slotCounts = new AtomicLongArray(SLOTS);
+        private final AtomicLongArray slotSeconds = new AtomicLongArray(SLOTS);
+
+        public void mark() {
+            mark(TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+        }
+
+        void mark(long nowSeconds) {
+            count.increment();
+            int slot = (int) (nowSeconds % SLOTS);
+            long slotSecond = slotSeconds.get(slot);
+            if (slotSecond != nowSeconds && slotSeconds.compareAndSet(slot, slotSecond, nowSeconds)) {
+                slotCounts.set(slot, 0); // First mark this second reuses the slot; a racing mark may be lost
+            }
+            slotCounts.incrementAndGet(slot);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * @return events per second over the last full minute
+         */
+        public double getRatePerSecond(long nowSeconds) {
+            long total = 0;
+            for (int slot = 0; slot < SLOTS; slot++) {
+                long age = nowSeconds - slotSeconds.get(slot);
+                if (age >= 1 && age <= SLOTS) {
+                    total += slotCounts.get(slot);
+                }
+            }
+            return (double) total / SLOTS;
+        }
+    }
+
+    /**
+     * Read-only MBean exposing one group's values as attributes named without the group prefix.
+     */
+    private final class GroupMBean implements DynamicMBean {
+        private final String group;
+
+        private GroupMBean(String group) {
+            this.group = group;
+        }
+
+        private Map<String, Number> values() {
+            Map<String, Number> values = new TreeMap<>();
+            snapshot(group).forEach((name, value) -> values.put(name.substring(group.length() + 1), value));
+            return values;
+        }
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            Number value = values().get(attribute);
+            if (value == null) {
+                throw new AttributeNotFoundException(attribute);
+            }
+            return value;
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            Map<String, Number> values = values();
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                if (values.containsKey(attribute)) {
+                    list.add(new Attribute(attribute, values.get(attribute)));
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            Map<String, Number> values = values();
+            MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[values.size()];
+            int i = 0;
+            for (Map.Entry<String, Number> entry : values.entrySet()) {
+                attributes[i++] = new MBeanAttributeInfo(entry.getKey(), entry.getValue().getClass().getName(),
+                        group + "." + entry.getKey(), true, false, false);
+            }
+            return new MBeanInfo(getClass().getName(), "TopCard " + group + " metrics", attributes, null, null, null);
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) {
+            throw new UnsupportedOperationException("Metrics are read-only");
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) {
+            throw new UnsupportedOperationException("Metrics have no operations");
+        }
+    }
+}
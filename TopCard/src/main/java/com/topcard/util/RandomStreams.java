@@ -0,0 +1,76 @@
+package com.topcard.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Random number streams for shuffling, from a splittable generator family (game.rng.algorithm, by default
+ * L64X128MixRandom).
+ * <p>
+ * The server keeps one root stream and splits an independent stream off it for every table, so tables shuffle
+ * in parallel without sharing a generator. Each round draws a seed from its table's stream, and if the round
+ * shuffles the table's shoe it does so with a generator made from that seed alone. A shuffle always starts from
+ * the cards in order, so the seed of the shuffle and the number of cards dealt since (the shoe offset), both
+ * logged with each round, are enough to rebuild the round's cards. Setting game.rng.seed makes the whole server
+ * reproducible.
+ * </p>
+ */
+public final class RandomStreams {
+
+    private static final Logger logger = LogManager.getLogger(RandomStreams.class);
+
+    public static final String DEFAULT_ALGORITHM = "L64X128MixRandom";
+
+    private static final RandomGeneratorFactory<SplittableGenerator> FACTORY =
+            splittableFactory(ConfigUtil.getString("game.rng.algorithm", DEFAULT_ALGORITHM));
+
+    private RandomStreams() {}
+
+    /**
+     * Creates the root stream, seeded by game.rng.seed if set and randomly otherwise.
+     */
+    public static SplittableGenerator newRoot() {
+        String seed = ConfigUtil.getString("game.rng.seed", null);
+        if (seed != null) {
+            try {
+                logger.info("Shuffles are seeded from game.rng.seed=" + seed);
+                return FACTORY.create(Long.parseLong(seed));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid number for game.rng.seed: " + seed + ". Using a random seed.");
+            }
+        }
+        return FACTORY.create();
+    }
+
+    /**
+     * Creates the generator for a recorded seed. The same seed always gives the same shuffles.
+     */
+    public static RandomGenerator forSeed(long seed) {
+        return FACTORY.create(seed);
+    }
+
+    /**
+     * @return the generator family in use
+     */
+    public static String getAlgorithm() {
+        return FACTORY.name();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RandomGeneratorFactory<SplittableGenerator> splittableFactory(String algorithm) {
+        try {
+            RandomGeneratorFactory<RandomGenerator> factory = RandomGeneratorFactory.of(algorithm);
+            if (factory.isSplittable()) {
+                return (RandomGeneratorFactory<SplittableGenerator>) (RandomGeneratorFactory<?>) factory;
+            }
+            logger.warn("Random generator " + algorithm + " is not splittable. Using " + DEFAULT_ALGORITHM);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unknown random generator " + algorithm + ". Using " + DEFAULT_ALGORITHM);
+        }
+        return RandomGeneratorFactory.of(DEFAULT_ALGORITHM);
+    }
+}
@@ -1,12 +1,32 @@
 package com.topcard;
 
+import com.topcard.loadtest.LoadGeneratorTest;
+import com.topcard.network.BinaryCodecTest;
+import com.topcard.network.DrainTest;
+import com.topcard.network.EncodedMessageTest;
 import com.topcard.network.GameClientTest;
 import com.topcard.network.GameServerTest;
+import com.topcard.network.HeartbeatTest;
+import com.topcard.network.LobbySchedulerTest;
+import com.topcard.network.MatchmakingQueueTest;
+import com.topcard.network.NioGameServerTest;
+import com.topcard.network.ObjectStreamChannelTest;
+import com.topcard.network.OutboundQueueTest;
+import com.topcard.network.ReplayBufferTest;
+import com.topcard.network.PlayerSessionCacheTest;
+import com.topcard.network.ResumeTest;
 import com.topcard.network.SocketGameControllerTest;
+import com.topcard.network.TableRegistryTest;
+import com.topcard.network.authentication.AuthClientTest;
+import com.topcard.network.authentication.LoginThrottleTest;
+import com.topcard.network.authentication.PasswordVerifierTest;
+import com.topcard.network.authentication.TicketSignerTest;
+import com.topcard.network.router.LobbyRouterTest;
+import com.topcard.network.router.NodeDirectoryTest;
 import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.Suite;
 
 @Suite
-@SelectClasses({GameServerTest.class, SocketGameControllerTest.class, GameClientTest.class})
+@SelectClasses({GameServerTest.class, NioGameServerTest.class, SocketGameControllerTest.class, GameClientTest.class, TableRegistryTest.class, PlayerSessionCacheTest.class, LobbySchedulerTest.class, MatchmakingQueueTest.class, HeartbeatTest.class, ResumeTest.class, ReplayBufferTest.class, DrainTest.class, BinaryCodecTest.class, ObjectStreamChannelTest.class, OutboundQueueTest.class, EncodedMessageTest.class, AuthClientTest.class, TicketSignerTest.class, LoginThrottleTest.class, PasswordVerifierTest.class, NodeDirectoryTest.class, LobbyRouterTest.class, LoadGeneratorTest.class})
 public class NetworkTests {
 }
@@ -0,0 +1,98 @@
+package com.topcard.business;
+
+import com.topcard.domain.Card;
+import com.topcard.domain.Player;
+import com.topcard.service.game.GameService;
+import com.topcard.service.player.IPlayerService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests the in-memory bot players that fill empty seats.
+ */
+public class BotPoolTest {
+
+    @Test
+    void testBotsHaveReservedIdsAndStartingPoints() {
+        BotPool pool = new BotPool(4, 100);
+
+        List<Player> bots = pool.borrow(3);
+
+        assertEquals(3, bots.size());
+        for (Player bot : bots) {
+            assertTrue(bot.isBot());
+            assertTrue(bot.getPlayerId() < 0);
+            assertTrue(bot.getUsername().startsWith(BotPool.USERNAME_PREFIX));
+            assertEquals(100, bot.getPoints());
+        }
+        assertFalse(new Player("human", "password", "First", "Last", LocalDate.of(2000, 1, 1)).isBot());
+    }
+
+    @Test
+    void testBotsInUseAreDistinctAndIdentitiesAreReused() {
+        BotPool pool = new BotPool(2, 100);
+
+        List<Player> first = pool.borrow(3); // One more than the pool holds
+        Set<String> names = new HashSet<>();
+        first.forEach(bot -> names.add(bot.getUsername()));
+        assertEquals(3, names.size());
+        assertEquals(0, pool.getIdleCount());
+
+        first.get(0).setPoints(-40);
+        pool.release(first);
+        assertEquals(2, pool.getIdleCount(), "Releases beyond the pool size are dropped");
+
+        Player again = pool.borrow(1).get(0);
+        assertTrue(names.contains(again.getUsername()));
+        assertEquals(100, again.getPoints(), "A borrowed bot starts fresh");
+    }
+
+    @Test
+    void testReleaseIgnoresHumans() {
+        BotPool pool = new BotPool(2, 100);
+        List<Player> table = new ArrayList<>(pool.borrow(2));
+        Player human = new Player("human", "password", "First", "Last", LocalDate.of(2000, 1, 1));
+        human.setPlayerId(7);
+        table.add(human);
+
+        pool.release(table);
+
+        assertEquals(2, pool.getIdleCount());
+    }
+
+    @Test
+    void testBotsAreNeverLookedUpOrSaved() {
+        IPlayerService playerService = Mockito.mock(IPlayerService.class);
+        GameService gameService = new GameService(playerService);
+        List<Player> players = new ArrayList<>(new BotPool(4, 100).borrow(3));
+        Player human = new Player("human", "password", "First", "Last", LocalDate.of(2000, 1, 1));
+        human.setPlayerId(7);
+        players.add(0, human);
+
+        gameService.setPlayers(players);
+        gameService.startGame();
+        gameService.dealCards();
+        human.setHand(new Card[] { Card.of(Card.Suit.HEARTS, Card.Rank.KING), Card.of(Card.Suit.HEARTS, Card.Rank.QUEEN), Card.of(Card.Suit.HEARTS, Card.Rank.JACK) });
+        for (Player bot : players.subList(1, players.size())) {
+            bot.setHand(new Card[] { Card.of(Card.Suit.CLUBS, Card.Rank.ACE), Card.of(Card.Suit.CLUBS, Card.Rank.TWO), Card.of(Card.Suit.CLUBS, Card.Rank.THREE) });
+        }
+        gameService.executeBettingRound(1);
+
+        verify(playerService, never()).getPlayerByUsername(startsWith(BotPool.USERNAME_PREFIX));
+        verify(playerService).addPoints(7, 3); // The human beat all three bots
+        verify(playerService, Mockito.times(1)).addPoints(anyInt(), anyInt());
+        verify(playerService, never()).changePoints(anyInt(), anyInt());
+    }
+}
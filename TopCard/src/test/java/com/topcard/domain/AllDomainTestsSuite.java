@@ -9,7 +9,7 @@ import org.junit.runners.Suite;
  *
  */
 @RunWith(Suite.class)
-@Suite.SuiteClasses({CardTest.class, DeckTest.class, PlayerTest.class, GameTest.class})
+@Suite.SuiteClasses({CardTest.class, DeckTest.class, PlayerTest.class, GameTest.class, PointsDeltaTest.class, ShoeTest.class})
 public class AllDomainTestsSuite {
     // This class remains empty. Nothing needs to be written.
 }
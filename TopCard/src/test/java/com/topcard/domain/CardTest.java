@@ -65,4 +65,34 @@ public class CardTest {
         assertEquals(6, card.getCardsValue(cards));
 
     }
+
+    @Test
+    public void testSharedCardsByCode() {
+        Card kingOfSpades = Card.of(Card.Suit.SPADES, Card.Rank.KING);
+        assertSame(kingOfSpades, Card.of(kingOfSpades.getCode()));
+        assertEquals(new Card(Card.Suit.SPADES, Card.Rank.KING), kingOfSpades);
+        assertEquals(0, Card.of(Card.Suit.HEARTS, Card.Rank.ACE).getCode());
+        assertEquals(51, kingOfSpades.getCode());
+        assertEquals(11, Card.totalValue(new Card[]{Card.of(0), kingOfSpades, null}));
+    }
+
+    @Test
+    public void testHandKeyRanksByValueThenBestCard() {
+        for (Card.Rank first : Card.Rank.values()) {
+            for (Card.Rank second : Card.Rank.values()) {
+                for (Card.Rank third : Card.Rank.values()) {
+                    Card[] hand = { Card.of(Card.Suit.HEARTS, first), Card.of(Card.Suit.CLUBS, second), Card.of(Card.Suit.SPADES, third) };
+                    int key = Card.handKey(hand);
+                    assertEquals(Card.totalValue(hand), Card.handValue(key));
+                    int bestPrecedence = Math.min(first.getPrecedence(), Math.min(second.getPrecedence(), third.getPrecedence()));
+                    assertEquals(14 - bestPrecedence, Card.handPrecedenceRank(key));
+                    assertEquals(key, Card.handKey(new Card[] { hand[0], hand[1], hand[2], null }), "The table agrees with the loop");
+                }
+            }
+        }
+        Card[] kingHigh = { Card.of(Card.Suit.HEARTS, Card.Rank.KING), Card.of(Card.Suit.HEARTS, Card.Rank.FIVE) };
+        Card[] tenHigh = { Card.of(Card.Suit.HEARTS, Card.Rank.TEN), Card.of(Card.Suit.HEARTS, Card.Rank.FIVE) };
+        assertTrue(Card.handKey(kingHigh) > Card.handKey(tenHigh), "Same total, the king wins");
+        assertEquals(0, Card.handKey(new Card[3]));
+    }
 }
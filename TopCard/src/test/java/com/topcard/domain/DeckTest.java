@@ -3,6 +3,10 @@ package com.topcard.domain;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.Test;
 
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
 public class DeckTest {
 
     @Test
@@ -46,4 +50,33 @@ public class DeckTest {
         assertNotNull(deckStr);
         assertTrue(deckStr.contains("ACE OF SPADES"), "A new Deck must contain ACE OF SPADES.");
     }
+
+    @Test
+    public void testShuffleAndResetReuseTheDeck() {
+        Deck deck = new Deck();
+        for (int round = 0; round < 3; round++) {
+            deck.shuffle();
+            Set<Card> dealt = new HashSet<>();
+            for (int i = 0; i < 52; i++) {
+                Card card = deck.deal();
+                assertSame(Card.of(card.getCode()), card, "Decks deal the shared cards");
+                dealt.add(card);
+            }
+            assertEquals(52, dealt.size(), "Every shuffle keeps all 52 cards");
+            assertEquals(-1, deck.dealCode());
+        }
+        deck.reset();
+        assertEquals(52, deck.getRemainingCards());
+    }
+
+    @Test
+    public void testSameGeneratorSeedGivesSameOrder() {
+        Deck first = new Deck(new SplittableRandom(42));
+        Deck second = new Deck();
+        first.shuffle();
+        second.shuffle(new SplittableRandom(42));
+        for (int i = 0; i < 52; i++) {
+            assertSame(first.deal(), second.deal());
+        }
+    }
 }
@@ -67,4 +67,17 @@ public class GameTest {
         assertEquals(1, winners.size());
         assertEquals(player1, winners.get(0));
     }
+
+    @Test
+    public void testDetermineWinnerByValueThenBestCard() {
+        player1.setHand(new Card[] { Card.of(Card.Suit.SPADES, Card.Rank.TEN), Card.of(Card.Suit.SPADES, Card.Rank.FIVE) });
+        player2.setHand(new Card[] { Card.of(Card.Suit.HEARTS, Card.Rank.KING), Card.of(Card.Suit.HEARTS, Card.Rank.FIVE) });
+        player3.setHand(new Card[] { Card.of(Card.Suit.CLUBS, Card.Rank.KING), Card.of(Card.Suit.CLUBS, Card.Rank.FIVE) });
+
+        List<Player> winners = game.determineWinner();
+        assertEquals(Arrays.asList(player2, player3), winners);
+
+        player1.setHand(new Card[] { Card.of(Card.Suit.SPADES, Card.Rank.TEN), Card.of(Card.Suit.SPADES, Card.Rank.SIX) });
+        assertEquals(Arrays.asList(player1), game.determineWinner());
+    }
 }
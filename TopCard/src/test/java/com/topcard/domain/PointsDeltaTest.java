@@ -0,0 +1,35 @@
+package com.topcard.domain;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.Arrays;
+import java.util.List;
+
+public class PointsDeltaTest {
+
+    private Player newPlayer(String username, int points) {
+        Player player = new Player();
+        player.setUsername(username);
+        player.setPoints(points);
+        return player;
+    }
+
+    @Test
+    public void testDeltasFollowSeatOrder() {
+        List<Player> players = Arrays.asList(newPlayer("a", 100), newPlayer("b", 50), newPlayer("c", 0));
+        int[] before = PointsDelta.snapshot(players);
+
+        players.get(0).setPoints(120);
+        players.get(1).setPoints(40);
+        players.get(2).setPoints(-10);
+        List<PointsDelta> deltas = PointsDelta.between(before, players);
+
+        assertEquals(3, deltas.size());
+        assertEquals(0, deltas.get(0).getSeat());
+        assertEquals(20, deltas.get(0).getDelta());
+        assertEquals(120, deltas.get(0).getNewTotal());
+        assertEquals(2, deltas.get(2).getSeat());
+        assertEquals(-10, deltas.get(2).getDelta());
+        assertEquals(-10, deltas.get(2).getNewTotal());
+    }
+}
@@ -0,0 +1,80 @@
+package com.topcard.domain;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class ShoeTest {
+
+    @Test
+    public void testShoeHoldsEveryCardOfEachDeck() {
+        Shoe shoe = new Shoe(2, 75, new SplittableRandom(7));
+        shoe.shuffle();
+        int[] counts = new int[Card.NUM_OF_CODES];
+        for (int code = shoe.dealCode(); code >= 0; code = shoe.dealCode()) {
+            counts[code]++;
+        }
+        for (int count : counts) {
+            assertEquals("Each card appears once per deck", 2, count);
+        }
+    }
+
+    @Test
+    public void testShuffleOnlyAtTheCutCard() {
+        Shoe shoe = new Shoe(2, 50, new SplittableRandom(7)); // Cut card after 52 of 104 cards
+        assertTrue("A new shoe is never dealt in order", shoe.needsShuffle(9));
+        shoe.shuffle();
+        for (int round = 0; round < 5; round++) { // 45 cards
+            assertFalse(shoe.needsShuffle(9));
+            for (int i = 0; i < 9; i++) {
+                shoe.deal();
+            }
+        }
+        assertFalse(shoe.needsShuffle(9));
+        for (int i = 0; i < 9; i++) {
+            shoe.deal();
+        }
+        assertTrue("54 cards dealt, past the cut card", shoe.needsShuffle(9));
+        shoe.shuffle();
+        assertEquals(0, shoe.getDealtCards());
+    }
+
+    @Test
+    public void testZeroPenetrationShufflesEveryRound() {
+        Shoe shoe = new Shoe(1);
+        shoe.shuffle();
+        assertTrue(shoe.needsShuffle(3));
+    }
+
+    @Test
+    public void testShuffleWhenTooFewCardsAreLeft() {
+        Shoe shoe = new Shoe(1, 100, null);
+        shoe.shuffle();
+        for (int i = 0; i < 50; i++) {
+            shoe.deal();
+        }
+        assertFalse(shoe.needsShuffle(2));
+        assertTrue(shoe.needsShuffle(3));
+    }
+
+    @Test
+    public void testGameDealsRoundsFromOneShoe() {
+        List<Player> players = Arrays.asList(
+                new Player("username1", "password", "firstName1", "lastName1", LocalDate.of(2000, 1, 1)),
+                new Player("username2", "password", "firstName2", "lastName2", LocalDate.of(2000, 2, 1)));
+        Game game = new Game(players, new Shoe(6, 75, new SplittableRandom(7)));
+        game.startGame();
+        game.startGame();
+        assertEquals("The second round is dealt on from the first", 12, game.getShoe().getDealtCards());
+        assertEquals(6, game.getShoeOffset());
+    }
+
+    @Test
+    public void testInvalidShoe() {
+        assertThrows(IllegalArgumentException.class, () -> new Shoe(0));
+        assertThrows(IllegalArgumentException.class, () -> new Shoe(1, 101, null));
+    }
+}
@@ -0,0 +1,77 @@
+package com.topcard.loadtest;
+
+import com.topcard.loadtest.LoadReport.Stage;
+import com.topcard.network.game.GameServer;
+import com.topcard.network.protocol.WireProtocol;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the load generator's bots connect and join a live GameServer and that failures are reported.
+ * Rounds need the database, so these runs stop after joining.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class LoadGeneratorTest {
+
+    private static final Logger logger = LogManager.getLogger(LoadGeneratorTest.class);
+    private static final int TEST_PORT = 12349;
+    private static final int UNUSED_PORT = 12399;
+
+    private GameServer server;
+    private Thread serverThread;
+
+    @BeforeAll
+    void setupAll() throws InterruptedException {
+        server = new GameServer();
+        server.setPort(TEST_PORT);
+        serverThread = new Thread(() -> {
+            try {
+                server.start();
+            } catch (Exception e) {
+                logger.debug("Load generator test server stopped: {}", e.getMessage());
+            }
+        });
+        serverThread.setDaemon(true);
+        serverThread.start();
+        TimeUnit.MILLISECONDS.sleep(500); // Give server time to bind
+    }
+
+    @AfterAll
+    void tearDownAll() throws IOException, InterruptedException {
+        server.stop();
+        serverThread.join(2000);
+    }
+
+    private LoadPlan plan(int bots, int gamePort) {
+        return new LoadPlan(bots, 100, 0, 0, "localhost", 0, gamePort, false, false, "password", WireProtocol.BINARY, 2000);
+    }
+
+    @Test
+    void testBotsConnectAndJoin() throws InterruptedException {
+        LoadReport report = new LoadGenerator(plan(6, TEST_PORT), "joinbot").run();
+
+        assertEquals(6, report.getCount(Stage.CONNECT));
+        assertEquals(6, report.getCount(Stage.JOIN));
+        assertEquals(0, report.getFailures(Stage.JOIN));
+        assertTrue(report.getPercentileMicros(Stage.JOIN, 99) > 0);
+        assertTrue(report.getThroughput(Stage.JOIN) > 0);
+        assertTrue(report.summary().contains("join-to-deal"));
+    }
+
+    @Test
+    void testUnreachableServerIsReportedAsConnectFailures() throws InterruptedException {
+        LoadReport report = new LoadGenerator(plan(3, UNUSED_PORT), "lostbot").run();
+
+        assertEquals(0, report.getCount(Stage.CONNECT));
+        assertEquals(3, report.getFailures(Stage.CONNECT));
+    }
+}
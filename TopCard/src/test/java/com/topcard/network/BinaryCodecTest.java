@@ -0,0 +1,153 @@
+package com.topcard.network;
+
+import com.topcard.domain.Card;
+import com.topcard.domain.Player;
+import com.topcard.domain.PointsDelta;
+import com.topcard.domain.RoundResult;
+import com.topcard.network.game.GameMessage;
+import com.topcard.network.protocol.BinaryCodec;
+import com.topcard.network.protocol.SerializationCodec;
+import com.topcard.network.router.NodeStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the compact binary message encoding.
+ */
+public class BinaryCodecTest {
+
+    private final BinaryCodec codec = new BinaryCodec();
+
+    private GameMessage roundTrip(GameMessage message) throws IOException {
+        byte[] payload = codec.encode(message);
+        return codec.decode(payload, 0, payload.length);
+    }
+
+    private Player newPlayer(int id, String username, int points) {
+        Player player = new Player(username, "$2a$10$hash", "First" + id, "Last", null);
+        player.setPlayerId(id);
+        player.setPoints(points);
+        return player;
+    }
+
+    @Test
+    void testPlayersKeepIdPointsAndNamesButNotPassword() throws IOException {
+        List<Player> players = List.of(newPlayer(1, "alice", 120), newPlayer(2, "bob", -5));
+
+        GameMessage decoded = roundTrip(new GameMessage("POINTS_UPDATED", players));
+
+        assertEquals("POINTS_UPDATED", decoded.getType());
+        @SuppressWarnings("unchecked")
+        List<Player> decodedPlayers = (List<Player>) decoded.getPayload();
+        assertEquals(2, decodedPlayers.size());
+        assertEquals(2, decodedPlayers.get(1).getPlayerId());
+        assertEquals(-5, decodedPlayers.get(1).getPoints());
+        assertEquals("bob", decodedPlayers.get(1).getUsername());
+        assertEquals("First2", decodedPlayers.get(1).getFirstName());
+        assertNull(decodedPlayers.get(0).getPassword());
+    }
+
+    @Test
+    void testPointsDeltasRoundTrip() throws IOException {
+        List<PointsDelta> deltas = List.of(new PointsDelta(0, 30, 130), new PointsDelta(1, -10, 40), new PointsDelta(2, -20, -20));
+
+        GameMessage decoded = roundTrip(new GameMessage("POINTS_UPDATED", deltas));
+
+        @SuppressWarnings("unchecked")
+        List<PointsDelta> decodedDeltas = (List<PointsDelta>) decoded.getPayload();
+        assertEquals(3, decodedDeltas.size());
+        assertEquals(1, decodedDeltas.get(1).getSeat());
+        assertEquals(-10, decodedDeltas.get(1).getDelta());
+        assertEquals(-20, decodedDeltas.get(2).getNewTotal());
+        assertTrue(codec.encode(new GameMessage("POINTS_UPDATED", deltas)).length < 16, "Three bytes per seat plus the header");
+    }
+
+    @Test
+    void testNodeStatusRoundTrip() throws IOException {
+        NodeStatus status = new NodeStatus("localhost:12346", 12, 45, 3, 1000, true);
+
+        GameMessage decoded = roundTrip(new GameMessage("NODE_STATUS", status));
+
+        assertEquals("NODE_STATUS", decoded.getType());
+        assertEquals(status, decoded.getPayload());
+    }
+
+    @Test
+    void testRoundResultRoundTrip() throws IOException {
+        Card[] hand = {new Card(Card.Suit.HEARTS, Card.Rank.ACE), new Card(Card.Suit.CLUBS, Card.Rank.TWO), new Card(Card.Suit.SPADES, Card.Rank.KING)};
+        List<Player> seats = List.of(newPlayer(1, "alice", 130), newPlayer(2, "bob", 40));
+        RoundResult result = new RoundResult(seats, List.of(hand, hand), List.of(new PointsDelta(0, 30, 130), new PointsDelta(1, -30, 40)), new int[]{0});
+
+        RoundResult decoded = (RoundResult) roundTrip(new GameMessage("ROUND_RESULT", result)).getPayload();
+
+        assertEquals(2, decoded.getSeats().size());
+        assertEquals(Card.Rank.KING, decoded.getHands().get(1)[2].getRank());
+        assertEquals(-30, decoded.getPointsDeltas().get(1).getDelta());
+        assertEquals("alice", decoded.getWinners(decoded.getSeats()).get(0).getUsername());
+
+        RoundResult unchangedSeating = new RoundResult(null, result.getHands(), result.getPointsDeltas(), result.getWinnerSeats());
+        assertNull(((RoundResult) roundTrip(new GameMessage("ROUND_RESULT", unchangedSeating)).getPayload()).getSeats());
+    }
+
+    @Test
+    void testLoginCarriesCredentials() throws IOException {
+        Player decoded = (Player) roundTrip(new GameMessage("LOGIN", newPlayer(1, "alice", 100))).getPayload();
+
+        assertEquals("alice", decoded.getUsername());
+        assertEquals("$2a$10$hash", decoded.getPassword());
+    }
+
+    @Test
+    void testHandsUseOneBytePerCard() throws IOException {
+        Card[] hand = {new Card(Card.Suit.SPADES, Card.Rank.KING), new Card(Card.Suit.HEARTS, Card.Rank.ACE), null};
+        GameMessage message = new GameMessage("HANDS", List.<Card[]>of(hand));
+
+        assertEquals(1 + 1 + 1 + 1 + 1 + 3, codec.encode(message).length); // opcode, request id, tag, hand count, card count, cards
+
+        @SuppressWarnings("unchecked")
+        Card[] decoded = ((List<Card[]>) roundTrip(message).getPayload()).get(0);
+        assertArrayEquals(hand, decoded);
+    }
+
+    @Test
+    void testRequestIdAndRegistrationRoundTrip() throws IOException {
+        Player player = newPlayer(1, "alice", 100);
+        player.setDateOfBirth(java.time.LocalDate.of(1950, 2, 3));
+
+        GameMessage decoded = roundTrip(new GameMessage("REGISTER", player, 42));
+
+        assertEquals(42, decoded.getRequestId());
+        Player registered = (Player) decoded.getPayload();
+        assertEquals("$2a$10$hash", registered.getPassword());
+        assertEquals("Last", registered.getLastName());
+        assertEquals(player.getDateOfBirth(), registered.getDateOfBirth());
+    }
+
+    @Test
+    void testUnknownTypeAndSimplePayloadsRoundTrip() throws IOException {
+        assertEquals(3, roundTrip(new GameMessage("Game Lobby - Number of Players:", 3)).getPayload());
+        assertNull(roundTrip(new GameMessage("START_GAME", null)).getPayload());
+
+        GameMessage custom = roundTrip(new GameMessage("CUSTOM", "text"));
+        assertEquals("CUSTOM", custom.getType());
+        assertEquals("text", custom.getPayload());
+    }
+
+    @Test
+    void testMuchSmallerThanJavaSerialization() throws IOException {
+        GameMessage message = new GameMessage("WINNERS", List.of(newPlayer(1, "alice", 120)));
+        assertTrue(codec.encode(message).length * 10 < new SerializationCodec().encode(message).length);
+    }
+
+    @Test
+    void testMalformedFramesAreRejected() {
+        assertThrows(IOException.class, () -> codec.decode(new byte[]{(byte) 99}, 0, 1), "Unknown opcode");
+        assertThrows(IOException.class, () -> codec.decode(new byte[]{5, 5, 1, 1, 60}, 0, 5), "Card out of range");
+        assertThrows(IOException.class, () -> codec.decode(new byte[]{1, 3}, 0, 2), "Truncated player");
+        assertThrows(IOException.class, () -> codec.encode(new GameMessage("JOIN", new Object())));
+    }
+}
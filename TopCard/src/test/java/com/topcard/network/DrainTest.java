@@ -0,0 +1,97 @@
+package com.topcard.network;
+
+import com.topcard.domain.Player;
+import com.topcard.network.game.ClientConnection;
+import com.topcard.network.game.GameMessage;
+import com.topcard.network.game.GameServer;
+import com.topcard.network.protocol.MessageChannel;
+import com.topcard.network.protocol.WireProtocol;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests that draining the GameServer tells clients where to go before disconnecting them.
+ */
+public class DrainTest {
+
+    private static final Logger logger = LogManager.getLogger(DrainTest.class);
+    private static final int TEST_PORT = 12350;
+
+    private GameServer server;
+    private Thread serverThread;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        server = new GameServer();
+        server.setPort(TEST_PORT);
+        server.setDrainRedirect("standby.example:12345");
+        serverThread = new Thread(() -> {
+            try {
+                server.start();
+            } catch (Exception e) {
+                logger.debug("Drain test server stopped: {}", e.getMessage());
+            }
+        });
+        serverThread.setDaemon(true);
+        serverThread.start();
+        TimeUnit.MILLISECONDS.sleep(500); // Give server time to bind
+    }
+
+    @AfterEach
+    void tearDown() throws IOException, InterruptedException {
+        server.stop();
+        serverThread.join(2000);
+    }
+
+    @Test
+    void testDrainSendsRedirectThenDisconnects() throws Exception {
+        Player player = new Player();
+        player.setUsername("drainUser");
+        try (Socket socket = new Socket("localhost", TEST_PORT);
+             MessageChannel channel = WireProtocol.BINARY.open(socket)) {
+            socket.setSoTimeout(2000);
+            channel.send(new GameMessage("JOIN", player));
+            assertEquals("Game Lobby - Number of Players:", channel.receive().getType());
+
+            assertTrue(server.drain(), "No round was in progress");
+
+            GameMessage shutdown = channel.receive();
+            while ("PING".equals(shutdown.getType())) {
+                shutdown = channel.receive();
+            }
+            assertEquals("SHUTDOWN", shutdown.getType());
+            assertEquals("standby.example:12345", shutdown.getPayload());
+            assertThrows(IOException.class, channel::receive, "Server should close after SHUTDOWN");
+        }
+        assertTrue(server.isDraining());
+        assertTrue(server.getConnectedPlayers().isEmpty());
+    }
+
+    @Test
+    void testJoinWhileDrainingIsRedirected() throws Exception {
+        server.drain();
+
+        ClientConnection connection = Mockito.mock(ClientConnection.class);
+        Player player = new Player();
+        player.setUsername("lateUser");
+        assertFalse(server.registerPlayer(connection, new GameMessage("JOIN", player)));
+
+        ArgumentCaptor<GameMessage> sent = ArgumentCaptor.forClass(GameMessage.class);
+        verify(connection).send(sent.capture());
+        assertEquals("SHUTDOWN", sent.getValue().getType());
+        assertEquals("standby.example:12345", sent.getValue().getPayload());
+        verify(connection).closeGracefully();
+    }
+}
@@ -0,0 +1,87 @@
+package com.topcard.network;
+
+import com.topcard.domain.Card;
+import com.topcard.domain.Player;
+import com.topcard.domain.PointsDelta;
+import com.topcard.domain.RoundResult;
+import com.topcard.network.game.GameMessage;
+import com.topcard.network.protocol.BinaryCodec;
+import com.topcard.network.protocol.EncodedMessage;
+import com.topcard.network.protocol.FrameCodec;
+import com.topcard.network.protocol.SerializationCodec;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that broadcast messages are encoded once per codec and shared between recipients.
+ */
+public class EncodedMessageTest {
+
+    private GameMessage winners() {
+        Player player = new Player();
+        player.setUsername("alice");
+        player.setPoints(120);
+        return new GameMessage("WINNERS", List.of(player));
+    }
+
+    @Test
+    void testFrameIsEncodedOncePerCodec() throws IOException {
+        EncodedMessage encoded = new EncodedMessage(winners());
+        BinaryCodec binary = new BinaryCodec();
+
+        ByteBuffer first = encoded.frameBuffer(binary);
+        ByteBuffer second = encoded.frameBuffer(new BinaryCodec());
+        encoded.frameBuffer(new SerializationCodec());
+
+        assertEquals(2, encoded.getEncodeCount());
+        assertEquals(FrameCodec.encodeFrame(binary, winners()), first);
+        assertEquals(first, second);
+        assertTrue(first.isReadOnly());
+        assertEquals(first.remaining(), encoded.getBytesSaved(), "The second binary recipient reused the frame");
+    }
+
+    @Test
+    void testRoundResultEncodedAfterNextDealKeepsItsRound() throws IOException {
+        Player player = new Player();
+        player.setUsername("alice");
+        player.setPoints(120);
+        Card[] hand = {Card.of(Card.Suit.HEARTS, Card.Rank.SIX), Card.of(Card.Suit.CLUBS, Card.Rank.JACK)};
+        EncodedMessage encoded = new EncodedMessage(new GameMessage("ROUND_RESULT",
+                new RoundResult(List.of(player), List.<Card[]>of(hand), List.of(new PointsDelta(0, 20, 120)), new int[]{0})));
+
+        hand[0] = Card.of(Card.Suit.HEARTS, Card.Rank.THREE); // The next deal refills the player's hand array
+        player.setPoints(90);
+
+        SerializationCodec codec = new SerializationCodec();
+        ByteBuffer frame = encoded.frameBuffer(codec);
+        frame.position(frame.position() + FrameCodec.LENGTH_FIELD_SIZE);
+        byte[] payload = new byte[frame.remaining()];
+        frame.get(payload);
+        RoundResult decoded = (RoundResult) codec.decode(payload, 0, payload.length).getPayload();
+        assertEquals(Card.of(Card.Suit.HEARTS, Card.Rank.SIX), decoded.getHands().get(0)[0]);
+        assertEquals(120, decoded.getSeats().get(0).getPoints());
+    }
+
+    @Test
+    void testEachRecipientGetsItsOwnPosition() throws IOException {
+        EncodedMessage encoded = new EncodedMessage(winners());
+        ByteBuffer first = encoded.frameBuffer(new BinaryCodec());
+        first.position(first.limit()); // As if fully written to one client
+
+        assertEquals(0, encoded.frameBuffer(new BinaryCodec()).position());
+    }
+
+    @Test
+    void testSingleRecipientSavesNothing() throws IOException {
+        EncodedMessage encoded = new EncodedMessage(winners());
+        encoded.frameBuffer(new BinaryCodec());
+
+        assertEquals(0, encoded.getBytesSaved());
+        assertEquals(0, encoded.getEncodeNanosSaved());
+    }
+}
@@ -1,8 +1,15 @@
 package com.topcard.network;
 
 import com.topcard.domain.Player;
+import com.topcard.network.authentication.TicketSigner;
+import com.topcard.network.game.ClientConnection;
 import com.topcard.network.game.GameMessage;
 import com.topcard.network.game.GameServer;
+import com.topcard.network.game.OutboundQueue;
+import com.topcard.network.game.StreamClientConnection;
+import com.topcard.network.protocol.EncodedMessage;
+import com.topcard.network.protocol.MessageChannel;
+import com.topcard.network.protocol.WireProtocol;
 import com.topcard.presentation.common.Constants;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -22,6 +29,7 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
@@ -78,26 +86,26 @@ public class GameServerTest {
     @Test
     @SuppressWarnings("unchecked")
     void testSendAllBroadcastsToClients() throws IOException, NoSuchFieldException, NoSuchMethodException, InvocationTargetException, IllegalAccessException {
-        ObjectOutputStream out1 = mock(ObjectOutputStream.class);
-        ObjectOutputStream out2 = mock(ObjectOutputStream.class);
+        MessageChannel channel1 = mock(MessageChannel.class);
+        MessageChannel channel2 = mock(MessageChannel.class);
 
         GameMessage message = new GameMessage("TEST_MESSAGE", "payload");
 
-        Field clientOutputsField = server.getClass().getDeclaredField("clientOutputs");
-        clientOutputsField.setAccessible(true);
-        List<ObjectOutputStream> mockOutputs = (List<ObjectOutputStream>) clientOutputsField.get(server);
-        mockOutputs.clear();
-        mockOutputs.add(out1);
-        mockOutputs.add(out2);
+        Field clientConnectionsField = server.getClass().getDeclaredField("clientConnections");
+        clientConnectionsField.setAccessible(true);
+        List<ClientConnection> mockConnections = (List<ClientConnection>) clientConnectionsField.get(server);
+        mockConnections.clear();
+        mockConnections.add(new StreamClientConnection(null, channel1, new OutboundQueue<>(16, OutboundQueue.SlowConsumerPolicy.DISCONNECT), Runnable::run));
+        mockConnections.add(new StreamClientConnection(null, channel2, new OutboundQueue<>(16, OutboundQueue.SlowConsumerPolicy.DISCONNECT), Runnable::run));
 
         Method sendAllMethod = server.getClass().getDeclaredMethod("sendAll", GameMessage.class);
         sendAllMethod.setAccessible(true);
         sendAllMethod.invoke(server, message);
 
-        verify(out1).writeObject(message);
-        verify(out2).writeObject(message);
-        verify(out1).flush();
-        verify(out2).flush();
+        verify(channel1).write(argThat((EncodedMessage encoded) -> encoded.getMessage() == message));
+        verify(channel2).write(argThat((EncodedMessage encoded) -> encoded.getMessage() == message));
+        verify(channel1).flush();
+        verify(channel2).flush();
     }
 
     @Test
@@ -105,6 +113,17 @@ public class GameServerTest {
         assertDoesNotThrow(GameServer::new, "GameServer constructor should not throw");
     }
 
+    @Test
+    void testGameServerBuildsWithoutTicketSecret() {
+        String secret = System.getProperty("auth.ticket.secret");
+        System.clearProperty("auth.ticket.secret"); // As in a client's Spring context, which must not hold the secret
+        try {
+            assertDoesNotThrow(GameServer::new, "Only start() may require the ticket secret");
+        } finally {
+            System.setProperty("auth.ticket.secret", secret);
+        }
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     void testPlayerJoinSimulation() throws Exception {
@@ -139,6 +158,71 @@ public class GameServerTest {
         }
     }
 
+    /**
+     * Tests that a client using the binary protocol can join the blocking server next to object stream clients.
+     */
+    @Test
+    void testBinaryClientJoins() throws IOException {
+        Player player = new Player();
+        player.setUsername("BinaryUser");
+        try (Socket clientSocket = new Socket("localhost", Constants.GAME_PORT);
+             MessageChannel channel = WireProtocol.BINARY.open(clientSocket)) {
+            clientSocket.setSoTimeout(2000);
+            channel.send(new GameMessage("JOIN", player));
+
+            GameMessage lobby = channel.receive();
+            assertEquals("Game Lobby - Number of Players:", lobby.getType());
+            assertTrue((Integer) lobby.getPayload() >= 1);
+        }
+    }
+
+    /**
+     * Tests that a JOIN with a valid session ticket seats the player under the ticket's identity and points.
+     */
+    @Test
+    void testTicketHolderJoinsWithTicketIdentity() throws IOException {
+        Player ticketed = new Player();
+        ticketed.setPlayerId(31);
+        ticketed.setUsername("TicketUser");
+        ticketed.setPoints(250);
+        Player join = new Player();
+        join.setUsername("TicketUser");
+        join.setPoints(999999); // Client-side points are ignored
+        join.setSessionTicket(TicketSigner.fromConfig().issue(ticketed));
+
+        try (Socket clientSocket = new Socket("localhost", Constants.GAME_PORT);
+             MessageChannel channel = WireProtocol.BINARY.open(clientSocket)) {
+            clientSocket.setSoTimeout(2000);
+            channel.send(new GameMessage("JOIN", join));
+
+            assertEquals("Game Lobby - Number of Players:", channel.receive().getType());
+            Player seated = server.getConnectedPlayers().stream()
+                    .filter(p -> "TicketUser".equals(p.getUsername())).findFirst().orElseThrow();
+            assertEquals(31, seated.getPlayerId());
+            assertEquals(250, seated.getPoints());
+            assertTrue(server.getSessions().isVerified(seated));
+        }
+    }
+
+    /**
+     * Tests that a JOIN with a forged session ticket is rejected.
+     */
+    @Test
+    void testForgedTicketIsRejected() throws IOException {
+        Player join = new Player();
+        join.setUsername("ForgedUser");
+        join.setSessionTicket("eyJmb3JnZWQiOnRydWV9.c2lnbmF0dXJl");
+
+        try (Socket clientSocket = new Socket("localhost", Constants.GAME_PORT);
+             MessageChannel channel = WireProtocol.BINARY.open(clientSocket)) {
+            clientSocket.setSoTimeout(2000);
+            channel.send(new GameMessage("JOIN", join));
+
+            assertThrows(IOException.class, channel::receive, "Server should close the connection.");
+            assertTrue(server.getConnectedPlayers().stream().noneMatch(p -> "ForgedUser".equals(p.getUsername())));
+        }
+    }
+
     /**
      * Tests GameServer rejects invalid initial messages (not "JOIN").
      */
@@ -0,0 +1,108 @@
+package com.topcard.network;
+
+import com.topcard.domain.Player;
+import com.topcard.network.game.GameMessage;
+import com.topcard.network.game.GameServer;
+import com.topcard.network.game.Heartbeat;
+import com.topcard.network.protocol.MessageChannel;
+import com.topcard.network.protocol.WireProtocol;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests PING/PONG heartbeats, round-trip tracking and dropping clients that stop answering.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class HeartbeatTest {
+
+    private static final Logger logger = LogManager.getLogger(HeartbeatTest.class);
+    private static final int TEST_PORT = 12347;
+
+    private GameServer server;
+    private Thread serverThread;
+
+    @BeforeAll
+    void setupAll() throws InterruptedException {
+        System.setProperty("game.server.heartbeatIntervalMs", "100"); // Read when the server is created
+        try {
+            server = new GameServer();
+        } finally {
+            System.clearProperty("game.server.heartbeatIntervalMs");
+        }
+        server.setPort(TEST_PORT);
+        serverThread = new Thread(() -> {
+            try {
+                server.start();
+            } catch (Exception e) {
+                logger.debug("Heartbeat test server stopped: {}", e.getMessage());
+            }
+        });
+        serverThread.setDaemon(true);
+        serverThread.start();
+        TimeUnit.MILLISECONDS.sleep(500); // Give server time to bind
+    }
+
+    @AfterAll
+    void tearDownAll() throws IOException, InterruptedException {
+        server.stop();
+        serverThread.join(2000);
+    }
+
+    private MessageChannel join(Socket socket, String username) throws IOException {
+        Player player = new Player();
+        player.setUsername(username);
+        MessageChannel channel = WireProtocol.BINARY.open(socket);
+        socket.setSoTimeout(2000);
+        channel.send(new GameMessage("JOIN", player));
+        assertEquals("Game Lobby - Number of Players:", channel.receive().getType());
+        return channel;
+    }
+
+    private GameMessage receivePing(MessageChannel channel) throws IOException {
+        GameMessage message = channel.receive();
+        assertEquals("PING", message.getType());
+        return message;
+    }
+
+    @Test
+    void testAnsweringClientStaysAndReportsRoundTrips() throws Exception {
+        try (Socket socket = new Socket("localhost", TEST_PORT);
+             MessageChannel channel = join(socket, "pongUser")) {
+            for (int i = 0; i < 5; i++) {
+                channel.send(receivePing(channel).reply("PONG", null));
+            }
+            TimeUnit.MILLISECONDS.sleep(50);
+
+            Heartbeat heartbeat = server.getHeartbeat(server.getTableRegistry().getTables().stream()
+                    .flatMap(table -> table.getConnections().stream())
+                    .filter(c -> "pongUser".equals(c.getPlayer().getUsername())).findFirst().orElseThrow());
+            assertTrue(heartbeat.isAnswering());
+            assertTrue(heartbeat.getRoundTrips().getCount() >= 4);
+            assertTrue(heartbeat.getRoundTrips().getPercentileMicros(99) > 0);
+        }
+    }
+
+    @Test
+    void testClientThatStopsAnsweringIsDropped() throws Exception {
+        try (Socket socket = new Socket("localhost", TEST_PORT);
+             MessageChannel channel = join(socket, "silentUser")) {
+            channel.send(receivePing(channel).reply("PONG", null)); // Answers once, then goes silent
+
+            long deadline = System.currentTimeMillis() + 3000;
+            while (server.getConnectedPlayers().stream().anyMatch(p -> "silentUser".equals(p.getUsername()))) {
+                assertTrue(System.currentTimeMillis() < deadline, "Client should be dropped after missed heartbeats");
+                TimeUnit.MILLISECONDS.sleep(50);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.topcard.network;
+
+import com.topcard.domain.Player;
+import com.topcard.network.game.ClientConnection;
+import com.topcard.network.game.GameTable;
+import com.topcard.network.game.LobbyScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests starting table rounds from countdown deadlines and full-table events.
+ */
+public class LobbySchedulerTest {
+
+    private final AtomicInteger rounds = new AtomicInteger();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private LobbyScheduler scheduler;
+
+    private LobbyScheduler newScheduler(long countdownMs) {
+        scheduler = new LobbyScheduler(countdownMs, Runnable::run, (table, countdown) -> {
+            if (table.startRound(countdown) != null) {
+                rounds.incrementAndGet();
+                started.countDown();
+            }
+        });
+        return scheduler;
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    private GameTable newTable(int capacity, int players) {
+        GameTable table = new GameTable(1, capacity);
+        for (int i = 0; i < players; i++) {
+            Player player = new Player();
+            player.setUsername("player" + i);
+            table.seat(player, mock(ClientConnection.class));
+        }
+        return table;
+    }
+
+    @Test
+    void testRoundStartsWhenCountdownEnds() throws InterruptedException {
+        GameTable table = newTable(4, 1);
+        newScheduler(100);
+
+        assertTrue(scheduler.startCountdown(table));
+        assertEquals(0, rounds.get(), "The round waits for the deadline");
+        assertEquals(1, scheduler.getPendingCount());
+
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        assertEquals(GameTable.State.IN_PROGRESS, table.getState());
+    }
+
+    @Test
+    void testRepeatedStartRequestsShareOneDeadline() {
+        GameTable table = newTable(4, 1);
+        newScheduler(60000);
+
+        assertTrue(scheduler.startCountdown(table));
+        for (int i = 0; i < 100; i++) {
+            assertFalse(scheduler.startCountdown(table));
+        }
+        assertEquals(1, scheduler.getPendingCount());
+    }
+
+    @Test
+    void testFullTableStartsImmediatelyAndCancelsDeadline() {
+        GameTable table = newTable(2, 1);
+        newScheduler(60000);
+        scheduler.startCountdown(table);
+
+        Player last = new Player();
+        last.setUsername("last");
+        table.seat(last, mock(ClientConnection.class));
+        scheduler.tableFull(table);
+
+        assertEquals(1, rounds.get());
+        assertEquals(0, scheduler.getPendingCount(), "The deadline is no longer needed");
+
+        table.finishRound();
+        scheduler.tableFull(table); // Not counting down, so nothing starts
+        assertEquals(1, rounds.get());
+    }
+
+    @Test
+    void testTableFilledAfterShutdownIsDropped() {
+        ExecutorService roundRunner = Executors.newSingleThreadExecutor();
+        scheduler = new LobbyScheduler(60000, roundRunner, (table, countdown) -> rounds.incrementAndGet());
+        GameTable table = newTable(2, 1);
+        scheduler.startCountdown(table);
+
+        roundRunner.shutdown(); // As when the server drains while a JOIN is still being seated
+        scheduler.shutdown();
+        Player last = new Player();
+        last.setUsername("last");
+        table.seat(last, mock(ClientConnection.class));
+        assertDoesNotThrow(() -> scheduler.tableFull(table));
+        assertFalse(scheduler.startCountdown(newTable(2, 1)), "No countdown starts once the lobby is shut down");
+        assertDoesNotThrow(() -> scheduler.schedule(() -> {}, 10));
+        assertEquals(0, rounds.get());
+    }
+}
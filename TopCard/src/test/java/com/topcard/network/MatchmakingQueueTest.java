@@ -0,0 +1,95 @@
+package com.topcard.network;
+
+import com.topcard.domain.Player;
+import com.topcard.network.game.ClientConnection;
+import com.topcard.network.game.MatchmakingQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests grouping waiting players by points.
+ */
+public class MatchmakingQueueTest {
+
+    private MatchmakingQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        // Tables of 2, buckets of 100 points, window grows every second, partial tables after 5 seconds
+        queue = new MatchmakingQueue(2, 100, 1000, 5000);
+    }
+
+    private ClientConnection newConnection(String username, int points) {
+        Player player = new Player();
+        player.setUsername(username);
+        player.setPoints(points);
+        ClientConnection connection = mock(ClientConnection.class);
+        when(connection.getPlayer()).thenReturn(player);
+        return connection;
+    }
+
+    @Test
+    void testPlayersWithSimilarPointsAreMatched() {
+        ClientConnection first = newConnection("a", 120);
+        ClientConnection second = newConnection("b", 180);
+
+        assertNull(queue.enqueue(first, 0));
+        assertEquals(1, queue.getDepth());
+
+        List<ClientConnection> table = queue.enqueue(second, 500);
+        assertEquals(List.of(second, first), table);
+        assertEquals(0, queue.getDepth());
+        assertEquals(2, queue.getMatchedCount());
+    }
+
+    @Test
+    void testWindowWidensWithWaitingTime() {
+        ClientConnection low = newConnection("low", 100);
+        ClientConnection high = newConnection("high", 450); // Three buckets away
+
+        assertNull(queue.enqueue(low, 0));
+        assertNull(queue.enqueue(high, 0));
+        assertTrue(queue.sweep(1000).isEmpty(), "Two buckets is still too narrow");
+
+        List<List<ClientConnection>> tables = queue.sweep(2000);
+        assertEquals(1, tables.size());
+        assertEquals(List.of(low, high), tables.get(0));
+    }
+
+    @Test
+    void testLongWaitFormsPartialTable() {
+        ClientConnection lonely = newConnection("lonely", 100);
+        queue.enqueue(lonely, 0);
+
+        assertTrue(queue.sweep(4000).isEmpty());
+        assertEquals(List.of(List.of(lonely)), queue.sweep(5000));
+        assertEquals(5000, queue.getWaitPercentileMs(99));
+    }
+
+    @Test
+    void testRemovedPlayerIsNotMatched() {
+        ClientConnection leaver = newConnection("leaver", 100);
+        queue.enqueue(leaver, 0);
+
+        assertTrue(queue.remove(leaver));
+        assertNull(queue.enqueue(newConnection("stayer", 100), 10));
+        assertEquals(1, queue.getDepth());
+    }
+
+    @Test
+    void testWaitPercentiles() {
+        for (int i = 0; i < 50; i++) {
+            queue.enqueue(newConnection("p" + i, 100), 0);
+            queue.enqueue(newConnection("q" + i, 100), i * 10L);
+        }
+
+        assertEquals(0, queue.getWaitPercentileMs(50));
+        assertEquals(480, queue.getWaitPercentileMs(99));
+    }
+}
@@ -0,0 +1,103 @@
+package com.topcard.network;
+
+import com.topcard.domain.Player;
+import com.topcard.network.game.GameMessage;
+import com.topcard.network.game.GameServer;
+import com.topcard.network.protocol.MessageChannel;
+import com.topcard.network.protocol.WireProtocol;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the non-blocking (NIO) mode of GameServer with framed clients.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class NioGameServerTest {
+
+    private static final Logger logger = LogManager.getLogger(NioGameServerTest.class);
+    private static final int TEST_PORT = 12346;
+
+    private GameServer server;
+    private Thread serverThread;
+
+    @BeforeAll
+    void setupAll() throws InterruptedException {
+        server = new GameServer();
+        server.setPort(TEST_PORT);
+        server.setServerMode(GameServer.ServerMode.NIO);
+        serverThread = new Thread(() -> {
+            try {
+                server.start();
+            } catch (Exception e) {
+                logger.error("NIO GameServer test thread error: {}", e.getMessage());
+            }
+        });
+        serverThread.setDaemon(true);
+        serverThread.start();
+        TimeUnit.MILLISECONDS.sleep(500); // Give server time to bind
+    }
+
+    @AfterAll
+    void tearDownAll() throws IOException, InterruptedException {
+        server.stop();
+        serverThread.join(2000);
+    }
+
+    private Player newPlayer(String username) {
+        Player player = new Player();
+        player.setUsername(username);
+        return player;
+    }
+
+    @Test
+    void testFramedClientJoinsWhileSilentClientIsConnected() throws IOException {
+        // A client that connects but never sends anything must not hold up the next JOIN
+        try (Socket silentClient = new Socket("localhost", TEST_PORT);
+             MessageChannel channel = WireProtocol.FRAMED.open(new Socket("localhost", TEST_PORT))) {
+            assertTrue(silentClient.isConnected());
+
+            channel.send(new GameMessage("JOIN", newPlayer("nioUser")));
+            GameMessage lobby = channel.receive();
+
+            assertEquals("Game Lobby - Number of Players:", lobby.getType());
+            assertTrue((Integer) lobby.getPayload() >= 1);
+            assertTrue(server.getConnectedPlayers().stream().anyMatch(p -> "nioUser".equals(p.getUsername())));
+        }
+    }
+
+    @Test
+    void testInvalidInitialMessageClosesConnection() throws IOException {
+        try (Socket socket = new Socket("localhost", TEST_PORT);
+             MessageChannel channel = WireProtocol.FRAMED.open(socket)) {
+            socket.setSoTimeout(2000);
+            channel.send(new GameMessage("INVALID_TYPE", "bad payload"));
+            assertThrows(IOException.class, channel::receive, "Server should close the connection.");
+        }
+    }
+
+    @Test
+    void testObjectStreamClientIsRejected() throws IOException {
+        try (Socket socket = new Socket("localhost", TEST_PORT)) {
+            socket.setSoTimeout(2000);
+            // The server may close before the JOIN is written, so the failure can surface on write or read
+            assertThrows(IOException.class, () -> {
+                ObjectOutputStream out = new ObjectOutputStream(socket.getOutputStream());
+                out.writeObject(new GameMessage("JOIN", newPlayer("legacyUser")));
+                out.flush();
+                new ObjectInputStream(socket.getInputStream()).readObject();
+            }, "NIO mode only accepts framed connections.");
+        }
+    }
+}
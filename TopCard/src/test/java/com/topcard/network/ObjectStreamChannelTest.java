@@ -0,0 +1,103 @@
+package com.topcard.network;
+
+import com.topcard.domain.Player;
+import com.topcard.network.game.GameMessage;
+import com.topcard.network.protocol.ObjectStreamChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamConstants;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the original object stream protocol over a loopback connection.
+ */
+public class ObjectStreamChannelTest {
+
+    private ObjectStreamChannel sender;
+    private ObjectStreamChannel receiver;
+
+    @BeforeEach
+    void connect() throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            Socket client = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+            Socket accepted = serverSocket.accept();
+            // Each side blocks until it reads the other's stream header, so one is opened on another thread
+            CompletableFuture<ObjectStreamChannel> accepting = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return new ObjectStreamChannel(accepted);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            sender = new ObjectStreamChannel(client);
+            receiver = accepting.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        sender.close();
+        receiver.close();
+    }
+
+    @Test
+    void testObjectSentAgainArrivesWithItsChanges() throws IOException {
+        Player player = new Player();
+        player.setUsername("alice");
+        player.setPoints(100);
+        GameMessage message = new GameMessage("POINTS_UPDATED", player);
+
+        sender.send(message);
+        player.setPoints(130);
+        sender.send(message);
+
+        assertEquals(100, ((Player) receiver.receive().getPayload()).getPoints());
+        assertEquals(130, ((Player) receiver.receive().getPayload()).getPoints(), "Not a back-reference to the first copy");
+    }
+
+    @Test
+    void testEveryMessageIsWrittenAfterAReset() throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        new ObjectOutputStream(header).flush(); // The peer's stream header, read when the channel opens
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        Socket socket = new Socket() {
+            @Override
+            public InputStream getInputStream() {
+                return new ByteArrayInputStream(header.toByteArray());
+            }
+
+            @Override
+            public OutputStream getOutputStream() {
+                return written;
+            }
+        };
+        ObjectStreamChannel channel = new ObjectStreamChannel(socket);
+        written.reset();
+
+        // A long-lived connection's heartbeats: each must be written in full, none as a back-reference to an earlier
+        // one, so neither side's handle table grows with the number of messages sent
+        channel.send(new GameMessage("PING", null, 1));
+        byte[] first = written.toByteArray();
+        for (int sequence = 2; sequence <= 1000; sequence++) {
+            written.reset();
+            channel.send(new GameMessage("PING", null, sequence));
+            assertEquals(first.length, written.size(), "PING " + sequence + " has the size of the first");
+        }
+        assertEquals(ObjectStreamConstants.TC_RESET, first[first.length - 1], "Each message ends with a stream reset");
+    }
+}
@@ -0,0 +1,101 @@
+package com.topcard.network;
+
+import com.topcard.network.game.GameMessage;
+import com.topcard.network.game.OutboundQueue;
+import com.topcard.network.game.OutboundQueue.SlowConsumerPolicy;
+import com.topcard.network.game.StreamClientConnection;
+import com.topcard.network.protocol.EncodedMessage;
+import com.topcard.network.protocol.MessageChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests per-connection outbound queues and the slow consumer policies.
+ */
+public class OutboundQueueTest {
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        writer.shutdownNow();
+    }
+
+    /**
+     * Returns a channel whose writes block until the test releases them, like a client with a full TCP window.
+     */
+    private MessageChannel stalledChannel(CountDownLatch firstWrite) throws IOException {
+        MessageChannel channel = mock(MessageChannel.class);
+        doAnswer(invocation -> {
+            firstWrite.countDown();
+            release.await();
+            return null;
+        }).when(channel).write(any(EncodedMessage.class));
+        return channel;
+    }
+
+    @Test
+    void testQueueAppliesPolicyWhenFull() {
+        OutboundQueue<String> drop = new OutboundQueue<>(1, SlowConsumerPolicy.DROP);
+        assertEquals(OutboundQueue.OfferResult.QUEUED, drop.offer("a"));
+        assertEquals(OutboundQueue.OfferResult.DROPPED, drop.offer("b"));
+        assertEquals(1, drop.getDroppedCount());
+
+        OutboundQueue<String> disconnect = new OutboundQueue<>(1, SlowConsumerPolicy.DISCONNECT);
+        disconnect.offer("a");
+        assertEquals(OutboundQueue.OfferResult.OVERFLOW, disconnect.offer("b"));
+
+        OutboundQueue<String> buffer = new OutboundQueue<>(1, SlowConsumerPolicy.BUFFER);
+        buffer.offer("a");
+        assertEquals(OutboundQueue.OfferResult.QUEUED, buffer.offer("b"));
+        assertEquals(2, buffer.size());
+        assertEquals("a", buffer.poll());
+    }
+
+    @Test
+    void testSlowClientDoesNotBlockSenderAndIsDisconnected() throws Exception {
+        CountDownLatch firstWrite = new CountDownLatch(1);
+        MessageChannel channel = stalledChannel(firstWrite);
+        StreamClientConnection connection = new StreamClientConnection(null, channel,
+                new OutboundQueue<>(2, SlowConsumerPolicy.DISCONNECT), writer);
+
+        connection.send(new GameMessage("HANDS", null));
+        assertTrue(firstWrite.await(2, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            connection.send(new GameMessage("POINTS_UPDATED", i)); // Third one overflows the queue
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1), "Sending must not wait for the client");
+        verify(channel).close();
+    }
+
+    @Test
+    void testQueuedMessagesShareOneFlush() throws Exception {
+        CountDownLatch firstWrite = new CountDownLatch(1);
+        MessageChannel channel = stalledChannel(firstWrite);
+        StreamClientConnection connection = new StreamClientConnection(null, channel,
+                new OutboundQueue<>(16, SlowConsumerPolicy.DROP), writer);
+
+        connection.send(new GameMessage("HANDS", null));
+        assertTrue(firstWrite.await(2, TimeUnit.SECONDS));
+        connection.send(new GameMessage("POINTS_UPDATED", null));
+        connection.send(new GameMessage("WINNERS", null));
+        release.countDown();
+
+        verify(channel, timeout(2000).times(3)).write(any(EncodedMessage.class));
+        verify(channel, timeout(2000).times(1)).flush();
+        verify(channel, never()).close();
+    }
+}
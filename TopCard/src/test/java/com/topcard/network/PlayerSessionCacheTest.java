@@ -0,0 +1,82 @@
+package com.topcard.network;
+
+import com.topcard.domain.Card;
+import com.topcard.domain.Player;
+import com.topcard.network.authentication.SessionTicket;
+import com.topcard.network.game.PlayerSessionCache;
+import com.topcard.service.game.GameService;
+import com.topcard.service.player.IPlayerService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests that session tickets are trusted for identity only, and that stored points are read once per node.
+ */
+public class PlayerSessionCacheTest {
+
+    private static SessionTicket ticket(int points) {
+        long now = System.currentTimeMillis();
+        return new SessionTicket(31, "TicketUser", points, now, now + 60000);
+    }
+
+    private static Player joinPlayer() {
+        Player join = new Player();
+        join.setUsername("TicketUser");
+        return join;
+    }
+
+    @Test
+    void testTicketPointsAreReplacedByStoredPointsOnFirstRound() {
+        PlayerSessionCache sessions = new PlayerSessionCache();
+        Player player = sessions.resolve(ticket(250), joinPlayer()); // Points at login, since won elsewhere
+        assertTrue(sessions.isVerified(player));
+        assertFalse(sessions.isCurrent(player), "Ticket points are not current");
+
+        Player stored = new Player();
+        stored.setPlayerId(31);
+        stored.setUsername("TicketUser");
+        stored.setPoints(400);
+        IPlayerService playerService = Mockito.mock(IPlayerService.class);
+        when(playerService.getPlayerByUsername("TicketUser")).thenReturn(stored);
+        GameService gameService = new GameService(playerService);
+
+        gameService.setPlayers(List.of(player), sessions::isCurrent);
+        sessions.markCurrent(List.of(player));
+        assertEquals(400, player.getPoints());
+        assertTrue(sessions.isCurrent(player));
+
+        gameService.setPlayers(List.of(player), sessions::isCurrent);
+        verify(playerService, times(1)).getPlayerByUsername("TicketUser"); // Once per session on this node
+    }
+
+    @Test
+    void testRoundsStoreDeltasNotTotals() {
+        PlayerSessionCache sessions = new PlayerSessionCache();
+        Player player = sessions.resolve(ticket(250), joinPlayer());
+        Player other = new Player();
+        other.setPlayerId(32);
+        other.setUsername("OtherUser");
+        IPlayerService playerService = Mockito.mock(IPlayerService.class);
+        GameService gameService = new GameService(playerService);
+
+        gameService.setPlayers(List.of(player, other), sessions::isCurrent);
+        gameService.startGame();
+        player.setHand(new Card[] { Card.of(Card.Suit.HEARTS, Card.Rank.KING), Card.of(Card.Suit.HEARTS, Card.Rank.QUEEN) });
+        other.setHand(new Card[] { Card.of(Card.Suit.CLUBS, Card.Rank.ACE), Card.of(Card.Suit.CLUBS, Card.Rank.TWO) });
+        gameService.executeBettingRound(5);
+
+        assertEquals(255, player.getPoints());
+        verify(playerService).addPoints(31, 5);
+        verify(playerService).addPoints(32, -5);
+        verify(playerService, never()).changePoints(anyInt(), anyInt());
+    }
+}
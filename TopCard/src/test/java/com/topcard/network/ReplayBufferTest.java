@@ -0,0 +1,48 @@
+package com.topcard.network;
+
+import com.topcard.network.game.GameMessage;
+import com.topcard.network.game.ReplayBuffer;
+import com.topcard.network.protocol.EncodedMessage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the per-table replay buffer used to resume dropped clients.
+ */
+public class ReplayBufferTest {
+
+    private EncodedMessage message(int sequence) {
+        return new EncodedMessage(new GameMessage("LOBBY", sequence, sequence));
+    }
+
+    @Test
+    void testReturnsMessagesAfterSequenceInOrder() {
+        ReplayBuffer buffer = new ReplayBuffer(4);
+        for (int i = 1; i <= 3; i++) {
+            assertEquals(i, buffer.nextSequence());
+            assertEquals(i, buffer.add(message(i)));
+        }
+
+        List<EncodedMessage> missed = buffer.since(1);
+        assertEquals(2, missed.size());
+        assertEquals(2, missed.get(0).getMessage().getRequestId());
+        assertEquals(3, missed.get(1).getMessage().getRequestId());
+        assertTrue(buffer.since(3).isEmpty());
+    }
+
+    @Test
+    void testOverwrittenOrUnknownSequenceCannotBeReplayed() {
+        ReplayBuffer buffer = new ReplayBuffer(2);
+        for (int i = 1; i <= 5; i++) {
+            buffer.add(message(i));
+        }
+
+        assertNull(buffer.since(1), "Messages 2 and 3 were overwritten");
+        assertEquals(2, buffer.since(3).size());
+        assertNull(buffer.since(6), "Sequence from the future");
+        assertNull(buffer.since(-1));
+    }
+}
@@ -0,0 +1,137 @@
+package com.topcard.network;
+
+import com.topcard.domain.Player;
+import com.topcard.network.authentication.TicketSigner;
+import com.topcard.network.game.GameMessage;
+import com.topcard.network.game.GameServer;
+import com.topcard.network.protocol.MessageChannel;
+import com.topcard.network.protocol.WireProtocol;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that a ticket holder whose connection drops can RESUME its seat and is sent the broadcasts it missed.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class ResumeTest {
+
+    private static final Logger logger = LogManager.getLogger(ResumeTest.class);
+    private static final int TEST_PORT = 12348;
+    private static final String LOBBY = "Game Lobby - Number of Players:";
+
+    private GameServer server;
+    private Thread serverThread;
+
+    @BeforeAll
+    void setupAll() throws InterruptedException {
+        server = new GameServer();
+        server.setPort(TEST_PORT);
+        serverThread = new Thread(() -> {
+            try {
+                server.start();
+            } catch (Exception e) {
+                logger.debug("Resume test server stopped: {}", e.getMessage());
+            }
+        });
+        serverThread.setDaemon(true);
+        serverThread.start();
+        TimeUnit.MILLISECONDS.sleep(500); // Give server time to bind
+    }
+
+    @AfterAll
+    void tearDownAll() throws IOException, InterruptedException {
+        server.stop();
+        serverThread.join(2000);
+    }
+
+    private String ticketFor(int playerId, String username) {
+        Player player = new Player();
+        player.setPlayerId(playerId);
+        player.setUsername(username);
+        player.setPoints(100);
+        return TicketSigner.fromConfig().issue(player);
+    }
+
+    private Player joinPlayer(String username, String ticket) {
+        Player player = new Player();
+        player.setUsername(username);
+        player.setSessionTicket(ticket);
+        return player;
+    }
+
+    @Test
+    void testDroppedTicketHolderResumesAndReceivesMissedBroadcasts() throws Exception {
+        String ticket = ticketFor(41, "resumeUser");
+        int joinedAt;
+        try (Socket socket = new Socket("localhost", TEST_PORT);
+             MessageChannel channel = WireProtocol.BINARY.open(socket)) {
+            socket.setSoTimeout(2000);
+            channel.send(new GameMessage("JOIN", joinPlayer("resumeUser", ticket)));
+            GameMessage lobby = channel.receive();
+            assertEquals(LOBBY, lobby.getType());
+            joinedAt = lobby.getRequestId();
+            assertTrue(joinedAt > 0, "Table broadcasts carry their sequence number");
+        }
+
+        long deadline = System.currentTimeMillis() + 3000;
+        while (!server.isDetached("resumeUser")) {
+            assertTrue(System.currentTimeMillis() < deadline, "Seat should be held after the connection drops");
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        assertTrue(server.getConnectedPlayers().stream().anyMatch(p -> "resumeUser".equals(p.getUsername())));
+
+        try (Socket other = new Socket("localhost", TEST_PORT);
+             MessageChannel otherChannel = WireProtocol.BINARY.open(other);
+             Socket socket = new Socket("localhost", TEST_PORT);
+             MessageChannel channel = WireProtocol.BINARY.open(socket)) {
+            other.setSoTimeout(2000);
+            otherChannel.send(new GameMessage("JOIN", joinPlayer("stayUser", null))); // Broadcast missed by resumeUser
+            assertEquals(LOBBY, otherChannel.receive().getType());
+
+            socket.setSoTimeout(2000);
+            channel.send(new GameMessage("RESUME", ticket, joinedAt));
+            GameMessage resumed = channel.receive();
+            assertEquals("RESUMED", resumed.getType());
+            assertEquals(2, resumed.getPayload());
+            GameMessage missed = channel.receive();
+            assertEquals(LOBBY, missed.getType());
+            assertEquals(joinedAt + 1, missed.getRequestId());
+            assertEquals(2, missed.getPayload());
+            assertFalse(server.isDetached("resumeUser"));
+        }
+    }
+
+    @Test
+    void testRejectedResumeFallsBackToJoin() throws IOException {
+        try (Socket socket = new Socket("localhost", TEST_PORT);
+             MessageChannel channel = WireProtocol.BINARY.open(socket)) {
+            socket.setSoTimeout(2000);
+            channel.send(new GameMessage("RESUME", ticketFor(42, "strangerUser"), 1));
+            assertEquals("RESUME_REJECTED", channel.receive().getType());
+
+            // The same connection can still join as a new player
+            channel.send(new GameMessage("JOIN", joinPlayer("strangerUser", null)));
+            assertEquals(LOBBY, channel.receive().getType());
+        }
+    }
+
+    @Test
+    void testResumeWithForgedTicketIsRejected() throws IOException {
+        try (Socket socket = new Socket("localhost", TEST_PORT);
+             MessageChannel channel = WireProtocol.BINARY.open(socket)) {
+            socket.setSoTimeout(2000);
+            channel.send(new GameMessage("RESUME", "eyJmb3JnZWQiOnRydWV9.c2lnbmF0dXJl", 1));
+            assertEquals("RESUME_REJECTED", channel.receive().getType());
+        }
+    }
+}
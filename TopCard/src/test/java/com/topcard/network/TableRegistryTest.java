@@ -0,0 +1,104 @@
+package com.topcard.network;
+
+import com.topcard.domain.Player;
+import com.topcard.network.game.ClientConnection;
+import com.topcard.network.game.GameMessage;
+import com.topcard.network.game.GameTable;
+import com.topcard.network.game.TableRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests seating players across game tables.
+ */
+public class TableRegistryTest {
+
+    private TableRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TableRegistry(2, 2);
+    }
+
+    private ClientConnection newConnection(String username) {
+        Player player = new Player();
+        player.setUsername(username);
+        return new ClientConnection() {
+            private Player connectionPlayer = player;
+
+            @Override
+            public void send(GameMessage message) {
+            }
+
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public String getRemoteAddress() {
+                return username;
+            }
+
+            @Override
+            public Player getPlayer() {
+                return connectionPlayer;
+            }
+
+            @Override
+            public void setPlayer(Player player) {
+                this.connectionPlayer = player;
+            }
+        };
+    }
+
+    private GameTable seat(ClientConnection connection) {
+        return registry.seat(connection.getPlayer(), connection);
+    }
+
+    @Test
+    void testFullTableOpensNewTable() {
+        GameTable first = seat(newConnection("a"));
+        assertSame(first, seat(newConnection("b")));
+
+        GameTable second = seat(newConnection("c"));
+        assertNotNull(second);
+        assertNotSame(first, second);
+        assertEquals(2, registry.getTables().size());
+    }
+
+    @Test
+    void testTableInProgressIsNotJoined() {
+        GameTable first = seat(newConnection("a"));
+        assertTrue(first.startCountdown());
+        assertNotNull(first.startRound());
+
+        GameTable second = seat(newConnection("b"));
+        assertNotSame(first, second);
+
+        first.finishRound();
+        assertSame(first, seat(newConnection("c")));
+    }
+
+    @Test
+    void testDuplicateUsernameAndTableLimitAreRejected() {
+        seat(newConnection("a"));
+        assertNull(seat(newConnection("a")));
+
+        seat(newConnection("b"));
+        seat(newConnection("c"));
+        seat(newConnection("d"));
+        assertNull(seat(newConnection("e")), "Both tables are full");
+    }
+
+    @Test
+    void testEmptyTableIsRemoved() {
+        ClientConnection connection = newConnection("a");
+        GameTable table = seat(connection);
+
+        assertSame(table, registry.leave(connection));
+        assertTrue(registry.getTables().isEmpty());
+        assertNull(registry.getTable(connection.getPlayer()));
+    }
+}
@@ -0,0 +1,190 @@
+package com.topcard.network.authentication;
+
+import com.topcard.business.PlayerManager;
+import com.topcard.domain.Player;
+import com.topcard.network.game.GameMessage;
+import com.topcard.network.protocol.MessageChannel;
+import com.topcard.network.protocol.WireProtocol;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mindrot.jbcrypt.BCrypt;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests that one authentication session carries many pipelined requests.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class AuthClientTest {
+
+    private static final int TEST_AUTH_PORT = 9001;
+
+    private AuthenticationServer server;
+    private Thread serverThread;
+    private Player stored;
+
+    @BeforeAll
+    void setUpAll() throws InterruptedException {
+        stored = new Player("mickey", BCrypt.hashpw("password", BCrypt.gensalt(4)), "Mickey", "Mouse", LocalDate.of(1990, 1, 1));
+        stored.setPlayerId(7);
+        PlayerManager playerManager = Mockito.mock(PlayerManager.class);
+        when(playerManager.getPlayerByUsername("mickey")).thenReturn(stored);
+        Player registered = new Player("minnie", BCrypt.hashpw("password", BCrypt.gensalt(4)), "Minnie", "Mouse", LocalDate.of(1990, 1, 1));
+        registered.setPlayerId(8);
+        when(playerManager.getPlayerByUsername("minnie")).thenReturn(null, registered); // Absent until the insert
+        when(playerManager.addPlayer(any(Player.class))).thenReturn(true);
+        when(playerManager.verifyPassword(anyString(), anyString()))
+                .thenAnswer(invocation -> BCrypt.checkpw(invocation.getArgument(0), invocation.getArgument(1)));
+
+        server = new AuthenticationServer(playerManager);
+        server.setAuthPort(TEST_AUTH_PORT);
+        serverThread = new Thread(() -> {
+            try {
+                server.start();
+            } catch (IOException ignored) {
+                // Expected when the server socket closes
+            }
+        });
+        serverThread.setDaemon(true);
+        serverThread.start();
+        TimeUnit.MILLISECONDS.sleep(500);
+    }
+
+    @AfterAll
+    void tearDownAll() throws IOException, InterruptedException {
+        server.stop();
+        serverThread.join(1000);
+    }
+
+    private Player credentials(String username, String password) {
+        Player player = new Player();
+        player.setUsername(username);
+        player.setPassword(password);
+        return player;
+    }
+
+    @Test
+    void testPipelinedRequestsShareOneConnection() throws Exception {
+        AuthClient client = new AuthClient("localhost", TEST_AUTH_PORT);
+        try {
+            assertEquals("AUTH_SUCCESS", client.send("LOGIN", credentials("mickey", "password")).getType());
+
+            List<CompletableFuture<GameMessage>> responses = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                responses.add(client.sendAsync("PROFILE", "mickey")); // Sent before any answer arrives
+            }
+            for (CompletableFuture<GameMessage> response : responses) {
+                GameMessage profile = response.get(2, TimeUnit.SECONDS);
+                assertEquals("PROFILE", profile.getType());
+                Player player = (Player) profile.getPayload();
+                assertEquals(7, player.getPlayerId());
+                assertNull(player.getPassword(), "Profiles must not expose the password hash");
+            }
+            assertEquals(1, client.getConnectCount());
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    void testLoginIssuesSessionTicket() throws IOException {
+        AuthClient client = new AuthClient("localhost", TEST_AUTH_PORT);
+        try {
+            Player player = (Player) client.send("LOGIN", credentials("mickey", "password")).getPayload();
+
+            SessionTicket ticket = TicketSigner.fromConfig().verify(player.getSessionTicket());
+            assertNotNull(ticket, "The game server must accept the ticket");
+            assertEquals(7, ticket.getPlayerId());
+            assertEquals("mickey", ticket.getUsername());
+            assertNull(player.getPassword(), "Login must not return the password hash");
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    void testRegisterTicketCarriesGeneratedId() throws IOException {
+        AuthClient client = new AuthClient("localhost", TEST_AUTH_PORT);
+        try {
+            GameMessage response = client.send("REGISTER", credentials("minnie", "password"));
+            assertEquals("AUTH_SUCCESS", response.getType());
+
+            SessionTicket ticket = TicketSigner.fromConfig().verify(((Player) response.getPayload()).getSessionTicket());
+            assertNotNull(ticket, "The game server must accept the ticket");
+            assertEquals(8, ticket.getPlayerId(), "The ticket must carry the id the insert generated, not 0");
+            assertEquals("minnie", ticket.getUsername());
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    void testTimedOutRequestsAreNotKeptPending() throws Exception {
+        String timeout = System.getProperty("auth.client.requestTimeoutMs");
+        System.setProperty("auth.client.requestTimeoutMs", "200");
+        try (ServerSocket silent = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            CompletableFuture<MessageChannel> accepted = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return WireProtocol.accept(silent.accept(), true); // Opens the session, then never answers
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            AuthClient client = new AuthClient("localhost", silent.getLocalPort());
+            try {
+                for (int i = 0; i < 3; i++) {
+                    assertThrows(IOException.class, () -> client.send("PROFILE", "mickey"));
+                }
+                assertEquals(0, client.getPendingCount(), "Timed-out requests must not pile up on a long-lived session");
+            } finally {
+                client.close();
+                accepted.get(2, TimeUnit.SECONDS).close();
+            }
+        } finally {
+            if (timeout == null) {
+                System.clearProperty("auth.client.requestTimeoutMs");
+            } else {
+                System.setProperty("auth.client.requestTimeoutMs", timeout);
+            }
+        }
+    }
+
+    @Test
+    void testProfileRequiresLogin() throws IOException {
+        AuthClient client = new AuthClient("localhost", TEST_AUTH_PORT);
+        try {
+            assertEquals("AUTH_FAILURE", client.send("PROFILE", "mickey").getType());
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    void testClientReconnectsAfterSessionCloses() throws IOException {
+        AuthClient client = new AuthClient("localhost", TEST_AUTH_PORT);
+        try {
+            assertEquals("AUTH_SUCCESS", client.send("LOGIN", credentials("mickey", "password")).getType());
+            client.close();
+            assertEquals("AUTH_SUCCESS", client.send("LOGIN", credentials("mickey", "password")).getType());
+            assertEquals(2, client.getConnectCount());
+        } finally {
+            client.close();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.topcard.network.authentication;
+
+import com.topcard.network.authentication.LoginThrottle.Limit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the failed login token buckets, their expiry and the bound on tracked keys.
+ */
+public class LoginThrottleTest {
+
+    private final LoginThrottle throttle = new LoginThrottle(new Limit(3, 60), new Limit(2, 60), 4); // One token a second
+
+    @Test
+    void testUsernameIsThrottledAcrossAddresses() {
+        throttle.recordFailure("10.0.0.1", "mickey", 0);
+        throttle.recordFailure("10.0.0.2", "mickey", 0);
+
+        assertTrue(throttle.isThrottled("10.0.0.3", "mickey", 0), "Guesses from new addresses still hit the username");
+        assertFalse(throttle.isThrottled("10.0.0.3", "minnie", 0));
+        assertFalse(throttle.isThrottled("10.0.0.3", null, 0), "Other requests are limited by IP only");
+        assertFalse(throttle.isThrottled("10.0.0.3", "mickey", 1000), "One token refills each second");
+    }
+
+    @Test
+    void testAddressIsThrottledAcrossUsernames() {
+        throttle.recordFailure("10.0.0.1", "a", 0);
+        throttle.recordFailure("10.0.0.1", "b", 0);
+        throttle.recordFailure("10.0.0.1", "c", 0);
+
+        assertTrue(throttle.isThrottled("10.0.0.1", "d", 0));
+        assertTrue(throttle.isThrottled("10.0.0.1", null, 0));
+        assertFalse(throttle.isThrottled("10.0.0.2", "d", 0));
+        assertEquals(2.0 / 3, throttle.getRejectRate(), 0.001);
+    }
+
+    @Test
+    void testSuccessClearsUsernameButNotAddress() {
+        throttle.recordFailure("10.0.0.1", "mickey", 0);
+        throttle.recordFailure("10.0.0.1", "mickey", 0);
+        throttle.recordFailure("10.0.0.1", "mickey", 0);
+        throttle.recordSuccess("mickey");
+
+        assertTrue(throttle.isThrottled("10.0.0.1", "mickey", 0));
+        assertFalse(throttle.isThrottled("10.0.0.2", "mickey", 0));
+    }
+
+    @Test
+    void testRefilledEntriesExpire() {
+        throttle.recordFailure("10.0.0.1", "mickey", 0);
+        assertEquals(2, throttle.getTrackedCount());
+
+        throttle.isThrottled("10.0.0.9", null, 5000); // Any later call moves the wheel
+        assertEquals(0, throttle.getTrackedCount());
+        assertEquals(2, throttle.getExpiredCount());
+    }
+
+    @Test
+    void testFullTableEvictsTheSoonestRefilledBucket() {
+        throttle.recordFailure("10.0.1.0", null, 0);
+        throttle.recordFailure("10.0.1.0", null, 0);
+        throttle.recordFailure("10.0.1.0", null, 0); // Under attack: drained, refills last
+        for (int i = 1; i < 10; i++) {
+            throttle.recordFailure("10.0.1." + i, null, 0); // One failure each
+        }
+
+        assertEquals(4, throttle.getTrackedCount(), "Never more than maxEntries");
+        assertEquals(6, throttle.getEvictedCount());
+        assertTrue(throttle.isThrottled("10.0.1.0", null, 0), "The drained bucket outlives the junk keys");
+    }
+
+    @Test
+    void testLoginFromNewAddressWhileTableIsFull() {
+        for (int i = 0; i < 10; i++) {
+            for (int attempt = 0; attempt < 3; attempt++) {
+                throttle.recordFailure("10.0.1." + i, "junk" + i, 0); // Exhausted junk keys fill the table
+            }
+        }
+
+        assertEquals(4, throttle.getTrackedCount());
+        assertFalse(throttle.isThrottled("10.0.2.1", "mickey", 0), "A newcomer shares no bucket with the junk keys");
+        throttle.recordFailure("10.0.2.1", "mickey", 0);
+        assertFalse(throttle.isThrottled("10.0.2.1", "mickey", 0), "Its first failure is charged to its own buckets");
+    }
+}
@@ -0,0 +1,87 @@
+package com.topcard.network.authentication;
+
+import com.topcard.business.PlayerManager;
+import com.topcard.network.authentication.PasswordVerifier.Result;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mindrot.jbcrypt.BCrypt;
+import org.mockito.Mockito;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the dedicated BCrypt pool, its load shedding and cost calibration.
+ */
+public class PasswordVerifierTest {
+
+    private final PlayerManager playerManager = Mockito.mock(PlayerManager.class);
+    private PasswordVerifier verifier;
+
+    @AfterEach
+    void tearDown() {
+        if (verifier != null) {
+            verifier.shutdown();
+        }
+    }
+
+    @Test
+    void testVerifiesThroughPlayerManager() throws Exception {
+        when(playerManager.verifyPassword(anyString(), anyString()))
+                .thenAnswer(invocation -> BCrypt.checkpw(invocation.getArgument(0), invocation.getArgument(1)));
+        verifier = new PasswordVerifier(playerManager, 1, 4, 4);
+        String hash = BCrypt.hashpw("secret", BCrypt.gensalt(4));
+
+        assertEquals(Result.MATCH, verifier.verify("secret", hash));
+        assertEquals(Result.MISMATCH, verifier.verify("guess", hash));
+        assertEquals(Result.MISMATCH, verifier.verify("secret", null), "Unknown usernames never match");
+        assertEquals(3, verifier.getVerifiedCount());
+        assertEquals(3, verifier.getVerifyTimes().getCount());
+    }
+
+    @Test
+    void testShedsLoginsWhenQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(playerManager.verifyPassword(anyString(), anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return true;
+        });
+        verifier = new PasswordVerifier(playerManager, 1, 1, 4);
+
+        CompletableFuture<Result> running = CompletableFuture.supplyAsync(() -> verifyQuietly("a"));
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+        CompletableFuture<Result> queued = CompletableFuture.supplyAsync(() -> verifyQuietly("b"));
+        long deadline = System.currentTimeMillis() + 2000;
+        while (verifier.getQueueDepth() < 1) {
+            assertTrue(System.currentTimeMillis() < deadline);
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+
+        assertEquals(Result.BUSY, verifier.verify("c", "$2a$04$hash"));
+        assertEquals(1, verifier.getShedCount());
+        release.countDown();
+        assertEquals(Result.MATCH, running.get(2, TimeUnit.SECONDS));
+        assertEquals(Result.MATCH, queued.get(2, TimeUnit.SECONDS));
+    }
+
+    private Result verifyQuietly(String password) {
+        try {
+            return verifier.verify(password, "$2a$04$hash");
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void testCalibrationStaysWithinBounds() {
+        assertEquals(PasswordVerifier.MIN_COST, PasswordVerifier.calibrateCost(0));
+        assertEquals(PasswordVerifier.MAX_COST, PasswordVerifier.calibrateCost(TimeUnit.DAYS.toMillis(1)));
+    }
+}
@@ -0,0 +1,118 @@
+package com.topcard.network.authentication;
+
+import com.topcard.domain.Player;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests issuing and verifying signed session tickets.
+ */
+public class TicketSignerTest {
+
+    private final TicketSigner signer = new TicketSigner("test-secret".getBytes(StandardCharsets.UTF_8), 60000);
+
+    private static void withTicketConfig(String secret, String devMode, Runnable test) {
+        String oldSecret = System.getProperty("auth.ticket.secret");
+        String oldDevMode = System.getProperty("auth.ticket.devMode");
+        System.setProperty("auth.ticket.secret", secret);
+        System.setProperty("auth.ticket.devMode", devMode);
+        try {
+            test.run();
+        } finally {
+            restore("auth.ticket.secret", oldSecret);
+            restore("auth.ticket.devMode", oldDevMode);
+        }
+    }
+
+    private static void restore(String key, String value) {
+        if (value == null) {
+            System.clearProperty(key);
+        } else {
+            System.setProperty(key, value);
+        }
+    }
+
+    private Player newPlayer() {
+        Player player = new Player();
+        player.setPlayerId(42);
+        player.setUsername("alice");
+        player.setPoints(150);
+        return player;
+    }
+
+    @Test
+    void testIssuedTicketVerifies() {
+        SessionTicket ticket = signer.verify(signer.issue(newPlayer()));
+
+        assertNotNull(ticket);
+        assertEquals(42, ticket.getPlayerId());
+        assertEquals("alice", ticket.getUsername());
+        assertEquals(150, ticket.getPoints());
+        assertTrue(ticket.getExpiresAt() > ticket.getIssuedAt());
+    }
+
+    @Test
+    void testTamperedTicketIsRejected() {
+        String token = signer.issue(newPlayer());
+        char[] chars = token.toCharArray();
+        chars[3] = chars[3] == 'A' ? 'B' : 'A'; // Alter the payload, keep the signature
+
+        assertNull(signer.verify(new String(chars)));
+        assertNull(signer.verify("not-a-ticket"));
+        assertNull(signer.verify(null));
+    }
+
+    @Test
+    void testTicketFromOtherSecretIsRejected() {
+        TicketSigner other = new TicketSigner("other-secret".getBytes(StandardCharsets.UTF_8), 60000);
+
+        assertNull(signer.verify(other.issue(newPlayer())));
+    }
+
+    @Test
+    void testExpiredTicketIsRejected() {
+        long now = System.currentTimeMillis();
+        String token = signer.issue(new SessionTicket(42, "alice", 150, now - 2000, now - 1000));
+
+        assertNull(signer.verify(token));
+    }
+
+    @Test
+    void testFromConfigRefusesMissingOrDevelopmentSecret() {
+        withTicketConfig("", "false", () -> assertThrows(IllegalStateException.class, TicketSigner::fromConfig));
+        withTicketConfig("topcard-dev-ticket-secret", "false", () -> assertThrows(IllegalStateException.class, TicketSigner::fromConfig));
+        withTicketConfig("", "true", () -> assertNotNull(TicketSigner.fromConfig(), "Allowed in explicit development mode"));
+        withTicketConfig("a-private-secret", "false", () -> {
+            TicketSigner configured = TicketSigner.fromConfig();
+            assertNotNull(configured.verify(configured.issue(newPlayer())));
+            assertNull(new TicketSigner("topcard-dev-ticket-secret".getBytes(StandardCharsets.UTF_8), 60000)
+                    .verify(configured.issue(newPlayer())), "A development-secret forgery does not verify");
+        });
+    }
+
+    @Test
+    void testFromConfigReadsSecretFile() throws IOException {
+        Path file = Files.createTempFile("ticket-secret", ".txt");
+        Files.writeString(file, "a-private-secret-from-a-file\n");
+        System.setProperty("auth.ticket.secretFile", file.toString());
+        try {
+            withTicketConfig("", "false", () -> {
+                TicketSigner configured = TicketSigner.fromConfig();
+                assertNotNull(new TicketSigner("a-private-secret-from-a-file".getBytes(StandardCharsets.UTF_8), 60000)
+                        .verify(configured.issue(newPlayer())), "Signed with the file's secret, without its trailing newline");
+            });
+            System.setProperty("auth.ticket.secretFile", file + ".missing");
+            withTicketConfig("", "true", () -> assertThrows(IllegalStateException.class, TicketSigner::fromConfig,
+                    "A named but unreadable file is an error, not a fallback to development mode"));
+        } finally {
+            System.clearProperty("auth.ticket.secretFile");
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.topcard.network.router;
+
+import com.topcard.domain.Player;
+import com.topcard.network.game.GameMessage;
+import com.topcard.network.game.GameServer;
+import com.topcard.network.protocol.MessageChannel;
+import com.topcard.network.protocol.WireProtocol;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the LobbyRouter sends joining clients to a GameServer node that reports to it.
+ */
+public class LobbyRouterTest {
+
+    private static final Logger logger = LogManager.getLogger(LobbyRouterTest.class);
+    private static final int ROUTER_PORT = 12351;
+    private static final int NODE_PORT = 12352;
+    private static final int NIO_NODE_PORT = 12353;
+
+    private LobbyRouter router;
+    private GameServer node;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        router = new LobbyRouter();
+        router.setPort(ROUTER_PORT);
+        startDaemon(() -> {
+            try {
+                router.start();
+            } catch (IOException e) {
+                logger.debug("Router test router stopped: {}", e.getMessage());
+            }
+        });
+        node = new GameServer();
+        node.setPort(NODE_PORT);
+        node.setRouter("localhost:" + ROUTER_PORT);
+        TimeUnit.MILLISECONDS.sleep(300); // Give the router time to bind
+        startDaemon(() -> {
+            try {
+                node.start();
+            } catch (Exception e) {
+                logger.debug("Router test node stopped: {}", e.getMessage());
+            }
+        });
+        waitForLiveNodes(1);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException, InterruptedException {
+        node.stop();
+        router.stop();
+    }
+
+    @Test
+    void testJoinIsRedirectedToTheNode() throws Exception {
+        Player player = new Player();
+        player.setUsername("routedUser");
+
+        GameMessage redirect = joinRouter(player);
+        assertEquals("REDIRECT", redirect.getType());
+        assertEquals("localhost:" + NODE_PORT, redirect.getPayload());
+
+        try (Socket socket = new Socket("localhost", NODE_PORT);
+             MessageChannel channel = WireProtocol.BINARY.open(socket)) {
+            socket.setSoTimeout(2000);
+            channel.send(new GameMessage("JOIN", player));
+            assertEquals("Game Lobby - Number of Players:", channel.receive().getType());
+        }
+    }
+
+    @Test
+    void testDrainingNodeIsNoLongerRouted() throws Exception {
+        node.drain();
+        waitForLiveNodes(0);
+
+        Player player = new Player();
+        player.setUsername("lateUser");
+        assertEquals("SHUTDOWN", joinRouter(player).getType(), "No node can take the player");
+    }
+
+    @Test
+    void testNioNodeReportsWhileServing() throws Exception {
+        GameServer nioNode = new GameServer();
+        nioNode.setPort(NIO_NODE_PORT);
+        nioNode.setServerMode(GameServer.ServerMode.NIO);
+        nioNode.setRouter("localhost:" + ROUTER_PORT);
+        startDaemon(() -> {
+            try {
+                nioNode.start();
+            } catch (Exception e) {
+                logger.debug("Router test NIO node stopped: {}", e.getMessage());
+            }
+        });
+        try {
+            waitForLiveNodes(2);
+            assertTrue(router.getDirectory().getNodes().stream()
+                    .anyMatch(status -> status.address().endsWith(":" + NIO_NODE_PORT)), "The NIO node is in the directory");
+        } finally {
+            nioNode.stop();
+        }
+    }
+
+    @Test
+    void testNodeWithoutClusterSecretIsNotRouted() throws Exception {
+        NodeStatus impostor = new NodeStatus("attacker.example:6666", 0, 0, 0, 1000, false);
+        try (Socket socket = new Socket("localhost", ROUTER_PORT);
+             MessageChannel channel = WireProtocol.BINARY.open(socket)) {
+            socket.setSoTimeout(2000);
+            channel.send(new GameMessage("NODE_STATUS", impostor));
+            String challenge = (String) channel.receive().getPayload();
+            NodeAuthenticator wrongSecret = new NodeAuthenticator("guessed-secret".getBytes(StandardCharsets.UTF_8));
+            channel.send(new GameMessage("NODE_AUTH", wrongSecret.respond(challenge, impostor.address())));
+            channel.send(new GameMessage("NODE_STATUS", impostor));
+            assertThrows(IOException.class, channel::receive, "The router closes the connection");
+        }
+
+        assertTrue(router.getDirectory().getNodes().stream().noneMatch(status -> status.address().equals(impostor.address())));
+        Player player = new Player();
+        player.setUsername("safeUser");
+        assertEquals("localhost:" + NODE_PORT, joinRouter(player).getPayload(), "Players still go to the real node");
+    }
+
+    @Test
+    void testRouterRefusesToStartWithoutClusterSecret() {
+        String secret = System.getProperty("router.secret");
+        System.clearProperty("router.secret");
+        try {
+            LobbyRouter unconfigured = new LobbyRouter();
+            unconfigured.setPort(ROUTER_PORT + 10);
+            assertThrows(IllegalStateException.class, unconfigured::start);
+        } finally {
+            System.setProperty("router.secret", secret);
+        }
+    }
+
+    private GameMessage joinRouter(Player player) throws IOException {
+        try (Socket socket = new Socket("localhost", ROUTER_PORT);
+             MessageChannel channel = WireProtocol.BINARY.open(socket)) {
+            socket.setSoTimeout(2000);
+            channel.send(new GameMessage("JOIN", player));
+            return channel.receive();
+        }
+    }
+
+    private void waitForLiveNodes(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 3000;
+        while (router.getDirectory().getLiveCount(System.currentTimeMillis()) != count && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        assertEquals(count, router.getDirectory().getLiveCount(System.currentTimeMillis()));
+    }
+
+    private static void startDaemon(Runnable task) {
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
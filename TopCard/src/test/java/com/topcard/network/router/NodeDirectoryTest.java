@@ -0,0 +1,61 @@
+package com.topcard.network.router;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests how the router's NodeDirectory places joining players on the cluster's nodes.
+ */
+public class NodeDirectoryTest {
+
+    private static final long NODE_TIMEOUT_MS = 3000;
+    private static final long JOIN_GRACE_MS = 1000;
+
+    private final NodeDirectory directory = new NodeDirectory(4, NODE_TIMEOUT_MS, JOIN_GRACE_MS);
+
+    @Test
+    void testOpenTablesFillBeforeANewTableOpensOnTheLeastLoadedNode() {
+        directory.update(new NodeStatus("a:1", 5, 18, 2, 10, false), 0);
+        directory.update(new NodeStatus("b:2", 2, 8, 0, 10, false), 0);
+
+        assertEquals("a:1", directory.route(10), "Fills the table waiting on a");
+        assertEquals("a:1", directory.route(20));
+        assertEquals("b:2", directory.route(30), "a's table is full; b has the lower share of tables in use");
+        assertEquals("b:2", directory.route(40), "The new table on b fills next");
+    }
+
+    @Test
+    void testLoadIsTheShareOfTheNodesTableLimit() {
+        directory.update(new NodeStatus("big:1", 50, 200, 0, 100, false), 0);
+        directory.update(new NodeStatus("small:2", 3, 12, 0, 4, false), 0);
+
+        assertEquals("big:1", directory.route(10));
+    }
+
+    @Test
+    void testDrainingAndSilentNodesAreNotRouted() {
+        directory.update(new NodeStatus("draining:1", 0, 0, 0, 10, true), 0);
+        directory.update(new NodeStatus("silent:2", 0, 0, 0, 10, false), 0);
+
+        assertNull(directory.route(NODE_TIMEOUT_MS + 1));
+        assertEquals(0, directory.getLiveCount(NODE_TIMEOUT_MS + 1));
+
+        directory.update(new NodeStatus("silent:2", 0, 0, 0, 10, false), NODE_TIMEOUT_MS + 2);
+        assertEquals("silent:2", directory.route(NODE_TIMEOUT_MS + 3));
+    }
+
+    @Test
+    void testRoutedPlayersCountUntilTheNodeCanReportThem() {
+        directory.update(new NodeStatus("a:1", 0, 0, 0, 1, false), 0);
+
+        for (int seat = 0; seat < 4; seat++) {
+            assertEquals("a:1", directory.route(10 + seat));
+        }
+        assertNull(directory.route(20), "The only table a may open is taken by players still joining");
+        assertEquals("a:1", directory.route(20 + JOIN_GRACE_MS), "Players not reported after the grace period are not counted");
+
+        directory.remove("a:1");
+        assertNull(directory.route(30 + JOIN_GRACE_MS));
+    }
+}
@@ -0,0 +1,49 @@
+package com.topcard.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the executors used by the servers to run client handlers.
+ */
+public class ExecutorModeTest {
+
+    private static final int POOL_SIZE = 4;
+
+    /**
+     * Starts more blocking tasks than the pool size and reports whether they all ran at the same time.
+     */
+    private boolean runsAllConcurrently(ExecutorMode mode, int tasks) throws InterruptedException {
+        ExecutorService executor = mode.newExecutor("test", POOL_SIZE);
+        CountDownLatch started = new CountDownLatch(tasks);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            for (int i = 0; i < tasks; i++) {
+                executor.submit(() -> {
+                    started.countDown();
+                    release.await(); // Blocks like a handler waiting on its socket
+                    return null;
+                });
+            }
+            return started.await(2, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testVirtualModeRunsEveryConnectionConcurrently() throws InterruptedException {
+        assertTrue(runsAllConcurrently(ExecutorMode.VIRTUAL, 200), "No connection should wait for a free handler thread");
+    }
+
+    @Test
+    void testFixedModeIsBoundedByPoolSize() throws InterruptedException {
+        assertFalse(runsAllConcurrently(ExecutorMode.FIXED, POOL_SIZE + 1));
+    }
+}
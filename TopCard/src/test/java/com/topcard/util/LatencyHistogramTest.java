@@ -0,0 +1,27 @@
+package com.topcard.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the power-of-two latency histogram.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    void testPercentilesFallInPowerOfTwoBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileMicros(50));
+
+        for (int i = 0; i < 99; i++) {
+            histogram.record(300_000); // 300 us
+        }
+        histogram.record(5_000_000); // 5 ms
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(512, histogram.getPercentileMicros(50));
+        assertEquals(512, histogram.getPercentileMicros(99));
+        assertEquals(8192, histogram.getPercentileMicros(100));
+    }
+}
@@ -0,0 +1,61 @@
+package com.topcard.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the metrics registry, its rate meters and its JMX view.
+ */
+public class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    @Test
+    void testSnapshotReportsEveryKindByName() {
+        registry.counter("test.requests").add(3);
+        AtomicInteger open = new AtomicInteger(7);
+        registry.gauge("test.open", open::get);
+        registry.histogram("test.latency").record(300_000);
+        registry.meter("other.events").mark();
+
+        Map<String, Number> values = registry.snapshot("test");
+        assertEquals(3L, values.get("test.requests"));
+        assertEquals(7, values.get("test.open"));
+        assertEquals(1L, values.get("test.latency.count"));
+        assertEquals(512L, values.get("test.latency.p99Micros"));
+        assertFalse(values.containsKey("other.events.count"), "Only the requested group");
+        assertEquals(1L, registry.snapshot(null).get("other.events.count"));
+        assertSame(registry.counter("test.requests"), registry.counter("test.requests"));
+    }
+
+    @Test
+    void testMeterRateCoversTheLastMinute() {
+        MetricsRegistry.Meter meter = new MetricsRegistry.Meter();
+        for (int i = 0; i < 120; i++) {
+            meter.mark(1000);
+        }
+        meter.mark(1001); // Current second, not yet counted
+
+        assertEquals(2.0, meter.getRatePerSecond(1001), 0.001);
+        assertEquals(0.0, meter.getRatePerSecond(1100), 0.001, "Older than a minute");
+        assertEquals(121, meter.getCount());
+    }
+
+    @Test
+    void testGroupsArePublishedOverJmx() throws Exception {
+        registry.counter("jmxtest.requests").add(5);
+        registry.publishJmx();
+        registry.gauge("jmxlate.size", () -> 2); // Groups added after publishing are registered too
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(5L, server.getAttribute(new ObjectName("com.topcard:type=Metrics,name=jmxtest"), "requests"));
+        assertEquals(2, server.getAttribute(new ObjectName("com.topcard:type=Metrics,name=jmxlate"), "size"));
+    }
+}
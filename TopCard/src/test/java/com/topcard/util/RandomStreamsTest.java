@@ -0,0 +1,91 @@
+package com.topcard.util;
+
+import com.topcard.domain.Card;
+import com.topcard.domain.Deck;
+import com.topcard.domain.Game;
+import com.topcard.domain.Player;
+import com.topcard.domain.Shoe;
+import com.topcard.network.game.GameTable;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator.SplittableGenerator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the seeded and split shuffle streams.
+ */
+public class RandomStreamsTest {
+
+    @Test
+    void testRecordedSeedReplaysTheShuffle() {
+        Deck dealt = new Deck(RandomStreams.forSeed(1234L));
+        Deck replayed = new Deck(RandomStreams.forSeed(1234L));
+        dealt.shuffle();
+        replayed.shuffle();
+        for (int i = 0; i < 52; i++) {
+            assertEquals(dealt.dealCode(), replayed.dealCode());
+        }
+    }
+
+    @Test
+    void testSplitStreamsAreIndependent() {
+        SplittableGenerator root = RandomStreams.newRoot();
+        SplittableGenerator first = root.split();
+        SplittableGenerator second = root.split();
+        assertNotEquals(first.nextLong(), second.nextLong(), "Each table draws from its own stream");
+    }
+
+    @Test
+    void testDefaultAlgorithmIsSplittable() {
+        assertEquals(RandomStreams.DEFAULT_ALGORITHM, RandomStreams.getAlgorithm());
+    }
+
+    @Test
+    void testLoggedShoeSeedAndOffsetReplayEveryRound() {
+        List<Player> players = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            players.add(new Player("username" + i, "password", "firstName" + i, "lastName" + i, LocalDate.of(2000, 1, i)));
+        }
+        GameTable table = new GameTable(1, 3, 4, RandomStreams.forSeed(99L));
+        Game game = new Game(players, new Shoe(2, 75, null));
+        List<long[]> logged = new ArrayList<>(); // Shoe seed and offset, as in the round log
+        List<Card[][]> dealt = new ArrayList<>();
+        for (int round = 0; round < 12; round++) { // Several shuffles of the 104-card shoe
+            long seed = table.nextRoundSeed();
+            game.setRandomGenerator(RandomStreams.forSeed(seed));
+            game.startGame();
+            logged.add(new long[] { table.recordShoe(seed, game.getShoeOffset()), game.getShoeOffset() });
+            dealt.add(game.getHands().stream().map(Card[]::clone).toArray(Card[][]::new));
+        }
+        assertTrue(logged.stream().filter(entry -> entry[1] == 0).count() > 1, "The shoe was shuffled more than once");
+
+        for (int round = 0; round < logged.size(); round++) {
+            Shoe replay = new Shoe(2, 75, RandomStreams.forSeed(logged.get(round)[0]));
+            replay.shuffle();
+            for (int i = 0; i < logged.get(round)[1]; i++) {
+                replay.deal();
+            }
+            for (Card[] hand : dealt.get(round)) {
+                for (Card card : hand) {
+                    assertSame(card, replay.deal(), "Round " + round + " is dealt again from its logged seed and offset");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testShuffleDoesNotDependOnEarlierShuffles() {
+        Deck reused = new Deck();
+        reused.shuffle(RandomStreams.forSeed(1L));
+        reused.shuffle(RandomStreams.forSeed(2L));
+        Deck fresh = new Deck(RandomStreams.forSeed(2L));
+        fresh.shuffle();
+        for (int i = 0; i < 52; i++) {
+            assertEquals(fresh.dealCode(), reused.dealCode());
+        }
+    }
+}